@@ -1,9 +1,11 @@
 package br.com.yawarasolution.DTO.category;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.UUID;
 
 import br.com.yawarasolution.model.Product;
+import br.com.yawarasolution.utils.Money;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -23,7 +25,7 @@ public class ProductCategoryResponseDTO {
 
   private Boolean isActive;
   
-  private Double price;
+  private BigDecimal price;
   
   private Integer stock;
   
@@ -40,7 +42,7 @@ public class ProductCategoryResponseDTO {
     this.description = p.getDescription();
     this.rating = p.getRating();
     this.isActive = p.getIsActive();
-    this.price = p.getPrice();
+    this.price = Money.fromCents(p.getPriceCents());
     this.stock = p.getStock();
     this.createdAt = p.getCreatedAt();
     this.updatedAt = p.getUpdatedAt();
@@ -0,0 +1,34 @@
+package br.com.yawarasolution.DTO.diagnostics;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class CacheInvalidationStatusResponseDTO {
+
+  private String nodeId;
+
+  private String channel;
+
+  private Boolean listening;
+
+  private Long sent;
+
+  private Long received;
+
+  private Long reconnects;
+
+  public CacheInvalidationStatusResponseDTO(String nodeId, String channel, Boolean listening, Long sent,
+      Long received, Long reconnects) {
+    this.nodeId = nodeId;
+    this.channel = channel;
+    this.listening = listening;
+    this.sent = sent;
+    this.received = received;
+    this.reconnects = reconnects;
+  }
+
+}
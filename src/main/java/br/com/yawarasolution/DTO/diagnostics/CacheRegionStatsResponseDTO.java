@@ -0,0 +1,27 @@
+package br.com.yawarasolution.DTO.diagnostics;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class CacheRegionStatsResponseDTO {
+
+  private String region;
+
+  private Long hits;
+
+  private Long misses;
+
+  private Long puts;
+
+  public CacheRegionStatsResponseDTO(String region, Long hits, Long misses, Long puts) {
+    this.region = region;
+    this.hits = hits;
+    this.misses = misses;
+    this.puts = puts;
+  }
+
+}
@@ -0,0 +1,34 @@
+package br.com.yawarasolution.DTO.diagnostics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class CacheStatsResponseDTO {
+
+  private List<CacheRegionStatsResponseDTO> regions = new ArrayList<>();
+
+  private Long queryCacheHits;
+
+  private Long queryCacheMisses;
+
+  private Long queryCachePuts;
+
+  private Long queryExecutions;
+
+  public CacheStatsResponseDTO(List<CacheRegionStatsResponseDTO> regions, Long queryCacheHits,
+      Long queryCacheMisses, Long queryCachePuts, Long queryExecutions) {
+    this.regions = regions;
+    this.queryCacheHits = queryCacheHits;
+    this.queryCacheMisses = queryCacheMisses;
+    this.queryCachePuts = queryCachePuts;
+    this.queryExecutions = queryExecutions;
+  }
+
+}
@@ -0,0 +1,36 @@
+package br.com.yawarasolution.DTO.diagnostics;
+
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class ConnectionHoldStatsResponseDTO {
+
+  private String method;
+
+  private Long count;
+
+  private Long averageMillis;
+
+  private Long maxMillis;
+
+  private Long externalCallMillis;
+
+  private Map<String, Long> holdMillis;
+
+  public ConnectionHoldStatsResponseDTO(String method, Long count, Long averageMillis, Long maxMillis,
+      Long externalCallMillis, Map<String, Long> holdMillis) {
+    this.method = method;
+    this.count = count;
+    this.averageMillis = averageMillis;
+    this.maxMillis = maxMillis;
+    this.externalCallMillis = externalCallMillis;
+    this.holdMillis = holdMillis;
+  }
+
+}
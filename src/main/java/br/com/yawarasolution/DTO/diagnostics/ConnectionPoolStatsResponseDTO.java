@@ -0,0 +1,39 @@
+package br.com.yawarasolution.DTO.diagnostics;
+
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class ConnectionPoolStatsResponseDTO {
+
+  private String pool;
+
+  private Integer active;
+
+  private Integer idle;
+
+  private Integer threadsAwaiting;
+
+  private Integer maximumPoolSize;
+
+  private Map<String, Long> waitMillis;
+
+  private Map<String, Long> activeAtBorrow;
+
+  public ConnectionPoolStatsResponseDTO(String pool, Integer active, Integer idle, Integer threadsAwaiting,
+      Integer maximumPoolSize, Map<String, Long> waitMillis, Map<String, Long> activeAtBorrow) {
+    this.pool = pool;
+    this.active = active;
+    this.idle = idle;
+    this.threadsAwaiting = threadsAwaiting;
+    this.maximumPoolSize = maximumPoolSize;
+    this.waitMillis = waitMillis;
+    this.activeAtBorrow = activeAtBorrow;
+  }
+
+}
@@ -0,0 +1,29 @@
+package br.com.yawarasolution.DTO.diagnostics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class ConnectionStatsResponseDTO {
+
+  private List<ConnectionPoolStatsResponseDTO> pools = new ArrayList<>();
+
+  private Map<String, Long> holdMillis;
+
+  private List<ConnectionHoldStatsResponseDTO> methods = new ArrayList<>();
+
+  public ConnectionStatsResponseDTO(List<ConnectionPoolStatsResponseDTO> pools, Map<String, Long> holdMillis,
+      List<ConnectionHoldStatsResponseDTO> methods) {
+    this.pools = pools;
+    this.holdMillis = holdMillis;
+    this.methods = methods;
+  }
+
+}
@@ -0,0 +1,48 @@
+package br.com.yawarasolution.DTO.diagnostics;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class DependencyStatusResponseDTO {
+
+  private String name;
+
+  private String state;
+
+  private Float failureRate;
+
+  private Float slowCallRate;
+
+  private Integer bufferedCalls;
+
+  private Integer failedCalls;
+
+  private Integer slowCalls;
+
+  private Long notPermittedCalls;
+
+  private Integer availableConcurrentCalls;
+
+  private Integer maxConcurrentCalls;
+
+  public DependencyStatusResponseDTO(CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+    CircuitBreaker.Metrics metrics = circuitBreaker.getMetrics();
+    this.name = circuitBreaker.getName();
+    this.state = circuitBreaker.getState().name();
+    this.failureRate = metrics.getFailureRate();
+    this.slowCallRate = metrics.getSlowCallRate();
+    this.bufferedCalls = metrics.getNumberOfBufferedCalls();
+    this.failedCalls = metrics.getNumberOfFailedCalls();
+    this.slowCalls = metrics.getNumberOfSlowCalls();
+    this.notPermittedCalls = metrics.getNumberOfNotPermittedCalls();
+    this.availableConcurrentCalls = bulkhead.getMetrics().getAvailableConcurrentCalls();
+    this.maxConcurrentCalls = bulkhead.getMetrics().getMaxAllowedConcurrentCalls();
+  }
+
+}
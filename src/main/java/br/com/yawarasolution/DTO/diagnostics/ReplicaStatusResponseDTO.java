@@ -0,0 +1,25 @@
+package br.com.yawarasolution.DTO.diagnostics;
+
+import br.com.yawarasolution.datasource.ReplicaRoutingDataSource;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class ReplicaStatusResponseDTO {
+
+  private String name;
+
+  private Boolean healthy;
+
+  private Double lagSeconds;
+
+  public ReplicaStatusResponseDTO(ReplicaRoutingDataSource.Replica replica) {
+    this.name = replica.getName();
+    this.healthy = replica.isHealthy();
+    this.lagSeconds = replica.getLagSeconds();
+  }
+
+}
@@ -0,0 +1,45 @@
+package br.com.yawarasolution.DTO.diagnostics;
+
+import java.time.Instant;
+
+import br.com.yawarasolution.model.ScheduledJob;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class ScheduledJobResponseDTO {
+
+  private String name;
+
+  private Instant lastStartedAt;
+
+  private Instant lastFinishedAt;
+
+  private Long lastDurationMs;
+
+  private Long lastRowsAffected;
+
+  private String lastStatus;
+
+  private String lastError;
+
+  private String lastNode;
+
+  private String resumeCursor;
+
+  public ScheduledJobResponseDTO(ScheduledJob job) {
+    this.name = job.getName();
+    this.lastStartedAt = job.getLastStartedAt();
+    this.lastFinishedAt = job.getLastFinishedAt();
+    this.lastDurationMs = job.getLastDurationMs();
+    this.lastRowsAffected = job.getLastRowsAffected();
+    this.lastStatus = job.getLastStatus();
+    this.lastError = job.getLastError();
+    this.lastNode = job.getLastNode();
+    this.resumeCursor = job.getResumeCursor();
+  }
+
+}
@@ -0,0 +1,34 @@
+package br.com.yawarasolution.DTO.diagnostics;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class SqlEndpointStatsResponseDTO {
+
+  private String endpoint;
+
+  private Long requests;
+
+  private Long averageStatements;
+
+  private Long maxStatements;
+
+  private Long averageDbMillis;
+
+  private Long overBudget;
+
+  public SqlEndpointStatsResponseDTO(String endpoint, Long requests, Long averageStatements, Long maxStatements,
+      Long averageDbMillis, Long overBudget) {
+    this.endpoint = endpoint;
+    this.requests = requests;
+    this.averageStatements = averageStatements;
+    this.maxStatements = maxStatements;
+    this.averageDbMillis = averageDbMillis;
+    this.overBudget = overBudget;
+  }
+
+}
@@ -0,0 +1,34 @@
+package br.com.yawarasolution.DTO.diagnostics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class SqlStatsResponseDTO {
+
+  private Integer statementBudget;
+
+  private Long slowMillis;
+
+  private Long slowLogged;
+
+  private Long slowDropped;
+
+  private List<SqlEndpointStatsResponseDTO> endpoints = new ArrayList<>();
+
+  public SqlStatsResponseDTO(Integer statementBudget, Long slowMillis, Long slowLogged, Long slowDropped,
+      List<SqlEndpointStatsResponseDTO> endpoints) {
+    this.statementBudget = statementBudget;
+    this.slowMillis = slowMillis;
+    this.slowLogged = slowLogged;
+    this.slowDropped = slowDropped;
+    this.endpoints = endpoints;
+  }
+
+}
@@ -0,0 +1,21 @@
+package br.com.yawarasolution.DTO.diagnostics;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class StartupPhaseResponseDTO {
+
+  private String name;
+
+  private Long millis;
+
+  public StartupPhaseResponseDTO(String name, Long millis) {
+    this.name = name;
+    this.millis = millis;
+  }
+
+}
@@ -0,0 +1,37 @@
+package br.com.yawarasolution.DTO.diagnostics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class StartupReportResponseDTO {
+
+  private String runtime;
+
+  private Long rssKb;
+
+  private Long jvmMillis;
+
+  private Long readyMillis;
+
+  private List<StartupPhaseResponseDTO> phases = new ArrayList<>();
+
+  private List<StartupPhaseResponseDTO> slowestBeans = new ArrayList<>();
+
+  public StartupReportResponseDTO(String runtime, Long rssKb, Long jvmMillis, Long readyMillis,
+      List<StartupPhaseResponseDTO> phases, List<StartupPhaseResponseDTO> slowestBeans) {
+    this.runtime = runtime;
+    this.rssKb = rssKb;
+    this.jvmMillis = jvmMillis;
+    this.readyMillis = readyMillis;
+    this.phases = phases;
+    this.slowestBeans = slowestBeans;
+  }
+
+}
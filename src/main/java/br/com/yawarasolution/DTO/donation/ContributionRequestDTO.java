@@ -0,0 +1,34 @@
+package br.com.yawarasolution.DTO.donation;
+
+import java.math.BigDecimal;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@Getter
+@Setter
+public class ContributionRequestDTO {
+
+  @NotBlank(message = "name must not be blank")
+  @Size(max = 100, message = "name must have at most 100 characters")
+  private String name;
+
+  @NotBlank(message = "email must not be blank")
+  @Email(message = "email must be valid")
+  @Size(max = 100, message = "email must have at most 100 characters")
+  private String email;
+
+  @NotNull(message = "The amount cannot be null.")
+  @DecimalMin(value = "0.01", message = "Amount must be greater than or equal to 0.01")
+  @Digits(integer = 8, fraction = 2, message = "Amount must have at most 8 integer digits and 2 decimals")
+  private BigDecimal amount;
+
+}
@@ -0,0 +1,33 @@
+package br.com.yawarasolution.DTO.donation;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@Getter
+@Setter
+public class DonationProgressResponseDTO {
+
+  private UUID id;
+
+  private String status;
+
+  private BigDecimal goal;
+
+  private BigDecimal amountReceived;
+
+  private Boolean goalReached;
+
+  public DonationProgressResponseDTO(UUID id, String status, long goalCents, long amountReceivedCents) {
+    this.id = id;
+    this.status = status;
+    this.goal = BigDecimal.valueOf(goalCents, 2);
+    this.amountReceived = BigDecimal.valueOf(amountReceivedCents, 2);
+    this.goalReached = amountReceivedCents >= goalCents;
+  }
+
+}
@@ -0,0 +1,22 @@
+package br.com.yawarasolution.DTO.donation;
+
+import java.math.BigDecimal;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@Getter
+@Setter
+public class DonationRequestDTO {
+
+  @NotNull(message = "The goal cannot be null.")
+  @DecimalMin(value = "0.01", message = "Goal must be greater than or equal to 0.01")
+  @Digits(integer = 8, fraction = 2, message = "Goal must have at most 8 integer digits and 2 decimals")
+  private BigDecimal goal;
+
+}
@@ -0,0 +1,35 @@
+package br.com.yawarasolution.DTO.donation;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import br.com.yawarasolution.model.Donation;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@Getter
+@Setter
+public class DonationResponseDTO {
+
+  private UUID id;
+
+  private String status;
+
+  private BigDecimal goal;
+
+  private BigDecimal amountReceived;
+
+  private LocalDateTime donationDate;
+
+  public DonationResponseDTO(Donation d) {
+    this.id = d.getId();
+    this.status = d.getStatus();
+    this.goal = d.getGoal();
+    this.amountReceived = d.getAmountReceived();
+    this.donationDate = d.getDonationDate();
+  }
+
+}
@@ -0,0 +1,26 @@
+package br.com.yawarasolution.DTO.donation;
+
+import java.math.BigDecimal;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@Getter
+@Setter
+public class DonorRankingResponseDTO {
+
+  private int rank;
+
+  private String name;
+
+  private BigDecimal amount;
+
+  public DonorRankingResponseDTO(int rank, String name, long amountCents) {
+    this.rank = rank;
+    this.name = name;
+    this.amount = BigDecimal.valueOf(amountCents, 2);
+  }
+
+}
@@ -0,0 +1,30 @@
+package br.com.yawarasolution.DTO.donation;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@Getter
+@Setter
+public class DonorTotalDTO {
+
+  private UUID donationId;
+
+  private UUID donatorId;
+
+  private String name;
+
+  private BigDecimal amount;
+
+  public DonorTotalDTO(UUID donationId, UUID donatorId, String name, BigDecimal amount) {
+    this.donationId = donationId;
+    this.donatorId = donatorId;
+    this.name = name;
+    this.amount = amount;
+  }
+
+}
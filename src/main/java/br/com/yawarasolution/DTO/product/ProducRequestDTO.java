@@ -1,7 +1,11 @@
 package br.com.yawarasolution.DTO.product;
 
+import java.math.BigDecimal;
+
 import br.com.yawarasolution.model.Product;
+import br.com.yawarasolution.utils.Money;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -24,7 +28,8 @@ public class ProducRequestDTO {
   @NotNull(message = "The Price cannot be null.")
   @Min(value = 0, message = "Price must be greater than or equal to 0.00")
   @Max(value = 99999999, message = "Price must be less than or equal to 99999999")
-  private Double price;
+  @Digits(integer = 8, fraction = 2, message = "Price must have at most 2 decimal places")
+  private BigDecimal price;
 
   @Min(value = 1, message = "The value of price must be at least 1")
   private Integer stock;
@@ -36,7 +41,7 @@ public class ProducRequestDTO {
   public ProducRequestDTO(Product p) {
     this.name = p.getName();
     this.description = p.getDescription();
-    this.price = p.getPrice();
+    this.price = Money.fromCents(p.getPriceCents());
     this.stock = p.getStock();
     this.category = new CategoryProductRequestDTO(p.getCategory());
   }
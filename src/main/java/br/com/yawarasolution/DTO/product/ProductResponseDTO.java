@@ -1,10 +1,12 @@
 package br.com.yawarasolution.DTO.product;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.UUID;
 
 import br.com.yawarasolution.DTO.category.CategoryResponseProductDTO;
 import br.com.yawarasolution.model.Product;
+import br.com.yawarasolution.utils.Money;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -24,7 +26,7 @@ public class ProductResponseDTO {
 
   private Boolean isActive;
 
-  private Double price;
+  private BigDecimal price;
 
   private Integer stock;
 
@@ -42,7 +44,7 @@ public class ProductResponseDTO {
     this.description = p.getDescription();
     this.rating = p.getRating();
     this.isActive = p.getIsActive();
-    this.price = p.getPrice();
+    this.price = Money.fromCents(p.getPriceCents());
     this.stock = p.getStock();
     this.createdAt = p.getCreatedAt();
     this.updatedAt = p.getUpdatedAt();
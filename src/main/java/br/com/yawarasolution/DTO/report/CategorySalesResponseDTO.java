@@ -0,0 +1,34 @@
+package br.com.yawarasolution.DTO.report;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class CategorySalesResponseDTO {
+
+  private UUID categoryId;
+
+  private String categoryName;
+
+  private BigDecimal units;
+
+  private BigDecimal revenue;
+
+  private Long orderCount;
+
+  public CategorySalesResponseDTO(UUID categoryId, String categoryName, BigDecimal units, BigDecimal revenue,
+      Long orderCount) {
+    this.categoryId = categoryId;
+    this.categoryName = categoryName;
+    this.units = units;
+    this.revenue = revenue;
+    this.orderCount = orderCount;
+  }
+
+}
@@ -0,0 +1,34 @@
+package br.com.yawarasolution.DTO.report;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class DailySalesResponseDTO {
+
+  private LocalDate date;
+
+  private BigDecimal units;
+
+  private BigDecimal revenue;
+
+  private Long orderCount;
+
+  private Long cancellations;
+
+  public DailySalesResponseDTO(LocalDate date, BigDecimal units, BigDecimal revenue, Long orderCount,
+      Long cancellations) {
+    this.date = date;
+    this.units = units;
+    this.revenue = revenue;
+    this.orderCount = orderCount;
+    this.cancellations = cancellations;
+  }
+
+}
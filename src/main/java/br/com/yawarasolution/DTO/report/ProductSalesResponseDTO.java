@@ -0,0 +1,34 @@
+package br.com.yawarasolution.DTO.report;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class ProductSalesResponseDTO {
+
+  private UUID productId;
+
+  private String productName;
+
+  private BigDecimal units;
+
+  private BigDecimal revenue;
+
+  private Long orderCount;
+
+  public ProductSalesResponseDTO(UUID productId, String productName, BigDecimal units, BigDecimal revenue,
+      Long orderCount) {
+    this.productId = productId;
+    this.productName = productName;
+    this.units = units;
+    this.revenue = revenue;
+    this.orderCount = orderCount;
+  }
+
+}
@@ -0,0 +1,26 @@
+package br.com.yawarasolution.DTO.survey;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@Getter
+@Setter
+public class QuestionResultResponseDTO {
+
+  private String question;
+
+  private long total;
+
+  private List<ResponseCountResponseDTO> responses;
+
+  public QuestionResultResponseDTO(String question, long total, List<ResponseCountResponseDTO> responses) {
+    this.question = question;
+    this.total = total;
+    this.responses = responses;
+  }
+
+}
@@ -0,0 +1,21 @@
+package br.com.yawarasolution.DTO.survey;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@Getter
+@Setter
+public class ResponseCountResponseDTO {
+
+  private String response;
+
+  private long count;
+
+  public ResponseCountResponseDTO(String response, long count) {
+    this.response = response;
+    this.count = count;
+  }
+
+}
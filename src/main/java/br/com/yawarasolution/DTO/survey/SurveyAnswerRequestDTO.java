@@ -0,0 +1,22 @@
+package br.com.yawarasolution.DTO.survey;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@Getter
+@Setter
+public class SurveyAnswerRequestDTO {
+
+  @NotBlank(message = "question must not be blank")
+  @Size(max = 255, message = "question must have at most 255 characters")
+  private String question;
+
+  @NotBlank(message = "response must not be blank")
+  @Size(max = 255, message = "response must have at most 255 characters")
+  private String response;
+
+}
@@ -0,0 +1,24 @@
+package br.com.yawarasolution.DTO.survey;
+
+import java.util.List;
+import java.util.UUID;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@Getter
+@Setter
+public class SurveyResultsResponseDTO {
+
+  private UUID donationId;
+
+  private List<QuestionResultResponseDTO> questions;
+
+  public SurveyResultsResponseDTO(UUID donationId, List<QuestionResultResponseDTO> questions) {
+    this.donationId = donationId;
+    this.questions = questions;
+  }
+
+}
@@ -0,0 +1,29 @@
+package br.com.yawarasolution.DTO.survey;
+
+import java.util.List;
+import java.util.UUID;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@Getter
+@Setter
+public class SurveySubmissionRequestDTO {
+
+  @NotNull(message = "donationId must not be null")
+  private UUID donationId;
+
+  private UUID donatorId;
+
+  @Valid
+  @NotEmpty(message = "answers must not be empty")
+  @Size(max = 200, message = "answers must have at most 200 items")
+  private List<SurveyAnswerRequestDTO> answers;
+
+}
@@ -0,0 +1,21 @@
+package br.com.yawarasolution.DTO.userpurchase;
+
+import java.util.List;
+import java.util.UUID;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class BulkStatusRequestDTO {
+
+  @NotEmpty(message = "ids must not be empty")
+  @Size(max = 1000, message = "ids must have at most 1000 items")
+  private List<@NotNull UUID> ids;
+
+  @NotNull(message = "Not null value")
+  private String purchaseStatus;
+
+}
@@ -0,0 +1,22 @@
+package br.com.yawarasolution.DTO.userpurchase;
+
+import br.com.yawarasolution.enums.PurchaseStatus;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class BulkStatusResponseDTO {
+
+  private PurchaseStatus purchaseStatus;
+
+  private int updated;
+
+  public BulkStatusResponseDTO(PurchaseStatus purchaseStatus, int updated) {
+    this.purchaseStatus = purchaseStatus;
+    this.updated = updated;
+  }
+
+}
@@ -0,0 +1,29 @@
+package br.com.yawarasolution.DTO.userpurchase;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import br.com.yawarasolution.enums.PurchaseStatus;
+import br.com.yawarasolution.event.OrderStatusChangedEvent;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@Getter
+@Setter
+public class OrderStatusEventDTO {
+
+  private UUID orderId;
+
+  private PurchaseStatus status;
+
+  private Instant changedAt;
+
+  public OrderStatusEventDTO(OrderStatusChangedEvent event) {
+    this.orderId = event.getOrderId();
+    this.status = event.getStatus();
+    this.changedAt = event.getChangedAt();
+  }
+
+}
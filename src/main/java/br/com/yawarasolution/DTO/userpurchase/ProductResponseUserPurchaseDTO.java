@@ -1,9 +1,11 @@
 package br.com.yawarasolution.DTO.userpurchase;
 
+import java.math.BigDecimal;
 import java.util.UUID;
 
 import br.com.yawarasolution.DTO.category.CategoryResponseProductDTO;
 import br.com.yawarasolution.model.Product;
+import br.com.yawarasolution.utils.Money;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -17,7 +19,7 @@ public class ProductResponseUserPurchaseDTO {
   private String name;
   private String description;
   private Integer rating;
-  private Double price;
+  private BigDecimal price;
   private String imageUrl; 
   private CategoryResponseProductDTO category;
 
@@ -26,7 +28,7 @@ public class ProductResponseUserPurchaseDTO {
     this.name = p.getName();
     this.description = p.getDescription();
     this.rating = p.getRating();
-    this.price = p.getPrice();
+    this.price = Money.fromCents(p.getPriceCents());
     this.imageUrl = p.getImageUrl();
     this.category = new CategoryResponseProductDTO(p.getCategory());
   }
@@ -1,7 +1,5 @@
 package br.com.yawarasolution.DTO.userpurchase;
 
-import java.math.BigDecimal;
-
 import br.com.yawarasolution.model.Purchase;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
@@ -18,7 +16,7 @@ public class PurchaseRequestUserPurchaseDTO {
 
   @NotNull(message = "Quantity must not be null")
   @Min(value = 1, message = "Quantity must be at least 1")
-  private BigDecimal quantity;
+  private Integer quantity;
 
   @NotNull(message = "The Product cannot be null.")
   @Valid
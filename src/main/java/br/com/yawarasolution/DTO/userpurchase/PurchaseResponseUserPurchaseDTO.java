@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 import java.util.UUID;
 
 import br.com.yawarasolution.model.Purchase;
+import br.com.yawarasolution.utils.Money;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -15,7 +16,7 @@ public class PurchaseResponseUserPurchaseDTO {
 
   private UUID id;
 
-  private BigDecimal quantity;
+  private Integer quantity;
 
   private BigDecimal unitPrice;
 
@@ -24,7 +25,7 @@ public class PurchaseResponseUserPurchaseDTO {
   public PurchaseResponseUserPurchaseDTO(Purchase p) {
     this.id = p.getId();
     this.quantity = p.getQuantity();
-    this.unitPrice = p.getUnitPrice();
+    this.unitPrice = Money.fromCents(p.getUnitPriceCents());
     this.product = new ProductResponseUserPurchaseDTO(p.getProduct());
   }
 }
@@ -0,0 +1,40 @@
+package br.com.yawarasolution.DTO.userpurchase;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import br.com.yawarasolution.enums.PurchaseStatus;
+import br.com.yawarasolution.model.UserOrderSummary;
+import br.com.yawarasolution.utils.Money;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserOrderSummaryResponseDTO {
+
+  private UUID id;
+
+  private PurchaseStatus purchaseStatus;
+
+  private BigDecimal totalPrice;
+
+  private LocalDate purchaseDate;
+
+  private Integer lineCount;
+
+  private String productNames;
+
+  public UserOrderSummaryResponseDTO(UserOrderSummary s) {
+    this.id = s.getUserPurchaseId();
+    this.purchaseStatus = s.getPurchaseStatus();
+    this.totalPrice = Money.fromCents(s.getTotalPriceCents());
+    this.purchaseDate = s.getPurchaseDate();
+    this.lineCount = s.getLineCount();
+    this.productNames = s.getProductNames();
+  }
+
+}
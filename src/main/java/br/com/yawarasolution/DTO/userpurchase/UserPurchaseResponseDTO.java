@@ -1,6 +1,7 @@
 package br.com.yawarasolution.DTO.userpurchase;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -9,6 +10,7 @@ import java.util.UUID;
 import br.com.yawarasolution.enums.PurchaseStatus;
 import br.com.yawarasolution.model.Purchase;
 import br.com.yawarasolution.model.UserPurchase;
+import br.com.yawarasolution.utils.Money;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -30,12 +32,15 @@ public class UserPurchaseResponseDTO {
 
   private LocalDate purchaseDate;
 
+  private Instant reservedUntil;
+
   public UserPurchaseResponseDTO(UserPurchase us) {
     this.id = us.getId();
     this.user = new UserResponseUserPurchaseDTO(us.getUser());
-    this.totalPrice = us.getTotalPrice();
+    this.totalPrice = Money.fromCents(us.getTotalPriceCents());
     this.purchaseStatus = us.getPurchaseStatus();
     this.purchaseDate = us.getPurchaseDate();
+    this.reservedUntil = us.getReservedUntil();
     if (us.getPurchases() != null) {
       us.getPurchases().stream().forEach(p -> purchases.add(new PurchaseResponseUserPurchaseDTO(p)));
     }
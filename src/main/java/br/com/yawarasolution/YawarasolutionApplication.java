@@ -2,12 +2,20 @@ package br.com.yawarasolution;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import br.com.yawarasolution.config.NativeRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class YawarasolutionApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(YawarasolutionApplication.class, args);
+		SpringApplication application = new SpringApplication(YawarasolutionApplication.class);
+		// Records the startup steps for the startup report.
+		application.setApplicationStartup(new BufferingApplicationStartup(4096));
+		application.run(args);
 	}
 
 }
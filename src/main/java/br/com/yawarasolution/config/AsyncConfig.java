@@ -0,0 +1,109 @@
+package br.com.yawarasolution.config;
+
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+  private static final Logger logger = LoggerFactory.getLogger(AsyncConfig.class);
+
+  /**
+   * Bounded pool for background work such as report backfills, so it never
+   * competes with request threads for more than a couple of connections.
+   * 
+   * @return The executor used by @Async("backgroundExecutor") methods.
+   */
+  @Bean(name = "backgroundExecutor")
+  public Executor backgroundExecutor() {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(1);
+    executor.setMaxPoolSize(2);
+    executor.setQueueCapacity(10);
+    executor.setThreadNamePrefix("background-");
+    executor.initialize();
+    return executor;
+  }
+
+  /**
+   * Small pool that writes to the order status streams, so a slow client only
+   * ever holds one of these threads and never a request thread.
+   * 
+   * @return The executor used to drain the order status streams.
+   */
+  @Bean(name = "streamExecutor")
+  public Executor streamExecutor() {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(2);
+    executor.setMaxPoolSize(4);
+    executor.setQueueCapacity(10000);
+    executor.setThreadNamePrefix("stream-");
+    executor.initialize();
+    return executor;
+  }
+
+  /**
+   * Single thread that writes the slow SQL log, so statements never wait on
+   * the log appender. When its queue is full the entries are dropped and
+   * counted by the SQL profiler.
+   * 
+   * @return The executor used to log slow statements.
+   */
+  @Bean(name = "sqlLogExecutor")
+  public Executor sqlLogExecutor() {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(1);
+    executor.setMaxPoolSize(1);
+    executor.setQueueCapacity(1000);
+    executor.setThreadNamePrefix("sql-log-");
+    executor.initialize();
+    return executor;
+  }
+
+  /**
+   * Small pool that sends the e-mails requested through MailRequestedEvent, so at
+   * most two threads ever wait on SMTP. When SMTP is down long enough to fill
+   * the queue, new e-mails are dropped and logged instead of failing the
+   * request that committed them.
+   * 
+   * @return The executor used by @Async("mailExecutor") methods.
+   */
+  @Bean(name = "mailExecutor")
+  public Executor mailExecutor() {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(2);
+    executor.setMaxPoolSize(2);
+    executor.setQueueCapacity(500);
+    executor.setThreadNamePrefix("mail-");
+    executor.setRejectedExecutionHandler((task, pool) -> logger.warn("Mail queue is full, an e-mail was dropped"));
+    executor.initialize();
+    return executor;
+  }
+
+  /**
+   * Bounded pool that runs the cluster jobs, so a long job neither holds the
+   * scheduler thread nor takes more than two connections, plus one each for
+   * its lock. A job triggered while the queue is full is skipped until its
+   * next trigger.
+   * 
+   * @return The executor used by ClusterJobRunner.
+   */
+  @Bean(name = "jobExecutor")
+  public Executor jobExecutor() {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(2);
+    executor.setMaxPoolSize(2);
+    executor.setQueueCapacity(20);
+    executor.setThreadNamePrefix("job-");
+    executor.initialize();
+    return executor;
+  }
+
+}
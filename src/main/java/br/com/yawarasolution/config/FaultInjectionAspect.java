@@ -0,0 +1,97 @@
+package br.com.yawarasolution.config;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.mail.MailSendException;
+import org.springframework.stereotype.Component;
+
+import com.google.cloud.storage.StorageException;
+
+/**
+ * Local stand-ins for SMTP and Firebase Storage, with injected latency and
+ * errors, to exercise the timeouts, bulkheads and circuit breakers offline.
+ * Only active with the "faults" profile, see application-faults.properties.
+ *
+ * It runs inside the circuit breakers and bulkheads, where the real call
+ * would be. Each call waits the configured latency, capped at the
+ * dependency's timeout, and fails with the dependency's own exception at the
+ * configured rate or when the latency is over the timeout. With stub set the
+ * real call is then skipped, so no SMTP server or Firebase account is needed.
+ */
+@Aspect
+@Component
+@Profile("faults")
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class FaultInjectionAspect {
+
+  @Value("${yamarasolution.faults.smtp.latency-ms:0}")
+  private long smtpLatencyMs;
+
+  @Value("${yamarasolution.faults.smtp.error-rate:0}")
+  private double smtpErrorRate;
+
+  @Value("${yamarasolution.faults.smtp.stub:true}")
+  private boolean smtpStub;
+
+  @Value("${spring.mail.properties.mail.smtp.timeout:10000}")
+  private long smtpTimeoutMs;
+
+  @Value("${yamarasolution.faults.firebase.latency-ms:0}")
+  private long firebaseLatencyMs;
+
+  @Value("${yamarasolution.faults.firebase.error-rate:0}")
+  private double firebaseErrorRate;
+
+  @Value("${yamarasolution.faults.firebase.stub:true}")
+  private boolean firebaseStub;
+
+  @Value("${yamarasolution.firebase.read-timeout-ms:20000}")
+  private long firebaseTimeoutMs;
+
+  @Around("execution(public * br.com.yawarasolution.config.MailConfig.sendEmail(..))")
+  public Object smtp(ProceedingJoinPoint joinPoint) throws Throwable {
+    return inject(joinPoint, smtpLatencyMs, smtpTimeoutMs, smtpErrorRate, smtpStub, MailSendException::new);
+  }
+
+  @Around("execution(public * br.com.yawarasolution.service.FirebaseFileService.saveFile(..)) "
+      + "|| execution(public * br.com.yawarasolution.service.FirebaseFileService.deletFile(..))")
+  public Object firebase(ProceedingJoinPoint joinPoint) throws Throwable {
+    return inject(joinPoint, firebaseLatencyMs, firebaseTimeoutMs, firebaseErrorRate, firebaseStub,
+        message -> new StorageException(503, message));
+  }
+
+  private static Object inject(ProceedingJoinPoint joinPoint, long latencyMs, long timeoutMs, double errorRate,
+      boolean stub, Function<String, RuntimeException> failure) throws Throwable {
+    String call = joinPoint.getSignature().getDeclaringType().getSimpleName() + "."
+        + joinPoint.getSignature().getName();
+    Thread.sleep(Math.min(latencyMs, timeoutMs));
+    if (latencyMs > timeoutMs) {
+      throw failure.apply("Injected fault: " + call + " timed out after " + timeoutMs + "ms");
+    }
+    if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+      throw failure.apply("Injected fault: " + call + " failed");
+    }
+    if (!stub) {
+      return joinPoint.proceed();
+    }
+    Class<?> returnType = ((MethodSignature) joinPoint.getSignature()).getReturnType();
+    if (returnType == String.class) {
+      return "stub-" + UUID.randomUUID();
+    }
+    if (returnType == Boolean.class) {
+      return Boolean.TRUE;
+    }
+    return null;
+  }
+
+}
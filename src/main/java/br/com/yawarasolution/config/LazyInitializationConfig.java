@@ -0,0 +1,52 @@
+package br.com.yawarasolution.config;
+
+import java.lang.reflect.Method;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Beans that stay eager when lazy initialisation is turned on with
+ * spring.main.lazy-initialization=true (LAZY_INIT=true).
+ *
+ * Controllers, services and documentation are then created on first use,
+ * but the database, its migrations and every bean with @Scheduled methods
+ * are still created at startup: a lazy scheduled bean would never run, and
+ * a lazy database would only be checked by the first request.
+ */
+@Configuration
+public class LazyInitializationConfig {
+
+  @Bean
+  public static LazyInitializationExcludeFilter criticalBeansExcludeFilter() {
+    LazyInitializationExcludeFilter infrastructure = LazyInitializationExcludeFilter.forBeanTypes(DataSource.class,
+        EntityManagerFactory.class, AbstractEntityManagerFactoryBean.class, Flyway.class,
+        FlywayMigrationInitializer.class);
+    return (beanName, beanDefinition, beanType) -> infrastructure.isExcluded(beanName, beanDefinition, beanType)
+        || hasScheduledMethods(beanType);
+  }
+
+  private static boolean hasScheduledMethods(Class<?> beanType) {
+    if (beanType == null || !beanType.getName().startsWith("br.com.yawarasolution")) {
+      return false;
+    }
+    for (Method method : ReflectionUtils.getUniqueDeclaredMethods(beanType)) {
+      if (AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+}
@@ -6,6 +6,10 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 
+import br.com.yawarasolution.jfr.MailEvent;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+
 @Configuration
 public class MailConfig {
 
@@ -15,12 +19,34 @@ public class MailConfig {
     @Value("${spring.mail.username}")
   private String remetente;
 
+    /**
+     * It sends a plain text e-mail. At most a few are sent at once, see the
+     * "smtp" bulkhead, and none while the "smtp" circuit breaker is open; the
+     * SMTP timeouts are in spring.mail.properties.
+     * 
+     * @param para    The recipient.
+     * @param assunto The subject.
+     * @param texto   The body.
+     */
+    @Bulkhead(name = "smtp")
+    @CircuitBreaker(name = "smtp")
     public void sendEmail(String para, String assunto, String texto) {
         SimpleMailMessage message = new SimpleMailMessage();
         message.setFrom(remetente);
         message.setTo(para);
         message.setSubject(assunto);
         message.setText(texto);
-        javaMailSender.send(message);
+        MailEvent event = new MailEvent();
+        event.begin();
+        try {
+            javaMailSender.send(message);
+            event.setSucceeded(true);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.setSubject(assunto);
+                event.commit();
+            }
+        }
     }
 }
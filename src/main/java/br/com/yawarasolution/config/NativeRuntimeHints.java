@@ -0,0 +1,130 @@
+package br.com.yawarasolution.config;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.util.ClassUtils;
+
+import br.com.yawarasolution.exception.ApiError;
+
+/**
+ * Reflection, resource and proxy hints for the native executable, built with
+ * mvn -Pnative package.
+ *
+ * Spring AOT already covers the beans, the repositories and the controllers'
+ * declared types; these are what it cannot see: the DTOs returned through
+ * ResponseEntity<Object>, the Lombok entities read by Hibernate, classes that
+ * jjwt, Hibernate and the Google clients load by name, and the files read
+ * from the classpath.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+  private static final String BASE_PACKAGE = "br.com.yawarasolution";
+
+  private static final MemberCategory[] ALL_MEMBERS = {
+      MemberCategory.DECLARED_FIELDS,
+      MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+      MemberCategory.INVOKE_DECLARED_METHODS };
+
+  private static final String[] JJWT_TYPES = {
+      "io.jsonwebtoken.impl.DefaultJwtBuilder",
+      "io.jsonwebtoken.impl.DefaultJwtParser",
+      "io.jsonwebtoken.impl.DefaultClaims",
+      "io.jsonwebtoken.impl.DefaultHeader",
+      "io.jsonwebtoken.impl.DefaultJwsHeader",
+      "io.jsonwebtoken.impl.DefaultJwt",
+      "io.jsonwebtoken.impl.DefaultJws" };
+
+  private static final String[] GOOGLE_TYPES = {
+      "com.google.api.client.json.webtoken.JsonWebSignature$Header",
+      "com.google.api.client.json.webtoken.JsonWebToken$Payload",
+      "com.google.api.client.json.GenericJson",
+      "com.google.api.client.util.GenericData",
+      "com.google.auth.oauth2.ServiceAccountCredentials" };
+
+  private static final String CACHING_PROVIDER = "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider";
+
+  @Override
+  public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+    // Read with ClassPathResource: the OpenAPI examples, the Firebase service
+    // account and the Caffeine cache sizes.
+    hints.resources().registerPattern("openapi/response.json");
+    hints.resources().registerPattern("firebase.json");
+    hints.resources().registerPattern("application.conf");
+    hints.resources().registerPattern("reference.conf");
+
+    // Serialised and deserialised by Jackson, often behind ResponseEntity<Object>.
+    BindingReflectionHintsRegistrar binding = new BindingReflectionHintsRegistrar();
+    binding.registerReflectionHints(hints.reflection(),
+        classesIn(BASE_PACKAGE + ".DTO", classLoader).toArray(Class<?>[]::new));
+    binding.registerReflectionHints(hints.reflection(), ApiError.class);
+
+    // Lombok getters, setters and constructors of the entities, used by
+    // Hibernate through reflection.
+    for (Class<?> entity : classesIn(BASE_PACKAGE + ".model", classLoader)) {
+      hints.reflection().registerType(entity, ALL_MEMBERS);
+    }
+
+    // jjwt 0.9 builds its parser, builder and claims by class name.
+    for (String type : JJWT_TYPES) {
+      hints.reflection().registerType(TypeReference.of(type), ALL_MEMBERS);
+    }
+
+    // The Google HTTP client maps JSON to the @Key fields of these classes:
+    // the service account token and the Cloud Storage objects behind Firebase.
+    for (String type : GOOGLE_TYPES) {
+      hints.reflection().registerType(TypeReference.of(type), ALL_MEMBERS);
+    }
+    for (Class<?> model : classesIn("com.google.api.services.storage.model", classLoader)) {
+      hints.reflection().registerType(model, ALL_MEMBERS);
+    }
+
+    hints.reflection().registerType(JSONObject.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+        MemberCategory.INVOKE_PUBLIC_METHODS);
+    hints.reflection().registerType(JSONArray.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+        MemberCategory.INVOKE_PUBLIC_METHODS);
+
+    // Named in hibernate.javax.cache.provider.
+    hints.reflection().registerType(TypeReference.of(CACHING_PROVIDER), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+    // The connection hold and SQL profilers wrap connections and statements
+    // in JDK proxies.
+    hints.proxies().registerJdkProxy(Connection.class);
+    hints.proxies().registerJdkProxy(Statement.class);
+    hints.proxies().registerJdkProxy(PreparedStatement.class);
+    hints.proxies().registerJdkProxy(CallableStatement.class);
+  }
+
+  /**
+   * It finds the concrete top-level and static nested classes of a package
+   *
+   * @param basePackage The package to scan, sub-packages included.
+   * @param classLoader The class loader to resolve the classes with.
+   * @return A list of classes, empty when the package is not on the classpath.
+   */
+  private static List<Class<?>> classesIn(String basePackage, ClassLoader classLoader) {
+    ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+    scanner.setResourceLoader(new DefaultResourceLoader(classLoader));
+    scanner.addIncludeFilter((reader, factory) -> true);
+    List<Class<?>> classes = new ArrayList<>();
+    for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+      classes.add(ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader));
+    }
+    return classes;
+  }
+
+}
@@ -2,6 +2,7 @@ package br.com.yawarasolution.config;
 
 import java.io.IOException;
 
+import org.json.JSONObject;
 import org.springdoc.core.models.GroupedOpenApi;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -28,41 +29,42 @@ public class OpenApiConfig {
 	@Bean
 	public OpenAPI baseOpenAPI() throws IOException {
 
-		ReadJsonFileToJsonObject readJsonFileToJsonObject = new ReadJsonFileToJsonObject();
+		// Read once, the examples of every response come from the same file.
+		JSONObject examples = new ReadJsonFileToJsonObject().read();
 
 		ApiResponse badRequestAPI = new ApiResponse().content(
 				new Content().addMediaType(MediaType.APPLICATION_JSON_VALUE,
 						new io.swagger.v3.oas.models.media.MediaType().addExamples("default",
 								new Example()
-										.value(readJsonFileToJsonObject.read().get("badRequestResponse").toString()))))
+										.value(examples.get("badRequestResponse").toString()))))
 				.description("Bad Request!");
 
 		ApiResponse badCredentialsAPI = new ApiResponse().content(
 				new Content().addMediaType(MediaType.APPLICATION_JSON_VALUE,
 						new io.swagger.v3.oas.models.media.MediaType().addExamples("default",
 								new Example().value(
-										readJsonFileToJsonObject.read().get("badCredentialsResponse").toString()))))
+										examples.get("badCredentialsResponse").toString()))))
 				.description("Bad Credentials!");
 
 		ApiResponse forbiddenAPI = new ApiResponse().content(
 				new Content().addMediaType(MediaType.APPLICATION_JSON_VALUE,
 						new io.swagger.v3.oas.models.media.MediaType().addExamples("default",
 								new Example()
-										.value(readJsonFileToJsonObject.read().get("forbiddenResponse").toString()))))
+										.value(examples.get("forbiddenResponse").toString()))))
 				.description("Forbidden!");
 
 		ApiResponse unprocessableEntityAPI = new ApiResponse().content(
 				new Content().addMediaType(MediaType.APPLICATION_JSON_VALUE,
 						new io.swagger.v3.oas.models.media.MediaType().addExamples("default",
 								new Example()
-										.value(readJsonFileToJsonObject.read().get("unprocessableEntityResponse").toString()))))
+										.value(examples.get("unprocessableEntityResponse").toString()))))
 				.description("unprocessableEntity!");
 
 		ApiResponse internalServerErrorAPI = new ApiResponse().content(
 				new Content().addMediaType(MediaType.APPLICATION_JSON_VALUE,
 						new io.swagger.v3.oas.models.media.MediaType().addExamples("default",
 								new Example()
-										.value(readJsonFileToJsonObject.read().get("internalServerError").toString()))))
+										.value(examples.get("internalServerError").toString()))))
 				.description("Internal Server Error!");
 
 		Components components = new Components();
@@ -135,4 +137,40 @@ public class OpenApiConfig {
 				.pathsToMatch(paths)
 				.build();
 	}
+
+	@Bean
+	public GroupedOpenApi ReportsApi() {
+		String[] paths = { "/api/reports/**" };
+		return GroupedOpenApi.builder()
+				.group("Reports")
+				.pathsToMatch(paths)
+				.build();
+	}
+
+	@Bean
+	public GroupedOpenApi DonationsApi() {
+		String[] paths = { "/api/donations/**" };
+		return GroupedOpenApi.builder()
+				.group("Donations")
+				.pathsToMatch(paths)
+				.build();
+	}
+
+	@Bean
+	public GroupedOpenApi SurveysApi() {
+		String[] paths = { "/api/surveys/**" };
+		return GroupedOpenApi.builder()
+				.group("Surveys")
+				.pathsToMatch(paths)
+				.build();
+	}
+
+	@Bean
+	public GroupedOpenApi DiagnosticsApi() {
+		String[] paths = { "/api/diagnostics/**" };
+		return GroupedOpenApi.builder()
+				.group("Diagnostics")
+				.pathsToMatch(paths)
+				.build();
+	}
 }
\ No newline at end of file
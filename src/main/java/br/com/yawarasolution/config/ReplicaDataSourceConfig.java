@@ -0,0 +1,79 @@
+package br.com.yawarasolution.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import br.com.yawarasolution.datasource.ConnectionHoldProfiler;
+import br.com.yawarasolution.datasource.ReplicaRoutingDataSource;
+
+/**
+ * Read replica routing, only active when yamarasolution.datasource.replicas
+ * lists at least one JDBC url. Replicas use the primary's credentials.
+ *
+ * The data source the application sees is a lazy proxy over the routing data
+ * source, so the physical connection is only chosen at the first statement,
+ * once the transaction's read-only flag is known.
+ */
+@Configuration
+@ConditionalOnExpression("!'${yamarasolution.datasource.replicas:}'.isBlank()")
+public class ReplicaDataSourceConfig {
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    dataSource.setPoolName("primary");
+    return dataSource;
+  }
+
+  @Bean
+  public ReplicaRoutingDataSource replicaRoutingDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+      DataSourceProperties properties, ObjectProvider<ConnectionHoldProfiler> profiler,
+      @Value("${yamarasolution.datasource.replicas}") String[] replicaUrls,
+      @Value("${yamarasolution.datasource.replica-pool-size:10}") int poolSize,
+      @Value("${yamarasolution.datasource.replica-max-lag-seconds:5}") double maxLagSeconds,
+      @Value("${yamarasolution.datasource.read-your-writes-max-ms:60000}") long pinMaxMs) {
+    ConnectionHoldProfiler holdProfiler = profiler.getIfAvailable();
+    Map<String, DataSource> replicas = new LinkedHashMap<>();
+    for (int i = 0; i < replicaUrls.length; i++) {
+      HikariDataSource replica = new HikariDataSource();
+      replica.setPoolName("replica-" + (i + 1));
+      replica.setJdbcUrl(replicaUrls[i].trim());
+      replica.setUsername(properties.determineUsername());
+      replica.setPassword(properties.determinePassword());
+      replica.setReadOnly(true);
+      replica.setMaximumPoolSize(poolSize);
+      replica.setConnectionTimeout(2000);
+      // A replica that is down at startup is retried by the health check.
+      replica.setInitializationFailTimeout(-1);
+      replicas.put(replica.getPoolName(),
+          holdProfiler != null ? holdProfiler.wrap(replica, replica.getPoolName()) : replica);
+    }
+    ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, replicas, maxLagSeconds,
+        pinMaxMs);
+    routing.checkReplicas();
+    return routing;
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+    return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+  }
+
+}
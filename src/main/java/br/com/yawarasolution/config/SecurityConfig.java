@@ -27,6 +27,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import br.com.yawarasolution.service.UserDetailsServiceImpl;
 import br.com.yawarasolution.utils.AuthenticationEntryPointJwt;
 import br.com.yawarasolution.utils.AuthenticationTokenFilter;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -70,6 +71,9 @@ public class SecurityConfig {
   protected SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
 
     http.cors().and().csrf().disable().authorizeHttpRequests()
+        // The request was authorized before it went async, e.g. an order status
+        // stream; the JWT filter does not run again on the async dispatch.
+        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
         .requestMatchers(HttpMethod.POST, "/api/auth/signin").permitAll()
         .requestMatchers(HttpMethod.POST, "/api/auth/signup").permitAll()
         .requestMatchers(HttpMethod.POST, "/api/auth/refreshtoken").permitAll()
@@ -82,7 +86,13 @@ public class SecurityConfig {
         .requestMatchers(HttpMethod.GET, "/api/products/pageable").permitAll()
         .requestMatchers(HttpMethod.GET, "/api/products/{id}").permitAll()
         .requestMatchers(HttpMethod.GET, "/api/category/name/{name}").permitAll()
+        .requestMatchers(HttpMethod.GET, "/api/donations").permitAll()
+        .requestMatchers(HttpMethod.GET, "/api/donations/{id}/progress").permitAll()
+        .requestMatchers(HttpMethod.GET, "/api/donations/{id}/leaderboard").permitAll()
+        .requestMatchers(HttpMethod.POST, "/api/donations/{id}/contributions").permitAll()
+        .requestMatchers(HttpMethod.POST, "/api/surveys/submissions").permitAll()
         .requestMatchers("/api-docs/**", "/swagger-ui.html", "/swagger-ui/**").permitAll()
+        .requestMatchers(HttpMethod.GET, "/actuator/health", "/actuator/health/**").permitAll()
         .anyRequest()
         .authenticated().and().exceptionHandling().accessDeniedHandler(new AccessDeniedHandlerImpl()).and()
         .sessionManagement()
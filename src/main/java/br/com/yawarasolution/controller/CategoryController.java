@@ -1,11 +1,11 @@
 package br.com.yawarasolution.controller;
 
 import java.net.URI;
-import java.util.List;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -15,6 +15,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
@@ -23,8 +24,10 @@ import br.com.yawarasolution.DTO.category.CategoryRequestDTO;
 import br.com.yawarasolution.DTO.category.CategoryResponseDTO;
 import br.com.yawarasolution.exception.ApiError;
 import br.com.yawarasolution.exception.CategoryException;
+import br.com.yawarasolution.service.CatalogSnapshotService;
 import br.com.yawarasolution.service.CategoryService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -40,9 +43,13 @@ public class CategoryController {
   @Autowired
   private CategoryService categoryService;
 
+  @Autowired
+  private CatalogSnapshotService catalogSnapshotService;
+
   /**
-   * Get all Categories
+   * Get all Categories, served from the precompressed catalog snapshot
    * 
+   * @param acceptEncoding The Accept-Encoding request header
    * @return A list of CategoryResponseDTO objects.
    */
   @GetMapping
@@ -51,8 +58,9 @@ public class CategoryController {
       @ApiResponse(responseCode = "400", ref = "BadRequest"),
       @ApiResponse(responseCode = "500", ref = "internalServerError")
   })
-  public ResponseEntity<List<CategoryResponseDTO>> findAll() {
-    return ResponseEntity.ok(categoryService.findAllCategories());
+  public ResponseEntity<Object> findAll(
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) @Parameter(hidden = true) String acceptEncoding) {
+    return catalogSnapshotService.getCategories().toResponse(acceptEncoding);
   }
 
   /**
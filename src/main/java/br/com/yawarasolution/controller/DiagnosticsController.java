@@ -0,0 +1,235 @@
+package br.com.yawarasolution.controller;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.com.yawarasolution.DTO.diagnostics.CacheInvalidationStatusResponseDTO;
+import br.com.yawarasolution.DTO.diagnostics.CacheStatsResponseDTO;
+import br.com.yawarasolution.DTO.diagnostics.ConnectionStatsResponseDTO;
+import br.com.yawarasolution.DTO.diagnostics.DependencyStatusResponseDTO;
+import br.com.yawarasolution.DTO.diagnostics.ReplicaStatusResponseDTO;
+import br.com.yawarasolution.DTO.diagnostics.ScheduledJobResponseDTO;
+import br.com.yawarasolution.DTO.diagnostics.SqlStatsResponseDTO;
+import br.com.yawarasolution.DTO.diagnostics.StartupReportResponseDTO;
+import br.com.yawarasolution.datasource.ConnectionHoldProfiler;
+import br.com.yawarasolution.datasource.ReplicaRoutingDataSource;
+import br.com.yawarasolution.datasource.SqlProfiler;
+import br.com.yawarasolution.service.CacheInvalidationService;
+import br.com.yawarasolution.service.ReferenceDataCacheService;
+import br.com.yawarasolution.service.StartupReportService;
+import br.com.yawarasolution.task.ClusterJobRunner;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/diagnostics")
+@Tag(name = "Diagnostics", description = "Estatisticas de execucao")
+public class DiagnosticsController {
+
+  @Autowired
+  private ReferenceDataCacheService referenceDataCacheService;
+
+  @Autowired
+  private StartupReportService startupReportService;
+
+  @Autowired
+  private ClusterJobRunner clusterJobRunner;
+
+  @Autowired
+  private CircuitBreakerRegistry circuitBreakerRegistry;
+
+  @Autowired
+  private BulkheadRegistry bulkheadRegistry;
+
+  @Autowired(required = false)
+  private CacheInvalidationService cacheInvalidationService;
+
+  @Autowired(required = false)
+  private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+  @Autowired(required = false)
+  private ConnectionHoldProfiler connectionHoldProfiler;
+
+  @Autowired(required = false)
+  private SqlProfiler sqlProfiler;
+
+  /**
+   * Get the second-level cache statistics
+   * 
+   * @return A CacheStatsResponseDTO object.
+   */
+  @PreAuthorize("hasRole('ADMIN')")
+  @GetMapping("/cache")
+  @SecurityRequirement(name = "token")
+  @Operation(summary = "Cache statistics", description = "Hits, misses and puts of the second-level and query caches since startup, only admin", responses = {
+      @ApiResponse(responseCode = "200", description = "Successfully get!", content = @Content(mediaType = "application/json", schema = @Schema(implementation = CacheStatsResponseDTO.class))),
+      @ApiResponse(responseCode = "401", ref = "badcredentials"),
+      @ApiResponse(responseCode = "403", ref = "forbidden"),
+      @ApiResponse(responseCode = "500", ref = "internalServerError")
+  })
+  public ResponseEntity<CacheStatsResponseDTO> cache() {
+    return ResponseEntity.ok(referenceDataCacheService.getStatistics());
+  }
+
+  /**
+   * Get the state of the cache invalidation between instances
+   * 
+   * @return A CacheInvalidationStatusResponseDTO object.
+   */
+  @PreAuthorize("hasRole('ADMIN')")
+  @GetMapping("/cache/invalidation")
+  @SecurityRequirement(name = "token")
+  @Operation(summary = "Cache invalidation", description = "Whether this instance listens for the cache changes of the others, and how many it sent and received since startup, only admin", responses = {
+      @ApiResponse(responseCode = "200", description = "Successfully get!", content = @Content(mediaType = "application/json", schema = @Schema(implementation = CacheInvalidationStatusResponseDTO.class))),
+      @ApiResponse(responseCode = "401", ref = "badcredentials"),
+      @ApiResponse(responseCode = "403", ref = "forbidden"),
+      @ApiResponse(responseCode = "404", description = "Invalidation disabled"),
+      @ApiResponse(responseCode = "500", ref = "internalServerError")
+  })
+  public ResponseEntity<CacheInvalidationStatusResponseDTO> cacheInvalidation() {
+    if (cacheInvalidationService == null) {
+      return ResponseEntity.notFound().build();
+    }
+    return ResponseEntity.ok(cacheInvalidationService.getStatus());
+  }
+
+  /**
+   * Get the health of the read replicas
+   * 
+   * @return A list of ReplicaStatusResponseDTO, empty when no replica is
+   *         configured.
+   */
+  @PreAuthorize("hasRole('ADMIN')")
+  @GetMapping("/replicas")
+  @SecurityRequirement(name = "token")
+  @Operation(summary = "Read replicas", description = "Whether each read replica is serving reads and its replication lag, only admin", responses = {
+      @ApiResponse(responseCode = "200", description = "Successfully get!", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ReplicaStatusResponseDTO.class))),
+      @ApiResponse(responseCode = "401", ref = "badcredentials"),
+      @ApiResponse(responseCode = "403", ref = "forbidden"),
+      @ApiResponse(responseCode = "500", ref = "internalServerError")
+  })
+  public ResponseEntity<List<ReplicaStatusResponseDTO>> replicas() {
+    if (replicaRoutingDataSource == null) {
+      return ResponseEntity.ok(List.of());
+    }
+    return ResponseEntity.ok(replicaRoutingDataSource.getReplicas().stream()
+        .map(ReplicaStatusResponseDTO::new).collect(Collectors.toList()));
+  }
+
+  /**
+   * Get the circuit breaker and bulkhead state of each remote service
+   * 
+   * @return A list of DependencyStatusResponseDTO, one per remote service.
+   */
+  @PreAuthorize("hasRole('ADMIN')")
+  @GetMapping("/dependencies")
+  @SecurityRequirement(name = "token")
+  @Operation(summary = "Remote services", description = "Circuit breaker state, failure and slow call rates, and free bulkhead slots of SMTP and Firebase, only admin", responses = {
+      @ApiResponse(responseCode = "200", description = "Successfully get!", content = @Content(mediaType = "application/json", schema = @Schema(implementation = DependencyStatusResponseDTO.class))),
+      @ApiResponse(responseCode = "401", ref = "badcredentials"),
+      @ApiResponse(responseCode = "403", ref = "forbidden"),
+      @ApiResponse(responseCode = "500", ref = "internalServerError")
+  })
+  public ResponseEntity<List<DependencyStatusResponseDTO>> dependencies() {
+    return ResponseEntity.ok(circuitBreakerRegistry.getAllCircuitBreakers().stream()
+        .map(circuitBreaker -> new DependencyStatusResponseDTO(circuitBreaker,
+            bulkheadRegistry.bulkhead(circuitBreaker.getName())))
+        .collect(Collectors.toList()));
+  }
+
+  /**
+   * Get the connection pool and connection hold time statistics
+   * 
+   * @return A ConnectionStatsResponseDTO object, or 404 when the profiler is
+   *         disabled.
+   */
+  @PreAuthorize("hasRole('ADMIN')")
+  @GetMapping("/connections")
+  @SecurityRequirement(name = "token")
+  @Operation(summary = "Connection statistics", description = "Pool wait and usage histograms, and how long each service method holds connections, only admin", responses = {
+      @ApiResponse(responseCode = "200", description = "Successfully get!", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ConnectionStatsResponseDTO.class))),
+      @ApiResponse(responseCode = "401", ref = "badcredentials"),
+      @ApiResponse(responseCode = "403", ref = "forbidden"),
+      @ApiResponse(responseCode = "404", description = "Profiler disabled"),
+      @ApiResponse(responseCode = "500", ref = "internalServerError")
+  })
+  public ResponseEntity<ConnectionStatsResponseDTO> connections() {
+    if (connectionHoldProfiler == null) {
+      return ResponseEntity.notFound().build();
+    }
+    return ResponseEntity.ok(connectionHoldProfiler.getStatistics());
+  }
+
+  /**
+   * Get the SQL statement counts and database time per endpoint
+   * 
+   * @return A SqlStatsResponseDTO object, or 404 when the profiler is
+   *         disabled.
+   */
+  @PreAuthorize("hasRole('ADMIN')")
+  @GetMapping("/sql")
+  @SecurityRequirement(name = "token")
+  @Operation(summary = "SQL statistics", description = "Statements and database time per request of each endpoint, and how many requests went over the statement budget, only admin", responses = {
+      @ApiResponse(responseCode = "200", description = "Successfully get!", content = @Content(mediaType = "application/json", schema = @Schema(implementation = SqlStatsResponseDTO.class))),
+      @ApiResponse(responseCode = "401", ref = "badcredentials"),
+      @ApiResponse(responseCode = "403", ref = "forbidden"),
+      @ApiResponse(responseCode = "404", description = "Profiler disabled"),
+      @ApiResponse(responseCode = "500", ref = "internalServerError")
+  })
+  public ResponseEntity<SqlStatsResponseDTO> sql() {
+    if (sqlProfiler == null) {
+      return ResponseEntity.notFound().build();
+    }
+    return ResponseEntity.ok(sqlProfiler.getStatistics());
+  }
+
+  /**
+   * Get the last run of every cluster job
+   * 
+   * @return A list of ScheduledJobResponseDTO.
+   */
+  @PreAuthorize("hasRole('ADMIN')")
+  @GetMapping("/jobs")
+  @SecurityRequirement(name = "token")
+  @Operation(summary = "Scheduled jobs", description = "Last run of every cluster job: instance, start, duration, rows affected, outcome and where an unfinished run stopped, only admin", responses = {
+      @ApiResponse(responseCode = "200", description = "Successfully get!", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ScheduledJobResponseDTO.class))),
+      @ApiResponse(responseCode = "401", ref = "badcredentials"),
+      @ApiResponse(responseCode = "403", ref = "forbidden"),
+      @ApiResponse(responseCode = "500", ref = "internalServerError")
+  })
+  public ResponseEntity<List<ScheduledJobResponseDTO>> jobs() {
+    return ResponseEntity.ok(clusterJobRunner.getJobs());
+  }
+
+  /**
+   * Get how long this instance took to start, per phase
+   * 
+   * @return A StartupReportResponseDTO object.
+   */
+  @PreAuthorize("hasRole('ADMIN')")
+  @GetMapping("/startup")
+  @SecurityRequirement(name = "token")
+  @Operation(summary = "Startup report", description = "Time to become ready, per startup phase, and the slowest beans to create, only admin", responses = {
+      @ApiResponse(responseCode = "200", description = "Successfully get!", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StartupReportResponseDTO.class))),
+      @ApiResponse(responseCode = "401", ref = "badcredentials"),
+      @ApiResponse(responseCode = "403", ref = "forbidden"),
+      @ApiResponse(responseCode = "500", ref = "internalServerError")
+  })
+  public ResponseEntity<StartupReportResponseDTO> startup() {
+    return ResponseEntity.ok(startupReportService.getReport());
+  }
+
+}
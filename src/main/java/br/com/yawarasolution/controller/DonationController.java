@@ -0,0 +1,160 @@
+package br.com.yawarasolution.controller;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.com.yawarasolution.DTO.donation.ContributionRequestDTO;
+import br.com.yawarasolution.DTO.donation.DonationProgressResponseDTO;
+import br.com.yawarasolution.DTO.donation.DonationRequestDTO;
+import br.com.yawarasolution.DTO.donation.DonationResponseDTO;
+import br.com.yawarasolution.DTO.donation.DonorRankingResponseDTO;
+import br.com.yawarasolution.exception.ApiError;
+import br.com.yawarasolution.exception.DonationException;
+import br.com.yawarasolution.service.DonationService;
+import br.com.yawarasolution.service.DonorLeaderboardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/api/donations")
+@Tag(name = "Donations", description = "Campanhas de doacao")
+public class DonationController {
+
+  @Autowired
+  private DonationService donationService;
+
+  @Autowired
+  private DonorLeaderboardService donorLeaderboardService;
+
+  /**
+   * Get all donation campaigns
+   *
+   * @return A list of DonationResponseDTO objects.
+   */
+  @GetMapping
+  @Operation(summary = "Get all donation campaigns", description = "Get all donation campaigns", responses = {
+      @ApiResponse(responseCode = "200", description = "Successfully get all!", content = @Content(mediaType = "application/json", schema = @Schema(implementation = DonationResponseDTO.class))),
+      @ApiResponse(responseCode = "400", ref = "BadRequest"),
+      @ApiResponse(responseCode = "500", ref = "internalServerError")
+  })
+  public ResponseEntity<List<DonationResponseDTO>> findAll() {
+    return ResponseEntity.ok(donationService.findAllDonations());
+  }
+
+  /**
+   * Get the live progress of a campaign
+   *
+   * @param id The id of the campaign
+   * @return A DonationProgressResponseDTO object.
+   */
+  @GetMapping("/{id}/progress")
+  @Operation(summary = "Get campaign progress", description = "Amount received against the goal, including contributions not yet written", responses = {
+      @ApiResponse(responseCode = "200", description = "Successfully get!", content = @Content(mediaType = "application/json", schema = @Schema(implementation = DonationProgressResponseDTO.class))),
+      @ApiResponse(responseCode = "400", ref = "BadRequest"),
+      @ApiResponse(responseCode = "422", ref = "unprocessableEntity"),
+      @ApiResponse(responseCode = "500", ref = "internalServerError")
+  })
+  public ResponseEntity<Object> findProgress(@PathVariable UUID id) {
+    try {
+      return ResponseEntity.ok(donationService.findDonationProgress(id));
+    } catch (DonationException e) {
+      return ResponseEntity.unprocessableEntity()
+          .body(new ApiError(HttpStatus.UNPROCESSABLE_ENTITY, "Unprocessable Entity", e.getLocalizedMessage()));
+    }
+  }
+
+  /**
+   * Get the top donors of a campaign, served from memory
+   *
+   * @param id The id of the campaign
+   * @param p  Pageable
+   * @return A page of DonorRankingResponseDTO objects.
+   */
+  @GetMapping("/{id}/leaderboard")
+  @Operation(summary = "Get campaign leaderboard", description = "Top donors of the campaign, highest total first", responses = {
+      @ApiResponse(responseCode = "200", description = "Successfully get!"),
+      @ApiResponse(responseCode = "400", ref = "BadRequest"),
+      @ApiResponse(responseCode = "500", ref = "internalServerError")
+  }, parameters = {
+      @Parameter(name = "page", description = "The page number", example = "0"),
+      @Parameter(name = "size", description = "The page size", example = "10"),
+  })
+  public ResponseEntity<Page<DonorRankingResponseDTO>> findLeaderboard(@PathVariable UUID id,
+      @PageableDefault(page = 0, size = 10) @Parameter(hidden = true) Pageable p) {
+    return ResponseEntity.ok(donorLeaderboardService.findTopDonors(id, p));
+  }
+
+  /**
+   * This function is used to create a new donation campaign
+   *
+   * @param donationRequest This is the request body that is sent to the server.
+   * @return The response is a DonationResponseDTO object.
+   */
+  @PreAuthorize("hasRole('ADMIN')")
+  @PostMapping("/register")
+  @SecurityRequirement(name = "token")
+  @Operation(summary = "Create new donation campaign", description = "Create new donation campaign, only admin", responses = {
+      @ApiResponse(responseCode = "201", description = "Successfully Register!", content = @Content(mediaType = "application/json", schema = @Schema(implementation = DonationResponseDTO.class))),
+      @ApiResponse(responseCode = "400", ref = "BadRequest"),
+      @ApiResponse(responseCode = "401", ref = "badcredentials"),
+      @ApiResponse(responseCode = "403", ref = "forbidden"),
+      @ApiResponse(responseCode = "422", ref = "unprocessableEntity"),
+      @ApiResponse(responseCode = "500", ref = "internalServerError")
+  })
+  public ResponseEntity<Object> insert(@Valid @RequestBody DonationRequestDTO donationRequest) {
+    try {
+      DonationResponseDTO response = donationService.createDonation(donationRequest);
+      return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    } catch (DonationException e) {
+      return ResponseEntity.unprocessableEntity()
+          .body(new ApiError(HttpStatus.UNPROCESSABLE_ENTITY, "Unprocessable Entity", e.getLocalizedMessage()));
+    }
+  }
+
+  /**
+   * Contribute to a campaign. The contribution is counted in the progress
+   * right away and written to the database by the next flush.
+   *
+   * @param id                  The id of the campaign
+   * @param contributionRequest The donor and the amount
+   * @return The response is a 202 Accepted.
+   */
+  @PostMapping("/{id}/contributions")
+  @Operation(summary = "Contribute to a campaign", description = "Contribute to a campaign", responses = {
+      @ApiResponse(responseCode = "202", description = "Contribution accepted!"),
+      @ApiResponse(responseCode = "400", ref = "BadRequest"),
+      @ApiResponse(responseCode = "422", ref = "unprocessableEntity"),
+      @ApiResponse(responseCode = "500", ref = "internalServerError")
+  })
+  public ResponseEntity<Object> contribute(@PathVariable UUID id,
+      @Valid @RequestBody ContributionRequestDTO contributionRequest) {
+    try {
+      donationService.contribute(id, contributionRequest);
+      return ResponseEntity.status(HttpStatus.ACCEPTED).build();
+    } catch (DonationException e) {
+      return ResponseEntity.unprocessableEntity()
+          .body(new ApiError(HttpStatus.UNPROCESSABLE_ENTITY, "Unprocessable Entity", e.getLocalizedMessage()));
+    }
+  }
+
+}
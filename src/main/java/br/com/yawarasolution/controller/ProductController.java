@@ -2,13 +2,13 @@ package br.com.yawarasolution.controller;
 
 import java.io.IOException;
 import java.net.URI;
-import java.util.List;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -18,6 +18,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
@@ -30,7 +31,9 @@ import br.com.yawarasolution.DTO.product.ProducRequestDTO;
 import br.com.yawarasolution.DTO.product.ProductResponseDTO;
 import br.com.yawarasolution.exception.ApiError;
 import br.com.yawarasolution.exception.ProductException;
+import br.com.yawarasolution.service.CatalogSnapshotService;
 import br.com.yawarasolution.service.ProductService;
+import br.com.yawarasolution.utils.PrecompressedJson;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -48,9 +51,13 @@ public class ProductController {
   @Autowired
   private ProductService productService;
 
+  @Autowired
+  private CatalogSnapshotService catalogSnapshotService;
+
   /**
-   * Get all Products
+   * Get all Products, served from the precompressed catalog snapshot
    * 
+   * @param acceptEncoding The Accept-Encoding request header
    * @return A list of ProductResponseDTO objects.
    */
   @GetMapping
@@ -59,8 +66,9 @@ public class ProductController {
       @ApiResponse(responseCode = "400", ref = "BadRequest"),
       @ApiResponse(responseCode = "500", ref = "internalServerError")
   })
-  public ResponseEntity<List<ProductResponseDTO>> findAll() {
-    return ResponseEntity.ok(productService.findAllProducts());
+  public ResponseEntity<Object> findAll(
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) @Parameter(hidden = true) String acceptEncoding) {
+    return catalogSnapshotService.getProducts().toResponse(acceptEncoding);
   }
 
   /**
@@ -70,7 +78,8 @@ public class ProductController {
    * @param name         The name of the product to search for
    * @param categoryName Category to which the product belongs
    * @param isActive     Indicates whether the product is active or not
-   * @param p            Pageable
+   * @param p              Pageable
+   * @param acceptEncoding The Accept-Encoding request header
    * @return A list of products
    */
   @GetMapping("/search")
@@ -89,9 +98,18 @@ public class ProductController {
   public ResponseEntity<Object> searchProductsAndCategory(@RequestParam(required = false) String name,
       @RequestParam(required = false) String categoryName,
       @RequestParam(required = true) Boolean isActive,
-      @PageableDefault(page = 0, size = 10) @Parameter(hidden = true) Pageable p) {
+      @PageableDefault(page = 0, size = CatalogSnapshotService.PAGE_SIZE) @Parameter(hidden = true) Pageable p,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) @Parameter(hidden = true) String acceptEncoding) {
     try {
       if (name == null && categoryName == null) {
+        // The default listing of active products is part of the catalog snapshot.
+        if (Boolean.TRUE.equals(isActive) && p.getSort().isUnsorted()
+            && p.getPageSize() == CatalogSnapshotService.PAGE_SIZE) {
+          PrecompressedJson page = catalogSnapshotService.getActiveProductsPage(p.getPageNumber());
+          if (page != null) {
+            return page.toResponse(acceptEncoding);
+          }
+        }
         return ResponseEntity.ok(productService.findAllProductsPageable(isActive, p));
       }
       if (name == null) {
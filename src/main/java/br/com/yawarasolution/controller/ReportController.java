@@ -0,0 +1,168 @@
+package br.com.yawarasolution.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.com.yawarasolution.DTO.report.CategorySalesResponseDTO;
+import br.com.yawarasolution.DTO.report.DailySalesResponseDTO;
+import br.com.yawarasolution.DTO.report.ProductSalesResponseDTO;
+import br.com.yawarasolution.exception.ApiError;
+import br.com.yawarasolution.exception.ReportException;
+import br.com.yawarasolution.service.SalesRollupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/reports")
+@Tag(name = "Reports", description = "Relatorios de vendas")
+public class ReportController {
+
+  @Autowired
+  private SalesRollupService salesRollupService;
+
+  /**
+   * Get the sales of every day in a date range
+   * 
+   * @param from First day, inclusive
+   * @param to   Last day, inclusive
+   * @return A list of DailySalesResponseDTO
+   */
+  @PreAuthorize("hasRole('ADMIN')")
+  @GetMapping("/revenue")
+  @SecurityRequirement(name = "token")
+  @Operation(summary = "Daily revenue", description = "Units, revenue, orders and cancellations per day, only admin", responses = {
+      @ApiResponse(responseCode = "200", description = "Successfully get!", content = @Content(mediaType = "application/json", schema = @Schema(implementation = DailySalesResponseDTO.class))),
+      @ApiResponse(responseCode = "400", ref = "BadRequest"),
+      @ApiResponse(responseCode = "401", ref = "badcredentials"),
+      @ApiResponse(responseCode = "403", ref = "forbidden"),
+      @ApiResponse(responseCode = "422", ref = "unprocessableEntity"),
+      @ApiResponse(responseCode = "500", ref = "internalServerError")
+  }, parameters = {
+      @Parameter(name = "from", description = "First day, inclusive", example = "2023-01-01"),
+      @Parameter(name = "to", description = "Last day, inclusive", example = "2023-01-31")
+  })
+  public ResponseEntity<Object> revenue(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+    try {
+      List<DailySalesResponseDTO> response = salesRollupService.findDailySales(from, to);
+      return ResponseEntity.ok(response);
+    } catch (ReportException e) {
+      return ResponseEntity.unprocessableEntity()
+          .body(new ApiError(HttpStatus.UNPROCESSABLE_ENTITY, "Unprocessable Entity", e.getLocalizedMessage()));
+    }
+  }
+
+  /**
+   * Get the best-selling products in a date range
+   * 
+   * @param from  First day, inclusive
+   * @param to    Last day, inclusive
+   * @param limit How many products to return
+   * @return A list of ProductSalesResponseDTO
+   */
+  @PreAuthorize("hasRole('ADMIN')")
+  @GetMapping("/top-products")
+  @SecurityRequirement(name = "token")
+  @Operation(summary = "Top products", description = "Products with the highest revenue, only admin", responses = {
+      @ApiResponse(responseCode = "200", description = "Successfully get!", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductSalesResponseDTO.class))),
+      @ApiResponse(responseCode = "400", ref = "BadRequest"),
+      @ApiResponse(responseCode = "401", ref = "badcredentials"),
+      @ApiResponse(responseCode = "403", ref = "forbidden"),
+      @ApiResponse(responseCode = "422", ref = "unprocessableEntity"),
+      @ApiResponse(responseCode = "500", ref = "internalServerError")
+  }, parameters = {
+      @Parameter(name = "from", description = "First day, inclusive", example = "2023-01-01"),
+      @Parameter(name = "to", description = "Last day, inclusive", example = "2023-01-31"),
+      @Parameter(name = "limit", description = "How many products to return", example = "10")
+  })
+  public ResponseEntity<Object> topProducts(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+      @RequestParam(defaultValue = "10") int limit) {
+    try {
+      List<ProductSalesResponseDTO> response = salesRollupService.findTopProducts(from, to, limit);
+      return ResponseEntity.ok(response);
+    } catch (ReportException e) {
+      return ResponseEntity.unprocessableEntity()
+          .body(new ApiError(HttpStatus.UNPROCESSABLE_ENTITY, "Unprocessable Entity", e.getLocalizedMessage()));
+    }
+  }
+
+  /**
+   * Get the best-selling categories in a date range
+   * 
+   * @param from  First day, inclusive
+   * @param to    Last day, inclusive
+   * @param limit How many categories to return
+   * @return A list of CategorySalesResponseDTO
+   */
+  @PreAuthorize("hasRole('ADMIN')")
+  @GetMapping("/top-categories")
+  @SecurityRequirement(name = "token")
+  @Operation(summary = "Top categories", description = "Categories with the highest revenue, only admin", responses = {
+      @ApiResponse(responseCode = "200", description = "Successfully get!", content = @Content(mediaType = "application/json", schema = @Schema(implementation = CategorySalesResponseDTO.class))),
+      @ApiResponse(responseCode = "400", ref = "BadRequest"),
+      @ApiResponse(responseCode = "401", ref = "badcredentials"),
+      @ApiResponse(responseCode = "403", ref = "forbidden"),
+      @ApiResponse(responseCode = "422", ref = "unprocessableEntity"),
+      @ApiResponse(responseCode = "500", ref = "internalServerError")
+  }, parameters = {
+      @Parameter(name = "from", description = "First day, inclusive", example = "2023-01-01"),
+      @Parameter(name = "to", description = "Last day, inclusive", example = "2023-01-31"),
+      @Parameter(name = "limit", description = "How many categories to return", example = "10")
+  })
+  public ResponseEntity<Object> topCategories(
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+      @RequestParam(defaultValue = "10") int limit) {
+    try {
+      List<CategorySalesResponseDTO> response = salesRollupService.findTopCategories(from, to, limit);
+      return ResponseEntity.ok(response);
+    } catch (ReportException e) {
+      return ResponseEntity.unprocessableEntity()
+          .body(new ApiError(HttpStatus.UNPROCESSABLE_ENTITY, "Unprocessable Entity", e.getLocalizedMessage()));
+    }
+  }
+
+  /**
+   * Rebuild the sales rollups from the order history in the background
+   * 
+   * @param to Last day to rebuild, inclusive; defaults to today
+   * @return The response is a 202 Accepted, or 409 if a backfill is running.
+   */
+  @PreAuthorize("hasRole('ADMIN')")
+  @PostMapping("/backfill")
+  @SecurityRequirement(name = "token")
+  @Operation(summary = "Backfill sales rollups", description = "Rebuild the rollups from the order history in chunks, only admin", responses = {
+      @ApiResponse(responseCode = "202", description = "Backfill started!"),
+      @ApiResponse(responseCode = "401", ref = "badcredentials"),
+      @ApiResponse(responseCode = "403", ref = "forbidden"),
+      @ApiResponse(responseCode = "409", description = "A backfill is already running"),
+      @ApiResponse(responseCode = "500", ref = "internalServerError")
+  })
+  public ResponseEntity<Object> backfill(
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+    if (salesRollupService.isBackfillRunning()) {
+      return ResponseEntity.status(HttpStatus.CONFLICT)
+          .body(new ApiError(HttpStatus.CONFLICT, "Conflict", "A backfill is already running"));
+    }
+    salesRollupService.backfill(to != null ? to : LocalDate.now());
+    return ResponseEntity.status(HttpStatus.ACCEPTED).build();
+  }
+
+}
@@ -0,0 +1,87 @@
+package br.com.yawarasolution.controller;
+
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.com.yawarasolution.DTO.survey.SurveyResultsResponseDTO;
+import br.com.yawarasolution.DTO.survey.SurveySubmissionRequestDTO;
+import br.com.yawarasolution.exception.ApiError;
+import br.com.yawarasolution.exception.SurveyException;
+import br.com.yawarasolution.service.SurveyService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/api/surveys")
+@Tag(name = "Surveys", description = "Pesquisas das campanhas de doacao")
+public class SurveyController {
+
+  @Autowired
+  private SurveyService surveyService;
+
+  /**
+   * Submit the answers of a donation survey. The answers are counted in the
+   * results right away and written to the database by the next flush.
+   *
+   * @param submissionRequest The donation, the optional donor and the answers
+   * @return The response is a 202 Accepted.
+   */
+  @PostMapping("/submissions")
+  @Operation(summary = "Submit a survey", description = "Submit many question/response pairs of a donation survey at once", responses = {
+      @ApiResponse(responseCode = "202", description = "Submission accepted!"),
+      @ApiResponse(responseCode = "400", ref = "BadRequest"),
+      @ApiResponse(responseCode = "422", ref = "unprocessableEntity"),
+      @ApiResponse(responseCode = "500", ref = "internalServerError")
+  })
+  public ResponseEntity<Object> submit(@Valid @RequestBody SurveySubmissionRequestDTO submissionRequest) {
+    try {
+      surveyService.submit(submissionRequest);
+      return ResponseEntity.status(HttpStatus.ACCEPTED).build();
+    } catch (SurveyException e) {
+      return ResponseEntity.unprocessableEntity()
+          .body(new ApiError(HttpStatus.UNPROCESSABLE_ENTITY, "Unprocessable Entity", e.getLocalizedMessage()));
+    }
+  }
+
+  /**
+   * Get the response distribution of every question of a donation survey
+   *
+   * @param donationId The id of the donation
+   * @return A SurveyResultsResponseDTO object.
+   */
+  @PreAuthorize("hasRole('ADMIN')")
+  @GetMapping("/{donationId}/results")
+  @SecurityRequirement(name = "token")
+  @Operation(summary = "Survey results", description = "Response counts per question, only admin", responses = {
+      @ApiResponse(responseCode = "200", description = "Successfully get!", content = @Content(mediaType = "application/json", schema = @Schema(implementation = SurveyResultsResponseDTO.class))),
+      @ApiResponse(responseCode = "400", ref = "BadRequest"),
+      @ApiResponse(responseCode = "401", ref = "badcredentials"),
+      @ApiResponse(responseCode = "403", ref = "forbidden"),
+      @ApiResponse(responseCode = "422", ref = "unprocessableEntity"),
+      @ApiResponse(responseCode = "500", ref = "internalServerError")
+  })
+  public ResponseEntity<Object> findResults(@PathVariable UUID donationId) {
+    try {
+      return ResponseEntity.ok(surveyService.findResults(donationId));
+    } catch (SurveyException e) {
+      return ResponseEntity.unprocessableEntity()
+          .body(new ApiError(HttpStatus.UNPROCESSABLE_ENTITY, "Unprocessable Entity", e.getLocalizedMessage()));
+    }
+  }
+
+}
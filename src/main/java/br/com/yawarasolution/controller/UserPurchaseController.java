@@ -9,6 +9,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,20 +17,29 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import br.com.yawarasolution.DTO.userpurchase.BulkStatusRequestDTO;
+import br.com.yawarasolution.DTO.userpurchase.BulkStatusResponseDTO;
+import br.com.yawarasolution.DTO.userpurchase.OrderStatusEventDTO;
 import br.com.yawarasolution.DTO.userpurchase.StatusRequest;
+import br.com.yawarasolution.DTO.userpurchase.UserOrderSummaryResponseDTO;
 import br.com.yawarasolution.DTO.userpurchase.UserPurchaseRequestDTO;
 import br.com.yawarasolution.DTO.userpurchase.UserPurchaseResponseDTO;
 import br.com.yawarasolution.enums.PurchaseStatus;
 import br.com.yawarasolution.exception.ApiError;
 import br.com.yawarasolution.exception.UserPurchaseException;
+import br.com.yawarasolution.service.IdempotencyService;
+import br.com.yawarasolution.service.OrderStatusStreamService;
 import br.com.yawarasolution.service.UserPurchaseService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -45,6 +55,12 @@ public class UserPurchaseController {
   @Autowired
   private UserPurchaseService userPurchaseService;
 
+  @Autowired
+  private OrderStatusStreamService orderStatusStreamService;
+
+  @Autowired
+  private IdempotencyService idempotencyService;
+
   /**
    * Get all Products
    * 
@@ -114,19 +130,39 @@ public class UserPurchaseController {
     }
   }
 
+  /**
+   * Open a Server-Sent Events stream of the logged user's order status changes.
+   * Each change is sent as a "status" event; a "resync" event means events were
+   * dropped and the orders should be fetched once.
+   * 
+   * @return The event stream
+   */
+  @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+  @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  @SecurityRequirement(name = "token")
+  @Operation(summary = "Stream order status changes", description = "Server-Sent Events with the status changes of the logged user's orders, instead of polling", responses = {
+      @ApiResponse(responseCode = "200", description = "Stream opened!", content = @Content(mediaType = "text/event-stream", schema = @Schema(implementation = OrderStatusEventDTO.class))),
+      @ApiResponse(responseCode = "401", ref = "badcredentials"),
+      @ApiResponse(responseCode = "403", ref = "forbidden"),
+      @ApiResponse(responseCode = "500", ref = "internalServerError")
+  })
+  public SseEmitter streamStatus() {
+    return orderStatusStreamService.subscribeLoggedUser();
+  }
+
   /**
    * This function returns a list of purchases made by the user, and the list can
    * be filtered by status
    * 
    * @param status The purchase status 1 - PENDING 2 - APPROVED 3 - REJECTED
    * @param p      Pageable
-   * @return A list of UserPurchaseResponseDTO
+   * @return A list of UserOrderSummaryResponseDTO, most recent first
    */
   @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
   @GetMapping("/search")
   @SecurityRequirement(name = "token")
   @Operation(summary = "Search Orders", description = "Search Orders, Logged user", responses = {
-      @ApiResponse(responseCode = "200", description = "Successfully get!", content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserPurchaseResponseDTO.class))),
+      @ApiResponse(responseCode = "200", description = "Successfully get!", content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserOrderSummaryResponseDTO.class))),
       @ApiResponse(responseCode = "400", ref = "BadRequest"),
       @ApiResponse(responseCode = "401", ref = "badcredentials"),
       @ApiResponse(responseCode = "403", ref = "forbidden"),
@@ -167,7 +203,9 @@ public class UserPurchaseController {
   /**
    * This function is used to create a new order
    * 
-   * @param orderRquest This is the object that will be passed to the method.
+   * @param orderRquest    This is the object that will be passed to the method.
+   * @param idempotencyKey Optional key; a retry with the same key gets the
+   *                       original response instead of a second order
    * @return A ResponseEntity object.
    */
   @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
@@ -178,10 +216,21 @@ public class UserPurchaseController {
       @ApiResponse(responseCode = "400", ref = "BadRequest"),
       @ApiResponse(responseCode = "401", ref = "badcredentials"),
       @ApiResponse(responseCode = "403", ref = "forbidden"),
+      @ApiResponse(responseCode = "409", description = "A request with the same Idempotency-Key is being processed"),
       @ApiResponse(responseCode = "422", ref = "unprocessableEntity"),
       @ApiResponse(responseCode = "500", ref = "internalServerError")
+  }, parameters = {
+      @Parameter(name = IdempotencyService.HEADER, in = ParameterIn.HEADER, description = "Unique key per order attempt, reused on retries", example = "7f1c9a52-4a0e-4c4b-9d0e-2f5b8e1a6c33")
   })
-  public ResponseEntity<Object> insert(@Valid @RequestBody UserPurchaseRequestDTO orderRquest) {
+  public ResponseEntity<Object> insert(@Valid @RequestBody UserPurchaseRequestDTO orderRquest,
+      @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+    if (idempotencyKey == null) {
+      return createOrder(orderRquest);
+    }
+    return idempotencyService.execute(idempotencyKey, orderRquest, () -> createOrder(orderRquest));
+  }
+
+  private ResponseEntity<Object> createOrder(UserPurchaseRequestDTO orderRquest) {
     try {
       UserPurchaseResponseDTO response = userPurchaseService.createOrder(orderRquest);
       URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
@@ -220,16 +269,10 @@ public class UserPurchaseController {
     try {
       PurchaseStatus purchaseStatus;
       try {
-        // Tenta converter a string em enum
-        purchaseStatus = PurchaseStatus.valueOf(statusRequest.getPurchaseStatus());
+        purchaseStatus = parseStatus(statusRequest.getPurchaseStatus());
       } catch (IllegalArgumentException e) {
-        // Se não conseguir, tenta converter o número em enum
-        try {
-          purchaseStatus = PurchaseStatus.fromCodigo(statusRequest.getPurchaseStatus());
-        } catch (NullPointerException ex) {
-          return ResponseEntity.unprocessableEntity()
-              .body(new ApiError(HttpStatus.UNPROCESSABLE_ENTITY, "Invalid status", e.getLocalizedMessage()));
-        }
+        return ResponseEntity.unprocessableEntity()
+            .body(new ApiError(HttpStatus.UNPROCESSABLE_ENTITY, "Invalid status", e.getLocalizedMessage()));
       }
       return ResponseEntity.ok(userPurchaseService.updateOrderStatus(id, purchaseStatus));
 
@@ -239,4 +282,59 @@ public class UserPurchaseController {
     }
   }
 
+  /**
+   * Update the status of many orders at once, only ADMIN. Either every order
+   * is updated or none is.
+   * 
+   * @param statusRequest The ids of the orders and the new status
+   * @return The response is a BulkStatusResponseDTO object.
+   */
+  @PreAuthorize("hasRole('ADMIN')")
+  @PutMapping("/update-status/bulk")
+  @SecurityRequirement(name = "token")
+  @Operation(summary = "Update Status of many orders", description = "Update the status of up to 1000 orders at once, only ADMIN<br>The purchase status:<br>1 - PENDING<br>2 - APPROVED<br>3 - DECLINED<br>4 - REFUNDED<br>5 - PROCESSING<br>6 - SHIPPED<br>7 - DELIVERED<br>8 - CANCELED", responses = {
+      @ApiResponse(responseCode = "200", description = "Successfully updated!", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkStatusResponseDTO.class))),
+      @ApiResponse(responseCode = "400", ref = "BadRequest"),
+      @ApiResponse(responseCode = "401", ref = "badcredentials"),
+      @ApiResponse(responseCode = "403", ref = "forbidden"),
+      @ApiResponse(responseCode = "422", ref = "unprocessableEntity"),
+      @ApiResponse(responseCode = "500", ref = "internalServerError")
+  })
+  public ResponseEntity<Object> updateStatusBulk(@Valid @RequestBody BulkStatusRequestDTO statusRequest) {
+    try {
+      PurchaseStatus purchaseStatus;
+      try {
+        purchaseStatus = parseStatus(statusRequest.getPurchaseStatus());
+      } catch (IllegalArgumentException e) {
+        return ResponseEntity.unprocessableEntity()
+            .body(new ApiError(HttpStatus.UNPROCESSABLE_ENTITY, "Invalid status", e.getLocalizedMessage()));
+      }
+      int updated = userPurchaseService.updateOrdersStatus(statusRequest.getIds(), purchaseStatus);
+      return ResponseEntity.ok(new BulkStatusResponseDTO(purchaseStatus, updated));
+    } catch (UserPurchaseException e) {
+      return ResponseEntity.unprocessableEntity()
+          .body(new ApiError(HttpStatus.UNPROCESSABLE_ENTITY, "Unprocessable Entity", e.getLocalizedMessage()));
+    }
+  }
+
+  /**
+   * It reads a purchase status given by name (e.g. SHIPPED) or by code (e.g. 6)
+   * 
+   * @param value The status name or code
+   * @return The purchase status
+   */
+  private PurchaseStatus parseStatus(String value) {
+    try {
+      // Tenta converter a string em enum
+      return PurchaseStatus.valueOf(value);
+    } catch (IllegalArgumentException e) {
+      // Se não conseguir, tenta converter o número em enum
+      try {
+        return PurchaseStatus.fromCodigo(value);
+      } catch (NullPointerException ex) {
+        throw e;
+      }
+    }
+  }
+
 }
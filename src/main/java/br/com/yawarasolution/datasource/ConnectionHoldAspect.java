@@ -0,0 +1,51 @@
+package br.com.yawarasolution.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tells the connection hold profiler which service method is running and
+ * which external calls are made. It runs before the transaction interceptor
+ * so the method is known when the transaction borrows its connection.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "yamarasolution.datasource.profiler.enabled", havingValue = "true", matchIfMissing = true)
+public class ConnectionHoldAspect {
+
+  @Autowired
+  private ConnectionHoldProfiler profiler;
+
+  @Around("execution(public * br.com.yawarasolution.service..*(..))")
+  public Object serviceMethod(ProceedingJoinPoint joinPoint) throws Throwable {
+    profiler.enterMethod(name(joinPoint));
+    try {
+      return joinPoint.proceed();
+    } finally {
+      profiler.exitMethod();
+    }
+  }
+
+  @Around("execution(public * br.com.yawarasolution.config.MailConfig.sendEmail(..)) "
+      + "|| execution(public * br.com.yawarasolution.service.FirebaseFileService.*(..))")
+  public Object externalCall(ProceedingJoinPoint joinPoint) throws Throwable {
+    long start = System.nanoTime();
+    try {
+      return joinPoint.proceed();
+    } finally {
+      profiler.externalCall(name(joinPoint), System.nanoTime() - start);
+    }
+  }
+
+  private static String name(ProceedingJoinPoint joinPoint) {
+    return joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+  }
+
+}
@@ -0,0 +1,296 @@
+package br.com.yawarasolution.datasource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import br.com.yawarasolution.DTO.diagnostics.ConnectionHoldStatsResponseDTO;
+import br.com.yawarasolution.DTO.diagnostics.ConnectionPoolStatsResponseDTO;
+import br.com.yawarasolution.DTO.diagnostics.ConnectionStatsResponseDTO;
+import br.com.yawarasolution.utils.Histogram;
+
+/**
+ * Profiles how long connections are borrowed from the Hikari pools.
+ *
+ * Every pool is wrapped so each borrow records how long it waited for a
+ * connection, how busy the pool was and, when the connection is closed, how
+ * long it was held. A hold is attributed to the outermost service method
+ * running when the connection was borrowed, and remembers the external calls
+ * (e-mail, file uploads) made while it was open. Holds above the threshold
+ * are logged with those calls, which is usually the reason they are long.
+ */
+@Component
+@ConditionalOnProperty(name = "yamarasolution.datasource.profiler.enabled", havingValue = "true", matchIfMissing = true)
+public class ConnectionHoldProfiler implements BeanPostProcessor, Ordered {
+
+  private static final Logger logger = LoggerFactory.getLogger(ConnectionHoldProfiler.class);
+
+  private static final long[] ACTIVE_CONNECTIONS = { 1, 2, 4, 6, 8, 10, 15, 20, 30, 50 };
+
+  private static final int MAX_CALLS_PER_HOLD = 10;
+
+  private static final String NO_METHOD = "(outside services)";
+
+  private final ThreadLocal<Deque<String>> methods = ThreadLocal.withInitial(ArrayDeque::new);
+
+  private final ThreadLocal<Deque<Hold>> holds = ThreadLocal.withInitial(ArrayDeque::new);
+
+  private final Map<String, PoolStats> pools = new ConcurrentHashMap<>();
+
+  private final Map<String, MethodStats> byMethod = new ConcurrentHashMap<>();
+
+  private final Histogram holdMillis = new Histogram(Histogram.MILLIS);
+
+  @Value("${yamarasolution.datasource.profiler.hold-warn-ms:500}")
+  private long holdWarnMs;
+
+  /**
+   * The pools are wrapped before anything else wraps the data source, e.g.
+   * the SQL profiler.
+   */
+  @Override
+  public int getOrder() {
+    return Ordered.HIGHEST_PRECEDENCE;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    if (bean instanceof HikariDataSource hikari) {
+      return wrap(hikari, hikari.getPoolName() != null ? hikari.getPoolName() : beanName);
+    }
+    return bean;
+  }
+
+  /**
+   * It wraps a pool so its connections are profiled
+   *
+   * @param dataSource The Hikari pool.
+   * @param name       The name the pool is reported under.
+   * @return The profiled data source.
+   */
+  public DataSource wrap(HikariDataSource dataSource, String name) {
+    PoolStats stats = pools.computeIfAbsent(name, n -> new PoolStats(dataSource));
+    return new ProfiledDataSource(dataSource, stats);
+  }
+
+  /**
+   * It marks the start of a service method on this thread
+   *
+   * @param method The method, as Class.method.
+   */
+  void enterMethod(String method) {
+    methods.get().push(method);
+  }
+
+  /**
+   * It marks the end of the last service method entered on this thread.
+   */
+  void exitMethod() {
+    Deque<String> stack = methods.get();
+    stack.poll();
+    if (stack.isEmpty()) {
+      methods.remove();
+    }
+  }
+
+  /**
+   * It records an external call against every connection held on this thread
+   *
+   * @param call        The call, as Class.method.
+   * @param elapsedNano How long it took.
+   */
+  void externalCall(String call, long elapsedNano) {
+    Deque<Hold> open = holds.get();
+    if (open.isEmpty()) {
+      holds.remove();
+      return;
+    }
+    String caller = methods.get().peek();
+    if (caller == null) {
+      methods.remove();
+    }
+    String entry = (caller != null ? caller + " -> " : "") + call + " "
+        + TimeUnit.NANOSECONDS.toMillis(elapsedNano) + "ms";
+    for (Hold hold : open) {
+      hold.externalNanos += elapsedNano;
+      if (hold.calls.size() < MAX_CALLS_PER_HOLD) {
+        hold.calls.add(entry);
+      }
+    }
+  }
+
+  /**
+   * It returns the pool, hold time and per method statistics since startup,
+   * the methods holding connections longest in total first
+   *
+   * @return A ConnectionStatsResponseDTO object.
+   */
+  public ConnectionStatsResponseDTO getStatistics() {
+    List<ConnectionPoolStatsResponseDTO> poolStats = new ArrayList<>();
+    pools.forEach((name, stats) -> {
+      HikariPoolMXBean pool = stats.dataSource.getHikariPoolMXBean();
+      poolStats.add(new ConnectionPoolStatsResponseDTO(name,
+          pool != null ? pool.getActiveConnections() : 0,
+          pool != null ? pool.getIdleConnections() : 0,
+          pool != null ? pool.getThreadsAwaitingConnection() : 0,
+          stats.dataSource.getMaximumPoolSize(),
+          stats.waitMillis.snapshot(), stats.activeAtBorrow.snapshot()));
+    });
+    List<ConnectionHoldStatsResponseDTO> methodStats = byMethod.entrySet().stream()
+        .sorted(Comparator.comparingLong((Map.Entry<String, MethodStats> e) -> e.getValue().totalNanos.sum())
+            .reversed())
+        .map(e -> e.getValue().toResponse(e.getKey()))
+        .collect(Collectors.toList());
+    return new ConnectionStatsResponseDTO(poolStats, holdMillis.snapshot(), methodStats);
+  }
+
+  private Connection borrowed(Connection connection, PoolStats stats, long waitNanos) {
+    stats.waitMillis.record(TimeUnit.NANOSECONDS.toMillis(waitNanos));
+    HikariPoolMXBean pool = stats.dataSource.getHikariPoolMXBean();
+    if (pool != null) {
+      stats.activeAtBorrow.record(pool.getActiveConnections());
+    }
+    Deque<String> stack = methods.get();
+    String owner = stack.peekLast();
+    if (stack.isEmpty()) {
+      methods.remove();
+    }
+    Hold hold = new Hold(owner != null ? owner : NO_METHOD, System.nanoTime());
+    holds.get().push(hold);
+    AtomicBoolean closed = new AtomicBoolean();
+    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+        (proxy, method, args) -> {
+          if ("close".equals(method.getName()) && closed.compareAndSet(false, true)) {
+            released(hold);
+          }
+          try {
+            return method.invoke(connection, args);
+          } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+          }
+        });
+  }
+
+  private void released(Hold hold) {
+    long heldNanos = System.nanoTime() - hold.startNanos;
+    Deque<Hold> open = holds.get();
+    for (Iterator<Hold> it = open.iterator(); it.hasNext();) {
+      if (it.next() == hold) {
+        it.remove();
+        break;
+      }
+    }
+    if (open.isEmpty()) {
+      holds.remove();
+    }
+    long heldMs = TimeUnit.NANOSECONDS.toMillis(heldNanos);
+    holdMillis.record(heldMs);
+    byMethod.computeIfAbsent(hold.owner, m -> new MethodStats()).record(heldNanos, hold.externalNanos);
+    if (heldMs >= holdWarnMs) {
+      logger.warn("Connection held {}ms by {}, {}ms in external calls: {}", heldMs, hold.owner,
+          TimeUnit.NANOSECONDS.toMillis(hold.externalNanos), hold.calls);
+    }
+  }
+
+  private final class ProfiledDataSource extends DelegatingDataSource {
+
+    private final PoolStats stats;
+
+    private ProfiledDataSource(DataSource target, PoolStats stats) {
+      super(target);
+      this.stats = stats;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+      long start = System.nanoTime();
+      Connection connection = super.getConnection();
+      return borrowed(connection, stats, System.nanoTime() - start);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+      long start = System.nanoTime();
+      Connection connection = super.getConnection(username, password);
+      return borrowed(connection, stats, System.nanoTime() - start);
+    }
+  }
+
+  private static final class PoolStats {
+
+    private final HikariDataSource dataSource;
+    private final Histogram waitMillis = new Histogram(Histogram.MILLIS);
+    private final Histogram activeAtBorrow = new Histogram(ACTIVE_CONNECTIONS);
+
+    private PoolStats(HikariDataSource dataSource) {
+      this.dataSource = dataSource;
+    }
+  }
+
+  private static final class Hold {
+
+    private final String owner;
+    private final long startNanos;
+    private final List<String> calls = new ArrayList<>(2);
+    private long externalNanos;
+
+    private Hold(String owner, long startNanos) {
+      this.owner = owner;
+      this.startNanos = startNanos;
+    }
+  }
+
+  private static final class MethodStats {
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder externalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final Histogram millis = new Histogram(Histogram.MILLIS);
+
+    private void record(long heldNanos, long external) {
+      count.increment();
+      totalNanos.add(heldNanos);
+      externalNanos.add(external);
+      maxNanos.accumulateAndGet(heldNanos, Math::max);
+      millis.record(TimeUnit.NANOSECONDS.toMillis(heldNanos));
+    }
+
+    private ConnectionHoldStatsResponseDTO toResponse(String method) {
+      long n = count.sum();
+      return new ConnectionHoldStatsResponseDTO(method, n,
+          n == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalNanos.sum() / n),
+          TimeUnit.NANOSECONDS.toMillis(maxNanos.get()),
+          TimeUnit.NANOSECONDS.toMillis(externalNanos.sum()), millis.snapshot());
+    }
+  }
+
+}
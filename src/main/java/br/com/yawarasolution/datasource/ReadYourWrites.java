@@ -0,0 +1,42 @@
+package br.com.yawarasolution.datasource;
+
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Read-your-writes for users whose next request reads back what they just
+ * wrote. Does nothing when no read replica is configured.
+ */
+@Component
+public class ReadYourWrites {
+
+  @Autowired(required = false)
+  private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+  /**
+   * It keeps the user's reads on the primary, or on replicas that have caught
+   * up, once the current transaction commits
+   *
+   * @param userId The id of the user who wrote.
+   */
+  public void afterCommit(UUID userId) {
+    if (replicaRoutingDataSource == null) {
+      return;
+    }
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      replicaRoutingDataSource.pin(userId);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        replicaRoutingDataSource.pin(userId);
+      }
+    });
+  }
+
+}
@@ -0,0 +1,266 @@
+package br.com.yawarasolution.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import br.com.yawarasolution.service.UserDetailsImpl;
+
+/**
+ * Sends read-only transactions to a healthy read replica and everything else
+ * to the primary.
+ *
+ * Every replica is checked on a schedule: it must answer, be in recovery,
+ * stream WAL from the primary and lag it by no more than the configured number
+ * of seconds, otherwise reads fall back to the primary until it recovers. The
+ * lag is the time since the replica last replayed up to the primary's WAL
+ * position, read at the start of each check, so a replica cut off from the
+ * primary falls behind as soon as the primary writes, and an idle primary does
+ * not make a caught-up replica look late. A user who has just
+ * written something they will read back, e.g. an order at checkout, is pinned
+ * to the primary's WAL position at commit; their reads only go to replicas
+ * that have replayed past it.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+  private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+  public static final String PRIMARY = "primary";
+
+  private static final String CHECK_SQL = "SELECT pg_is_in_recovery(), pg_last_wal_replay_lsn()::text, "
+      + "EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming')";
+
+  private final DataSource primary;
+
+  private final List<Replica> replicas;
+
+  private final double maxLagSeconds;
+
+  private final long pinMaxMs;
+
+  private final AtomicInteger next = new AtomicInteger();
+
+  private final Map<UUID, Pin> pins = new ConcurrentHashMap<>();
+
+  /**
+   * @param primary       The primary database.
+   * @param replicas      The read replicas, by name.
+   * @param maxLagSeconds How far behind a replica may be and still serve reads.
+   * @param pinMaxMs      For how long at most a user stays pinned to the
+   *                      primary after a write.
+   */
+  public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, double maxLagSeconds,
+      long pinMaxMs) {
+    this.primary = primary;
+    this.replicas = replicas.entrySet().stream().map(e -> new Replica(e.getKey(), e.getValue())).toList();
+    this.maxLagSeconds = maxLagSeconds;
+    this.pinMaxMs = pinMaxMs;
+    Map<Object, Object> targets = new HashMap<>(replicas);
+    targets.put(PRIMARY, primary);
+    setTargetDataSources(targets);
+    setDefaultTargetDataSource(primary);
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || replicas.isEmpty()) {
+      return PRIMARY;
+    }
+    UUID userId = currentUserId();
+    Pin pin = userId != null ? pins.get(userId) : null;
+    int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+    for (int i = 0; i < replicas.size(); i++) {
+      Replica replica = replicas.get((start + i) % replicas.size());
+      if (replica.healthy && (pin == null || replica.replayLsn >= pin.lsn)) {
+        return replica.name;
+      }
+    }
+    return PRIMARY;
+  }
+
+  /**
+   * It pins a user to the primary until every healthy replica has replayed
+   * the primary's current WAL position. Call it after the user's write has
+   * committed.
+   *
+   * @param userId The id of the user.
+   */
+  public void pin(UUID userId) {
+    long lsn;
+    try {
+      lsn = currentPrimaryLsn();
+    } catch (SQLException e) {
+      // Without the position, stay on the primary for the whole window.
+      logger.warn("Could not read the primary WAL position: {}", e.getMessage());
+      lsn = Long.MAX_VALUE;
+    }
+    pins.put(userId, new Pin(lsn, Instant.now().plusMillis(pinMaxMs)));
+  }
+
+  /**
+   * Periodically check every replica and drop the pins all healthy replicas
+   * have caught up with.
+   */
+  @Scheduled(fixedDelayString = "${yamarasolution.datasource.replica-check-ms:1000}")
+  public void checkReplicas() {
+    long primaryLsn;
+    long primaryNanos = System.nanoTime();
+    try {
+      primaryLsn = currentPrimaryLsn();
+    } catch (SQLException e) {
+      // No replica can be shown to be caught up; their lag keeps growing.
+      logger.debug("Could not read the primary WAL position: {}", e.getMessage());
+      primaryLsn = Long.MAX_VALUE;
+    }
+    long minReplayLsn = Long.MAX_VALUE;
+    for (Replica replica : replicas) {
+      check(replica, primaryLsn, primaryNanos);
+      if (replica.healthy) {
+        minReplayLsn = Math.min(minReplayLsn, replica.replayLsn);
+      }
+    }
+    Instant now = Instant.now();
+    long caughtUp = minReplayLsn;
+    pins.values().removeIf(pin -> pin.lsn <= caughtUp || pin.until.isBefore(now));
+  }
+
+  /**
+   * It closes the replica pools; the primary is closed by its own bean.
+   */
+  public void close() {
+    for (Replica replica : replicas) {
+      try {
+        if (replica.dataSource.isWrapperFor(AutoCloseable.class)) {
+          replica.dataSource.unwrap(AutoCloseable.class).close();
+        }
+      } catch (Exception e) {
+        logger.warn("Could not close replica {}: {}", replica.name, e.getMessage());
+      }
+    }
+  }
+
+  public List<Replica> getReplicas() {
+    return replicas;
+  }
+
+  private long currentPrimaryLsn() throws SQLException {
+    try (Connection connection = primary.getConnection();
+        Statement statement = connection.createStatement();
+        ResultSet rs = statement.executeQuery("SELECT pg_current_wal_lsn()::text")) {
+      rs.next();
+      return parseLsn(rs.getString(1));
+    }
+  }
+
+  private void check(Replica replica, long primaryLsn, long primaryNanos) {
+    boolean healthy;
+    try (Connection connection = replica.dataSource.getConnection();
+        Statement statement = connection.createStatement();
+        ResultSet rs = statement.executeQuery(CHECK_SQL)) {
+      rs.next();
+      String replayLsn = rs.getString(2);
+      replica.replayLsn = replayLsn != null ? parseLsn(replayLsn) : -1;
+      if (replica.replayLsn >= primaryLsn) {
+        replica.caughtUpNanos = primaryNanos;
+      }
+      replica.lagSeconds = replica.caughtUpNanos != null
+          ? (System.nanoTime() - replica.caughtUpNanos) / 1e9
+          : -1;
+      healthy = rs.getBoolean(1) && rs.getBoolean(3) && replayLsn != null && replica.lagSeconds >= 0
+          && replica.lagSeconds <= maxLagSeconds;
+    } catch (SQLException e) {
+      healthy = false;
+      logger.debug("Replica {} check failed: {}", replica.name, e.getMessage());
+    }
+    if (healthy != replica.healthy) {
+      if (healthy) {
+        logger.info("Replica {} is serving reads", replica.name);
+      } else {
+        logger.warn("Replica {} is unavailable or lagging {}s, reading from the primary", replica.name,
+            replica.lagSeconds);
+      }
+    }
+    replica.healthy = healthy;
+  }
+
+  private static UUID currentUserId() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl userDetails) {
+      return userDetails.getId();
+    }
+    return null;
+  }
+
+  /**
+   * It converts a pg_lsn such as 16/B374D848 to a number
+   *
+   * @param lsn The text of the pg_lsn.
+   * @return The position as a long.
+   */
+  static long parseLsn(String lsn) {
+    int slash = lsn.indexOf('/');
+    return (Long.parseLong(lsn.substring(0, slash), 16) << 32) | Long.parseLong(lsn.substring(slash + 1), 16);
+  }
+
+  public static final class Replica {
+
+    private final String name;
+    private final DataSource dataSource;
+    private volatile boolean healthy;
+    private volatile long replayLsn = -1;
+    private volatile double lagSeconds = -1;
+    // When the replica last had everything the primary had; null until then.
+    private volatile Long caughtUpNanos;
+
+    private Replica(String name, DataSource dataSource) {
+      this.name = name;
+      this.dataSource = dataSource;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public boolean isHealthy() {
+      return healthy;
+    }
+
+    /**
+     * @return Seconds since the replica last replayed up to the primary's WAL
+     *         position, or -1 if it never has.
+     */
+    public double getLagSeconds() {
+      return lagSeconds;
+    }
+  }
+
+  private static final class Pin {
+
+    private final long lsn;
+    private final Instant until;
+
+    private Pin(long lsn, Instant until) {
+      this.lsn = lsn;
+      this.until = until;
+    }
+  }
+
+}
@@ -0,0 +1,304 @@
+package br.com.yawarasolution.datasource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import br.com.yawarasolution.DTO.diagnostics.SqlEndpointStatsResponseDTO;
+import br.com.yawarasolution.DTO.diagnostics.SqlStatsResponseDTO;
+import br.com.yawarasolution.utils.RequestTimings;
+import br.com.yawarasolution.utils.RequestTimings.Phase;
+
+/**
+ * Times every SQL statement the application runs, replacing
+ * spring.jpa.show-sql.
+ *
+ * The data source JPA uses is wrapped so each execute is timed. Statements
+ * over the slow threshold are logged, sampled, from the SQL log executor
+ * instead of the calling thread; when that executor is full they are only
+ * counted. Statements run during an HTTP request, see SqlRequestFilter, are
+ * also counted against the request: a request over the statement budget is
+ * logged with its most repeated statement, which is how an N+1 shows up, and
+ * with fail-over-budget set, e.g. in tests, the statement over the budget
+ * fails instead. The time also goes to the request's Server-Timing "db"
+ * phase.
+ */
+@Component
+@ConditionalOnProperty(name = "yamarasolution.sql.profiler.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlProfiler implements BeanPostProcessor {
+
+  private static final Logger logger = LoggerFactory.getLogger(SqlProfiler.class);
+
+  private static final String DATA_SOURCE_BEAN = "dataSource";
+
+  private static final int MAX_DISTINCT_PER_REQUEST = 100;
+
+  private static final int MAX_SQL_LENGTH = 500;
+
+  private final ThreadLocal<RequestSql> requests = new ThreadLocal<>();
+
+  private final Map<String, EndpointStats> byEndpoint = new ConcurrentHashMap<>();
+
+  private final LongAdder slowLogged = new LongAdder();
+
+  private final LongAdder slowDropped = new LongAdder();
+
+  @Autowired
+  @Qualifier("sqlLogExecutor")
+  private ObjectProvider<Executor> sqlLogExecutor;
+
+  @Value("${yamarasolution.sql.slow-ms:200}")
+  private long slowMs;
+
+  @Value("${yamarasolution.sql.slow-sample-rate:1.0}")
+  private double slowSampleRate;
+
+  @Value("${yamarasolution.sql.statement-budget:30}")
+  private int statementBudget;
+
+  @Value("${yamarasolution.sql.fail-over-budget:false}")
+  private boolean failOverBudget;
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    if (DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource dataSource) {
+      return new SqlProfiledDataSource(dataSource);
+    }
+    return bean;
+  }
+
+  /**
+   * It starts counting the statements of a request on this thread
+   *
+   * @param request The request, as method and URI, for the slow log.
+   */
+  void beginRequest(String request) {
+    requests.set(new RequestSql(request));
+  }
+
+  /**
+   * It stops counting the statements of the request on this thread and adds
+   * them to the endpoint's statistics
+   *
+   * @param endpoint The endpoint, as method and path pattern.
+   */
+  void endRequest(String endpoint) {
+    RequestSql request = requests.get();
+    requests.remove();
+    if (request == null) {
+      return;
+    }
+    boolean overBudget = request.statements > statementBudget;
+    byEndpoint.computeIfAbsent(endpoint, e -> new EndpointStats()).record(request, overBudget);
+    if (overBudget) {
+      Map.Entry<String, Integer> mostRepeated = request.bySql.entrySet().stream()
+          .max(Map.Entry.comparingByValue()).orElse(null);
+      logger.warn("{} ran {} statements in {}ms, budget {}; most repeated {}x: {}", endpoint, request.statements,
+          TimeUnit.NANOSECONDS.toMillis(request.dbNanos), statementBudget,
+          mostRepeated != null ? mostRepeated.getValue() : 0, mostRepeated != null ? mostRepeated.getKey() : "");
+    }
+  }
+
+  /**
+   * It returns the statement counts and database time per endpoint since
+   * startup, the endpoints running the most statements per request first
+   *
+   * @return A SqlStatsResponseDTO object.
+   */
+  public SqlStatsResponseDTO getStatistics() {
+    List<SqlEndpointStatsResponseDTO> endpoints = byEndpoint.entrySet().stream()
+        .map(e -> e.getValue().toResponse(e.getKey()))
+        .sorted(Comparator.comparing(SqlEndpointStatsResponseDTO::getAverageStatements).reversed())
+        .collect(Collectors.toList());
+    return new SqlStatsResponseDTO(statementBudget, slowMs, slowLogged.sum(), slowDropped.sum(), endpoints);
+  }
+
+  /**
+   * It counts a statement against the request on this thread, before it runs
+   *
+   * @param sql The statement.
+   */
+  private void executing(String sql) {
+    RequestSql request = requests.get();
+    if (request == null) {
+      return;
+    }
+    request.statements++;
+    if (request.bySql.size() < MAX_DISTINCT_PER_REQUEST || request.bySql.containsKey(sql)) {
+      request.bySql.merge(sql, 1, Integer::sum);
+    }
+    if (failOverBudget && request.statements > statementBudget) {
+      throw new IllegalStateException(request.request + " exceeded its budget of " + statementBudget
+          + " SQL statements with: " + truncate(sql));
+    }
+  }
+
+  /**
+   * It records how long a statement took and queues it for the slow log
+   *
+   * @param sql         The statement.
+   * @param elapsedNano How long it took.
+   */
+  private void executed(String sql, long elapsedNano) {
+    RequestTimings.add(Phase.DB, elapsedNano);
+    RequestSql request = requests.get();
+    if (request != null) {
+      request.dbNanos += elapsedNano;
+    }
+    long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNano);
+    if (elapsedMs < slowMs || ThreadLocalRandom.current().nextDouble() >= slowSampleRate) {
+      return;
+    }
+    Executor executor = sqlLogExecutor.getIfAvailable();
+    if (executor == null) {
+      slowDropped.increment();
+      return;
+    }
+    String source = request != null ? request.request : Thread.currentThread().getName();
+    try {
+      executor.execute(() -> logger.warn("Slow SQL {}ms in {}: {}", elapsedMs, source, truncate(sql)));
+      slowLogged.increment();
+    } catch (RejectedExecutionException e) {
+      slowDropped.increment();
+    }
+  }
+
+  private Connection profiled(Connection connection) {
+    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+        (proxy, method, args) -> {
+          Object result = invoke(connection, method, args);
+          if (result instanceof Statement statement && method.getName().startsWith("prepare")) {
+            return profiled(statement, method.getReturnType(), (String) args[0]);
+          }
+          if (result instanceof Statement statement && "createStatement".equals(method.getName())) {
+            return profiled(statement, Statement.class, null);
+          }
+          return result;
+        });
+  }
+
+  /**
+   * It wraps a statement so its executions are timed
+   *
+   * @param statement The statement.
+   * @param type      The JDBC interface of the statement.
+   * @param sql       The prepared SQL, or null for a plain statement, whose
+   *                  SQL is passed to execute.
+   * @return The profiled statement.
+   */
+  private Object profiled(Statement statement, Class<?> type, String sql) {
+    return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[] { type },
+        (proxy, method, args) -> {
+          if (!method.getName().startsWith("execute")) {
+            return invoke(statement, method, args);
+          }
+          String executed = sql != null ? sql : args != null && args.length > 0 ? String.valueOf(args[0]) : "(batch)";
+          executing(executed);
+          long start = System.nanoTime();
+          try {
+            return invoke(statement, method, args);
+          } finally {
+            executed(executed, System.nanoTime() - start);
+          }
+        });
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getTargetException();
+    }
+  }
+
+  private static String truncate(String sql) {
+    return sql.length() <= MAX_SQL_LENGTH ? sql : sql.substring(0, MAX_SQL_LENGTH) + "...";
+  }
+
+  private final class SqlProfiledDataSource extends DelegatingDataSource {
+
+    private SqlProfiledDataSource(DataSource target) {
+      super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+      return profiled(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+      return profiled(super.getConnection(username, password));
+    }
+  }
+
+  private static final class RequestSql {
+
+    private final String request;
+    private final Map<String, Integer> bySql = new HashMap<>();
+    private int statements;
+    private long dbNanos;
+
+    private RequestSql(String request) {
+      this.request = request;
+    }
+  }
+
+  private static final class EndpointStats {
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder dbNanos = new LongAdder();
+    private final LongAdder overBudget = new LongAdder();
+    private final AtomicLong maxStatements = new AtomicLong();
+
+    private void record(RequestSql request, boolean over) {
+      requests.increment();
+      statements.add(request.statements);
+      dbNanos.add(request.dbNanos);
+      maxStatements.accumulateAndGet(request.statements, Math::max);
+      if (over) {
+        overBudget.increment();
+      }
+    }
+
+    private SqlEndpointStatsResponseDTO toResponse(String endpoint) {
+      long n = requests.sum();
+      return new SqlEndpointStatsResponseDTO(endpoint, n,
+          n == 0 ? 0 : statements.sum() / n,
+          maxStatements.get(),
+          n == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(dbNanos.sum() / n),
+          overBudget.sum());
+    }
+  }
+
+}
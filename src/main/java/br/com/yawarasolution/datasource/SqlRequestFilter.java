@@ -0,0 +1,46 @@
+package br.com.yawarasolution.datasource;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Counts the SQL statements of each HTTP request for the SQL profiler. It
+ * runs before the security filters so the statements run to load the user
+ * of the token are counted too, and right after ServerTimingFilter, whose
+ * timings the statements add their time to.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "yamarasolution.sql.profiler.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlRequestFilter extends OncePerRequestFilter {
+
+  private static final String UNMAPPED = "(unmapped)";
+
+  @Autowired
+  private SqlProfiler profiler;
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    profiler.beginRequest(request.getMethod() + " " + request.getRequestURI());
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+      profiler.endRequest(request.getMethod() + " " + (pattern != null ? pattern : UNMAPPED));
+    }
+  }
+
+}
@@ -0,0 +1,38 @@
+package br.com.yawarasolution.event;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published whenever a product or a category is written, so that anything
+ * derived from the catalog can be rebuilt once the transaction commits.
+ * Orders and released reservations only change stock and publish STOCK,
+ * which the catalog caches do not rebuild on.
+ *
+ * The same event is published again on the other instances by
+ * CacheInvalidationService, marked remote; the id is null when everything of
+ * the type must be dropped.
+ */
+@Getter
+@AllArgsConstructor
+public class CatalogChangedEvent {
+
+  public enum Type {
+    PRODUCT,
+    CATEGORY,
+    STOCK
+  }
+
+  private final Type type;
+
+  private final UUID id;
+
+  private final boolean remote;
+
+  public CatalogChangedEvent(Type type, UUID id) {
+    this(type, id, false);
+  }
+
+}
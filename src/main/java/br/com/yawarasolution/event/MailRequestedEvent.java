@@ -0,0 +1,21 @@
+package br.com.yawarasolution.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published instead of sending an e-mail from the request, so the request
+ * neither waits for SMTP nor fails with it. The e-mail is sent after the
+ * transaction commits, by MailDispatchService.
+ */
+@Getter
+@AllArgsConstructor
+public class MailRequestedEvent {
+
+  private final String to;
+
+  private final String subject;
+
+  private final String text;
+
+}
@@ -0,0 +1,36 @@
+package br.com.yawarasolution.event;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import br.com.yawarasolution.enums.PurchaseStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when the status of an order changes, so that the order owner's
+ * open status streams can be told once the transaction commits.
+ *
+ * The same event is published again on the other instances by
+ * CacheInvalidationService, marked remote, since the owner's streams may be
+ * open on any of them.
+ */
+@Getter
+@AllArgsConstructor
+public class OrderStatusChangedEvent {
+
+  private final UUID userId;
+
+  private final UUID orderId;
+
+  private final PurchaseStatus status;
+
+  private final Instant changedAt;
+
+  private final boolean remote;
+
+  public OrderStatusChangedEvent(UUID userId, UUID orderId, PurchaseStatus status, Instant changedAt) {
+    this(userId, orderId, status, changedAt, false);
+  }
+
+}
@@ -0,0 +1,27 @@
+package br.com.yawarasolution.event;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published whenever the roles of a user change, so that anything holding the
+ * user's authorities can drop them once the transaction commits.
+ *
+ * Like CatalogChangedEvent it is published again on the other instances,
+ * marked remote; the id is null when every user must be dropped.
+ */
+@Getter
+@AllArgsConstructor
+public class PrincipalChangedEvent {
+
+  private final UUID userId;
+
+  private final boolean remote;
+
+  public PrincipalChangedEvent(UUID userId) {
+    this(userId, false);
+  }
+
+}
@@ -20,6 +20,8 @@ import org.springframework.web.method.annotation.MethodArgumentTypeMismatchExcep
 import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -40,7 +42,8 @@ public class ControllerExceptionHandler extends ResponseEntityExceptionHandler {
    */
   @ExceptionHandler({ DataIntegrityViolationException.class, MethodArgumentTypeMismatchException.class,
       AccountException.class, CategoryException.class, UserException.class, FileSizeLimitExceededException.class,
-      SizeLimitExceededException.class, ProductException.class, IllegalArgumentException.class, UserPurchaseException.class })
+      SizeLimitExceededException.class, ProductException.class, IllegalArgumentException.class, UserPurchaseException.class,
+      ReportException.class, DonationException.class, SurveyException.class })
   public ResponseEntity<ApiError> handleExceptions(RuntimeException ex) {
     log.error("Error: ", ex);
     return new ResponseEntity<>(
@@ -48,6 +51,23 @@ public class ControllerExceptionHandler extends ResponseEntityExceptionHandler {
         HttpStatus.UNPROCESSABLE_ENTITY);
   }
 
+  /**
+   * If a remote service (SMTP, Firebase) is failing and its circuit breaker is
+   * open, or too many calls to it are already waiting, return 503 right away
+   * instead of tying up the request thread
+   * 
+   * @param ex The exception that was thrown
+   * @return A ResponseEntity object is being returned.
+   */
+  @ExceptionHandler({ CallNotPermittedException.class, BulkheadFullException.class })
+  public ResponseEntity<ApiError> handleDependencyUnavailable(RuntimeException ex) {
+    log.warn("Dependency unavailable: {}", ex.getMessage());
+    return new ResponseEntity<>(
+        new ApiError(HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable",
+            "A remote service is unavailable, try again later"),
+        HttpStatus.SERVICE_UNAVAILABLE);
+  }
+
   /**
    * If the file size exceeds the maximum allowed, return a response entity with a
    * status of 422
@@ -0,0 +1,11 @@
+package br.com.yawarasolution.exception;
+
+public class DonationException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  public DonationException(String message) {
+    super(message);
+  }
+
+}
@@ -0,0 +1,11 @@
+package br.com.yawarasolution.exception;
+
+public class ReportException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  public ReportException(String message) {
+    super(message);
+  }
+
+}
@@ -0,0 +1,11 @@
+package br.com.yawarasolution.exception;
+
+public class SurveyException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  public SurveyException(String message) {
+    super(message);
+  }
+
+}
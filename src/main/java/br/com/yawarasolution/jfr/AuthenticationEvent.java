@@ -0,0 +1,36 @@
+package br.com.yawarasolution.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+import lombok.Setter;
+
+/**
+ * One run of AuthenticationTokenFilter on a request with a bearer token.
+ */
+@Name("br.com.yawarasolution.Authentication")
+@Label("JWT Authentication")
+@Category({ "Yawara", "Security" })
+@Description("Bearer token verification and user lookup")
+@StackTrace(false)
+@Threshold("5 ms")
+@Setter
+public class AuthenticationEvent extends Event {
+
+  @Label("Token Verify Time")
+  @Timespan(Timespan.NANOSECONDS)
+  private long parseNanos;
+
+  @Label("User Lookup Time")
+  @Timespan(Timespan.NANOSECONDS)
+  private long userLookupNanos;
+
+  @Label("Authenticated")
+  private boolean authenticated;
+
+}
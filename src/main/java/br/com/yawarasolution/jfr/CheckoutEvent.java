@@ -0,0 +1,36 @@
+package br.com.yawarasolution.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+import lombok.Setter;
+
+/**
+ * One order created by UserPurchaseService.createOrder, from the user lookup
+ * to the confirmation e-mail.
+ */
+@Name("br.com.yawarasolution.Checkout")
+@Label("Checkout")
+@Category({ "Yawara", "Orders" })
+@Description("Order creation, with its stock check")
+@StackTrace(false)
+@Threshold("10 ms")
+@Setter
+public class CheckoutEvent extends Event {
+
+  @Label("Items")
+  private int items;
+
+  @Label("Total (cents)")
+  private long totalCents;
+
+  @Label("Stock Check Time")
+  @Timespan(Timespan.NANOSECONDS)
+  private long stockCheckNanos;
+
+}
@@ -0,0 +1,35 @@
+package br.com.yawarasolution.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import lombok.Setter;
+
+/**
+ * One image uploaded to Firebase Storage by FirebaseFileService.saveFile.
+ */
+@Name("br.com.yawarasolution.FileUpload")
+@Label("File Upload")
+@Category({ "Yawara", "External" })
+@Description("Image upload to Firebase Storage")
+@StackTrace(false)
+@Threshold("0 ms")
+@Setter
+public class FileUploadEvent extends Event {
+
+  @Label("Size")
+  @DataAmount
+  private long bytes;
+
+  @Label("Content Type")
+  private String contentType;
+
+  @Label("Succeeded")
+  private boolean succeeded;
+
+}
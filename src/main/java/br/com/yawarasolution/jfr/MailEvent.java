@@ -0,0 +1,30 @@
+package br.com.yawarasolution.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import lombok.Setter;
+
+/**
+ * One e-mail sent over SMTP by MailConfig.sendEmail.
+ */
+@Name("br.com.yawarasolution.Mail")
+@Label("Mail")
+@Category({ "Yawara", "External" })
+@Description("E-mail sent over SMTP")
+@StackTrace(false)
+@Threshold("0 ms")
+@Setter
+public class MailEvent extends Event {
+
+  @Label("Subject")
+  private String subject;
+
+  @Label("Succeeded")
+  private boolean succeeded;
+
+}
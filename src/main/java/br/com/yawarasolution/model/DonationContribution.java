@@ -0,0 +1,36 @@
+package br.com.yawarasolution.model;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+@Data
+@Entity
+@Table(name = "donation_contribution")
+public class DonationContribution {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.UUID)
+  private UUID id;
+
+  @Column(name = "donation_id", nullable = false)
+  private UUID donationId;
+
+  @Column(name = "donator_id", nullable = false)
+  private UUID donatorId;
+
+  @Column(name = "amount", nullable = false)
+  private BigDecimal amount;
+
+  @Column(name = "contribution_date", nullable = false)
+  private Instant contributionDate;
+
+}
@@ -0,0 +1,35 @@
+package br.com.yawarasolution.model;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Everything one donor has given to one campaign. Only ever grows.
+ */
+@Data
+@Entity
+@Table(name = "donation_donor_total")
+public class DonationDonorTotal {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.UUID)
+  private UUID id;
+
+  @Column(name = "donation_id", nullable = false)
+  private UUID donationId;
+
+  @Column(name = "donator_id", nullable = false)
+  private UUID donatorId;
+
+  @Column(name = "amount", nullable = false)
+  private BigDecimal amount;
+
+}
@@ -0,0 +1,64 @@
+package br.com.yawarasolution.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * An Idempotency-Key sent by a user, with the response to replay once the
+ * request it guards has completed.
+ */
+@Data
+@Entity
+@Table(name = "idempotency_key")
+public class IdempotencyKey {
+
+  public static final String IN_PROGRESS = "IN_PROGRESS";
+
+  public static final String COMPLETED = "COMPLETED";
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.UUID)
+  private UUID id;
+
+  @Column(name = "user_id", nullable = false)
+  private UUID userId;
+
+  @Column(name = "idempotency_key", nullable = false)
+  private String idempotencyKey;
+
+  @Column(name = "request_hash", nullable = false)
+  private String requestHash;
+
+  @Column(name = "status", nullable = false)
+  private String status;
+
+  @Column(name = "response_status")
+  private Integer responseStatus;
+
+  @Column(name = "response_location")
+  private String responseLocation;
+
+  @Column(name = "response_body")
+  private String responseBody;
+
+  @Column(name = "created_at", nullable = false)
+  private Instant createdAt;
+
+  @Column(name = "expires_at", nullable = false)
+  private Instant expiresAt;
+
+  @Column(name = "lease_until", nullable = false)
+  private Instant leaseUntil;
+
+  @Column(name = "lease_token")
+  private UUID leaseToken;
+
+}
@@ -36,8 +36,8 @@ public class Product {
   @Column(name = "isactive", nullable = false)
   private Boolean isActive;
 
-  @Column(name = "price", nullable = false)
-  private Double price;
+  @Column(name = "price_cents", nullable = false)
+  private Long priceCents;
 
   @Column(name = "stock", nullable = false)
   private Integer stock;
@@ -1,6 +1,5 @@
 package br.com.yawarasolution.model;
 
-import java.math.BigDecimal;
 import java.util.UUID;
 
 import jakarta.persistence.Entity;
@@ -21,9 +20,9 @@ public class Purchase {
   @GeneratedValue(strategy = GenerationType.UUID)
   private UUID id;
 
-  private BigDecimal quantity;
+  private Integer quantity;
 
-  private BigDecimal unitPrice;
+  private Long unitPriceCents;
 
   @ManyToOne
   @JoinColumn(name = "product_id")
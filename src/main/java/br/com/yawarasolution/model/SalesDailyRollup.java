@@ -0,0 +1,50 @@
+package br.com.yawarasolution.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Sales of one product on one day. Units and revenue are net of
+ * cancellations; the category is the product's category when the rollup row
+ * was created.
+ */
+@Data
+@Entity
+@Table(name = "sales_daily_rollup")
+public class SalesDailyRollup {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.UUID)
+  private UUID id;
+
+  @Column(name = "rollup_date", nullable = false)
+  private LocalDate rollupDate;
+
+  @Column(name = "product_id", nullable = false)
+  private UUID productId;
+
+  @Column(name = "category_id")
+  private UUID categoryId;
+
+  @Column(name = "units", nullable = false)
+  private BigDecimal units;
+
+  @Column(name = "revenue", nullable = false)
+  private BigDecimal revenue;
+
+  @Column(name = "order_count", nullable = false)
+  private Integer orderCount;
+
+  @Column(name = "cancellations", nullable = false)
+  private Integer cancellations;
+
+}
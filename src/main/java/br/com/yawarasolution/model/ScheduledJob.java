@@ -0,0 +1,56 @@
+package br.com.yawarasolution.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * The last run of a cluster job, whichever instance ran it, and where an
+ * unfinished run stopped so the next one can resume from there.
+ */
+@Data
+@Entity
+@Table(name = "scheduled_job")
+public class ScheduledJob {
+
+  public static final String RUNNING = "RUNNING";
+
+  public static final String SUCCEEDED = "SUCCEEDED";
+
+  public static final String PARTIAL = "PARTIAL";
+
+  public static final String FAILED = "FAILED";
+
+  @Id
+  @Column(name = "name", nullable = false)
+  private String name;
+
+  @Column(name = "last_started_at")
+  private Instant lastStartedAt;
+
+  @Column(name = "last_finished_at")
+  private Instant lastFinishedAt;
+
+  @Column(name = "last_duration_ms")
+  private Long lastDurationMs;
+
+  @Column(name = "last_rows_affected")
+  private Long lastRowsAffected;
+
+  @Column(name = "last_status")
+  private String lastStatus;
+
+  @Column(name = "last_error")
+  private String lastError;
+
+  @Column(name = "last_node")
+  private String lastNode;
+
+  @Column(name = "resume_cursor")
+  private String resumeCursor;
+
+}
@@ -0,0 +1,37 @@
+package br.com.yawarasolution.model;
+
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * How many times a response was given to a question of a donation survey.
+ */
+@Data
+@Entity
+@Table(name = "survey_response_rollup")
+public class SurveyResponseRollup {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.UUID)
+  private UUID id;
+
+  @Column(name = "donation_id", nullable = false)
+  private UUID donationId;
+
+  @Column(name = "question", nullable = false)
+  private String question;
+
+  @Column(name = "response", nullable = false)
+  private String response;
+
+  @Column(name = "response_count", nullable = false)
+  private Long responseCount;
+
+}
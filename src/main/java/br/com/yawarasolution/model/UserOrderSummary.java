@@ -0,0 +1,52 @@
+package br.com.yawarasolution.model;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import br.com.yawarasolution.enums.PurchaseStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Denormalised row per order used by the order-history list, maintained by
+ * UserPurchaseService whenever an order is created or changes status.
+ */
+@Data
+@Entity
+@Table(name = "user_order_summary")
+public class UserOrderSummary {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.UUID)
+  private UUID id;
+
+  @Column(name = "user_purchase_id", nullable = false, unique = true)
+  private UUID userPurchaseId;
+
+  @Column(name = "user_id", nullable = false)
+  private UUID userId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "purchase_status", nullable = false)
+  private PurchaseStatus purchaseStatus;
+
+  @Column(name = "total_price_cents", nullable = false)
+  private Long totalPriceCents;
+
+  @Column(name = "purchase_date")
+  private LocalDate purchaseDate;
+
+  @Column(name = "line_count", nullable = false)
+  private Integer lineCount;
+
+  @Column(name = "product_names", nullable = false)
+  private String productNames;
+
+}
@@ -1,6 +1,6 @@
 package br.com.yawarasolution.model;
 
-import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
@@ -37,8 +37,8 @@ public class UserPurchase {
   @OneToMany(mappedBy="userPurchase" ,fetch = FetchType.LAZY, cascade = CascadeType.ALL)
   private List<Purchase> purchases;
 
-  @Column(name = "total_price", nullable = false)
-  private BigDecimal totalPrice;
+  @Column(name = "total_price_cents", nullable = false)
+  private Long totalPriceCents;
 
   @Enumerated(EnumType.STRING)
   @Column(name = "purchase_status", nullable = false)
@@ -47,4 +47,11 @@ public class UserPurchase {
   @Column(name = "purchase_date", nullable = false)
   private LocalDate purchaseDate;
 
+  /**
+   * Until when a PENDING order holds its stock; null once the order leaves
+   * PENDING.
+   */
+  @Column(name = "reserved_until")
+  private Instant reservedUntil;
+
 }
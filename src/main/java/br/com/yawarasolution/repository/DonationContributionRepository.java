@@ -0,0 +1,11 @@
+package br.com.yawarasolution.repository;
+
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import br.com.yawarasolution.model.DonationContribution;
+
+public interface DonationContributionRepository extends JpaRepository<DonationContribution, UUID> {
+
+}
@@ -0,0 +1,35 @@
+package br.com.yawarasolution.repository;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import br.com.yawarasolution.DTO.donation.DonorTotalDTO;
+import br.com.yawarasolution.model.DonationDonorTotal;
+import jakarta.persistence.QueryHint;
+
+public interface DonationDonorTotalRepository extends JpaRepository<DonationDonorTotal, UUID> {
+
+  /**
+   * Adds to a donor's campaign total and returns the new total.
+   */
+  @Query(value = "INSERT INTO donation_donor_total (id, donation_id, donator_id, amount) "
+      + "VALUES (gen_random_uuid(), :donationId, :donatorId, :amount) "
+      + "ON CONFLICT (donation_id, donator_id) DO UPDATE SET "
+      + "amount = donation_donor_total.amount + EXCLUDED.amount "
+      + "RETURNING amount", nativeQuery = true)
+  BigDecimal add(@Param("donationId") UUID donationId, @Param("donatorId") UUID donatorId,
+      @Param("amount") BigDecimal amount);
+
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+  @Query("select new br.com.yawarasolution.DTO.donation.DonorTotalDTO(t.donationId, t.donatorId, d.name, t.amount) "
+      + "from DonationDonorTotal t, Donator d where d.id = t.donatorId")
+  Stream<DonorTotalDTO> streamAll();
+
+}
@@ -1,11 +1,21 @@
 package br.com.yawarasolution.repository;
 
+import java.math.BigDecimal;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import br.com.yawarasolution.model.Donation;
 
 public interface DonationRepository extends JpaRepository<Donation, UUID> {
-  
+
+  /**
+   * Adds to the amount received by a campaign and returns the new amount.
+   */
+  @Query(value = "UPDATE donation SET amount_received = amount_received + :amount WHERE id = :id "
+      + "RETURNING amount_received", nativeQuery = true)
+  BigDecimal addAmountReceived(@Param("id") UUID id, @Param("amount") BigDecimal amount);
+
 }
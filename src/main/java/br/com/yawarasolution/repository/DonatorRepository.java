@@ -1,11 +1,36 @@
 package br.com.yawarasolution.repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import br.com.yawarasolution.model.Donator;
 
 public interface DonatorRepository extends JpaRepository<Donator, UUID> {
-  
+
+  /**
+   * Adds to a donor's total, creating the donor on its first contribution, and
+   * returns its id and name. The name of an existing donor is kept.
+   */
+  @Query(value = "INSERT INTO donator (id, name, email, amount_donated, donation_date) "
+      + "VALUES (gen_random_uuid(), :name, :email, :amount, :donationDate) "
+      + "ON CONFLICT (email) DO UPDATE SET "
+      + "amount_donated = donator.amount_donated + EXCLUDED.amount_donated, "
+      + "donation_date = GREATEST(donator.donation_date, EXCLUDED.donation_date) "
+      + "RETURNING id AS \"id\", name AS \"name\"", nativeQuery = true)
+  DonatorKey add(@Param("name") String name, @Param("email") String email, @Param("amount") BigDecimal amount,
+      @Param("donationDate") LocalDateTime donationDate);
+
+  interface DonatorKey {
+
+    UUID getId();
+
+    String getName();
+
+  }
+
 }
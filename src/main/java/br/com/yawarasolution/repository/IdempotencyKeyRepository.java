@@ -0,0 +1,58 @@
+package br.com.yawarasolution.repository;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import br.com.yawarasolution.model.IdempotencyKey;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, UUID> {
+
+  Optional<IdempotencyKey> findByUserIdAndIdempotencyKey(UUID userId, String idempotencyKey);
+
+  /**
+   * Claims a key for a request until leaseUntil, or takes over a claim for the
+   * same request whose lease ran out, e.g. because its node died; returns 0 if
+   * the key is completed, in flight or used with another request.
+   */
+  @Modifying
+  @Query(value = "INSERT INTO idempotency_key (id, user_id, idempotency_key, request_hash, status, created_at, "
+      + "expires_at, lease_until, lease_token) "
+      + "VALUES (gen_random_uuid(), :userId, :key, :requestHash, 'IN_PROGRESS', now(), :expiresAt, :leaseUntil, "
+      + ":leaseToken) "
+      + "ON CONFLICT (user_id, idempotency_key) DO UPDATE SET created_at = now(), "
+      + "expires_at = EXCLUDED.expires_at, lease_until = EXCLUDED.lease_until, lease_token = EXCLUDED.lease_token "
+      + "WHERE idempotency_key.status = 'IN_PROGRESS' AND idempotency_key.lease_until < now() "
+      + "AND idempotency_key.request_hash = EXCLUDED.request_hash", nativeQuery = true)
+  int claim(@Param("userId") UUID userId, @Param("key") String key, @Param("requestHash") String requestHash,
+      @Param("expiresAt") Instant expiresAt, @Param("leaseUntil") Instant leaseUntil,
+      @Param("leaseToken") UUID leaseToken);
+
+  /**
+   * Completes a key claimed with leaseToken; returns 0 if the claim was taken
+   * over meanwhile.
+   */
+  @Modifying
+  @Query("update IdempotencyKey k set k.status = 'COMPLETED', k.responseStatus = :responseStatus, "
+      + "k.responseLocation = :responseLocation, k.responseBody = :responseBody "
+      + "where k.userId = :userId and k.idempotencyKey = :key and k.leaseToken = :leaseToken "
+      + "and k.status = 'IN_PROGRESS'")
+  int complete(@Param("userId") UUID userId, @Param("key") String key, @Param("leaseToken") UUID leaseToken,
+      @Param("responseStatus") int responseStatus, @Param("responseLocation") String responseLocation,
+      @Param("responseBody") String responseBody);
+
+  @Modifying
+  @Query("delete from IdempotencyKey k where k.userId = :userId and k.idempotencyKey = :key "
+      + "and k.leaseToken = :leaseToken and k.status = 'IN_PROGRESS'")
+  int release(@Param("userId") UUID userId, @Param("key") String key, @Param("leaseToken") UUID leaseToken);
+
+  @Modifying
+  @Query("delete from IdempotencyKey k where k.expiresAt < :now")
+  int deleteExpired(@Param("now") Instant now);
+
+}
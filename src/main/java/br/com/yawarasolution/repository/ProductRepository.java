@@ -1,11 +1,16 @@
 package br.com.yawarasolution.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import br.com.yawarasolution.model.Product;
 
@@ -25,4 +30,42 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
 
   Boolean existsByNameIgnoreCase(String name);
 
+  boolean existsByCategory_Id(UUID categoryId);
+
+  @Query(value = "SELECT CASE WHEN is_called THEN last_value ELSE 0 END FROM catalog_version_seq", nativeQuery = true)
+  long currentCatalogVersion();
+
+  @Query(value = "SELECT nextval('catalog_version_seq')", nativeQuery = true)
+  long nextCatalogVersion();
+
+  /**
+   * Locks the products of the given orders in id order, so concurrent stock
+   * returns always take the row locks in the same order.
+   */
+  @Query(value = "SELECT p.id FROM product p WHERE p.id IN "
+      + "(SELECT pu.product_id FROM purchase pu WHERE pu.user_purchase_id IN (:orderIds)) "
+      + "ORDER BY p.id FOR UPDATE", nativeQuery = true)
+  List<UUID> lockProductsOfOrders(@Param("orderIds") Collection<UUID> orderIds);
+
+  /**
+   * Takes stock from a product only if it has enough; returns 0 otherwise.
+   */
+  @Modifying
+  @Query("update Product p set p.stock = p.stock - :quantity where p.id = :id and p.stock >= :quantity")
+  int takeStock(@Param("id") UUID id, @Param("quantity") int quantity);
+
+  @Modifying
+  @Query("update Product p set p.stock = p.stock + :quantity where p.id = :id")
+  int addStock(@Param("id") UUID id, @Param("quantity") int quantity);
+
+  /**
+   * Gives back the stock held by the given orders with one update per product.
+   */
+  @Modifying
+  @Query(value = "UPDATE product p SET stock = p.stock + s.quantity "
+      + "FROM (SELECT pu.product_id, SUM(pu.quantity) AS quantity FROM purchase pu "
+      + "WHERE pu.user_purchase_id IN (:orderIds) GROUP BY pu.product_id) s "
+      + "WHERE p.id = s.product_id", nativeQuery = true)
+  int returnStockOfOrders(@Param("orderIds") Collection<UUID> orderIds);
+
 }
@@ -7,5 +7,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import br.com.yawarasolution.model.Purchase;
 
 public interface PurchaseRepository extends JpaRepository<Purchase, UUID> {
-  
+
+  boolean existsByProduct_Id(UUID productId);
+
 }
@@ -6,6 +6,8 @@ import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import br.com.yawarasolution.model.RefreshToken;
 import br.com.yawarasolution.model.User;
@@ -17,4 +19,9 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID
 
   @Modifying
   int deleteByUser(User user);
+
+  @Modifying
+  @Query(value = "DELETE FROM refreshtoken WHERE id IN "
+      + "(SELECT id FROM refreshtoken WHERE expiry_date < :now LIMIT :limit)", nativeQuery = true)
+  int deleteExpired(@Param("now") Instant now, @Param("limit") int limit);
 }
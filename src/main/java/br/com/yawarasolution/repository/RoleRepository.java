@@ -3,12 +3,16 @@ package br.com.yawarasolution.repository;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import br.com.yawarasolution.enums.ERole;
 import br.com.yawarasolution.model.Role;
+import jakarta.persistence.QueryHint;
 
 public interface RoleRepository extends JpaRepository<Role, UUID> {
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
   Optional<Role> findByName(ERole name);
 }
 
@@ -0,0 +1,88 @@
+package br.com.yawarasolution.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import br.com.yawarasolution.DTO.report.CategorySalesResponseDTO;
+import br.com.yawarasolution.DTO.report.DailySalesResponseDTO;
+import br.com.yawarasolution.DTO.report.ProductSalesResponseDTO;
+import br.com.yawarasolution.model.SalesDailyRollup;
+
+public interface SalesDailyRollupRepository extends JpaRepository<SalesDailyRollup, UUID> {
+
+  @Modifying
+  @Query(value = "INSERT INTO sales_daily_rollup (id, rollup_date, product_id, category_id, units, revenue, order_count, cancellations) "
+      + "VALUES (gen_random_uuid(), :day, :productId, :categoryId, :units, :revenue, :orders, :cancellations) "
+      + "ON CONFLICT (rollup_date, product_id) DO UPDATE SET "
+      + "units = sales_daily_rollup.units + EXCLUDED.units, "
+      + "revenue = sales_daily_rollup.revenue + EXCLUDED.revenue, "
+      + "order_count = sales_daily_rollup.order_count + EXCLUDED.order_count, "
+      + "cancellations = sales_daily_rollup.cancellations + EXCLUDED.cancellations", nativeQuery = true)
+  int add(@Param("day") LocalDate day, @Param("productId") UUID productId, @Param("categoryId") UUID categoryId,
+      @Param("units") BigDecimal units, @Param("revenue") BigDecimal revenue, @Param("orders") int orders,
+      @Param("cancellations") int cancellations);
+
+  /**
+   * Takes canceled orders out of the rollups of the days they were placed, one
+   * upsert per day and product.
+   */
+  @Modifying
+  @Query(value = "INSERT INTO sales_daily_rollup (id, rollup_date, product_id, category_id, units, revenue, order_count, cancellations) "
+      + "SELECT gen_random_uuid(), up.purchase_date, pu.product_id, p.category_id, "
+      + "-SUM(pu.quantity), -SUM(pu.quantity * pu.unit_price_cents) / 100.0, 0, COUNT(DISTINCT up.id) "
+      + "FROM user_purchase up "
+      + "JOIN purchase pu ON pu.user_purchase_id = up.id "
+      + "JOIN product p ON p.id = pu.product_id "
+      + "WHERE up.id IN (:orderIds) "
+      + "GROUP BY up.purchase_date, pu.product_id, p.category_id "
+      + "ON CONFLICT (rollup_date, product_id) DO UPDATE SET "
+      + "units = sales_daily_rollup.units + EXCLUDED.units, "
+      + "revenue = sales_daily_rollup.revenue + EXCLUDED.revenue, "
+      + "cancellations = sales_daily_rollup.cancellations + EXCLUDED.cancellations", nativeQuery = true)
+  int addCancellations(@Param("orderIds") Collection<UUID> orderIds);
+
+  @Modifying
+  @Query(value = "DELETE FROM sales_daily_rollup WHERE rollup_date BETWEEN :from AND :to", nativeQuery = true)
+  int deleteBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+  @Modifying
+  @Query(value = "INSERT INTO sales_daily_rollup (id, rollup_date, product_id, category_id, units, revenue, order_count, cancellations) "
+      + "SELECT gen_random_uuid(), up.purchase_date, pu.product_id, p.category_id, "
+      + "COALESCE(SUM(pu.quantity) FILTER (WHERE up.purchase_status <> 'CANCELED'), 0), "
+      + "COALESCE(SUM(pu.quantity * pu.unit_price_cents) FILTER (WHERE up.purchase_status <> 'CANCELED'), 0) / 100.0, "
+      + "COUNT(DISTINCT up.id), "
+      + "COUNT(DISTINCT up.id) FILTER (WHERE up.purchase_status = 'CANCELED') "
+      + "FROM user_purchase up "
+      + "JOIN purchase pu ON pu.user_purchase_id = up.id "
+      + "JOIN product p ON p.id = pu.product_id "
+      + "WHERE up.purchase_date BETWEEN :from AND :to "
+      + "GROUP BY up.purchase_date, pu.product_id, p.category_id", nativeQuery = true)
+  int rebuildBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+  @Query("select new br.com.yawarasolution.DTO.report.DailySalesResponseDTO(r.rollupDate, sum(r.units), sum(r.revenue), "
+      + "sum(r.orderCount), sum(r.cancellations)) from SalesDailyRollup r "
+      + "where r.rollupDate between :from and :to group by r.rollupDate order by r.rollupDate")
+  List<DailySalesResponseDTO> findDailySales(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+  @Query("select new br.com.yawarasolution.DTO.report.ProductSalesResponseDTO(r.productId, p.name, sum(r.units), "
+      + "sum(r.revenue), sum(r.orderCount)) from SalesDailyRollup r join Product p on p.id = r.productId "
+      + "where r.rollupDate between :from and :to group by r.productId, p.name order by sum(r.revenue) desc")
+  List<ProductSalesResponseDTO> findTopProducts(@Param("from") LocalDate from, @Param("to") LocalDate to,
+      Pageable pageable);
+
+  @Query("select new br.com.yawarasolution.DTO.report.CategorySalesResponseDTO(r.categoryId, c.name, sum(r.units), "
+      + "sum(r.revenue), sum(r.orderCount)) from SalesDailyRollup r join Category c on c.id = r.categoryId "
+      + "where r.rollupDate between :from and :to group by r.categoryId, c.name order by sum(r.revenue) desc")
+  List<CategorySalesResponseDTO> findTopCategories(@Param("from") LocalDate from, @Param("to") LocalDate to,
+      Pageable pageable);
+
+}
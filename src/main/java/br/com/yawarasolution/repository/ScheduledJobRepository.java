@@ -0,0 +1,16 @@
+package br.com.yawarasolution.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import br.com.yawarasolution.model.ScheduledJob;
+
+public interface ScheduledJobRepository extends JpaRepository<ScheduledJob, String> {
+
+  @Modifying
+  @Query("update ScheduledJob j set j.resumeCursor = :cursor where j.name = :name")
+  int saveCursor(@Param("name") String name, @Param("cursor") String cursor);
+
+}
@@ -0,0 +1,27 @@
+package br.com.yawarasolution.repository;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import br.com.yawarasolution.model.SurveyResponseRollup;
+
+public interface SurveyResponseRollupRepository extends JpaRepository<SurveyResponseRollup, UUID> {
+
+  List<SurveyResponseRollup> findByDonationId(UUID donationId);
+
+  /**
+   * Adds to the count of a response and returns the new count.
+   */
+  @Query(value = "INSERT INTO survey_response_rollup (id, donation_id, question, response, response_count) "
+      + "VALUES (gen_random_uuid(), :donationId, :question, :response, :count) "
+      + "ON CONFLICT (donation_id, question, response) DO UPDATE SET "
+      + "response_count = survey_response_rollup.response_count + EXCLUDED.response_count "
+      + "RETURNING response_count", nativeQuery = true)
+  long add(@Param("donationId") UUID donationId, @Param("question") String question,
+      @Param("response") String response, @Param("count") long count);
+
+}
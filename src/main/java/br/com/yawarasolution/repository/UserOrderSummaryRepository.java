@@ -0,0 +1,31 @@
+package br.com.yawarasolution.repository;
+
+import java.util.Collection;
+import java.util.UUID;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import br.com.yawarasolution.enums.PurchaseStatus;
+import br.com.yawarasolution.model.UserOrderSummary;
+
+public interface UserOrderSummaryRepository extends JpaRepository<UserOrderSummary, UUID> {
+
+  Page<UserOrderSummary> findByUserIdOrderByPurchaseDateDescIdDesc(UUID userId, Pageable pageable);
+
+  Page<UserOrderSummary> findByUserIdAndPurchaseStatusOrderByPurchaseDateDescIdDesc(UUID userId,
+      PurchaseStatus purchaseStatus, Pageable pageable);
+
+  @Modifying
+  @Query("update UserOrderSummary s set s.purchaseStatus = :status where s.userPurchaseId = :userPurchaseId")
+  int updateStatus(@Param("userPurchaseId") UUID userPurchaseId, @Param("status") PurchaseStatus status);
+
+  @Modifying
+  @Query("update UserOrderSummary s set s.purchaseStatus = :status where s.userPurchaseId in :userPurchaseIds")
+  int updateStatus(@Param("userPurchaseIds") Collection<UUID> userPurchaseIds, @Param("status") PurchaseStatus status);
+
+}
@@ -1,15 +1,24 @@
 package br.com.yawarasolution.repository;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import br.com.yawarasolution.enums.PurchaseStatus;
 import br.com.yawarasolution.model.User;
 import br.com.yawarasolution.model.UserPurchase;
+import jakarta.persistence.LockModeType;
 
 public interface UserPurchaseRepository extends JpaRepository<UserPurchase, UUID> {
 
@@ -18,5 +27,62 @@ public interface UserPurchaseRepository extends JpaRepository<UserPurchase, UUID
   Page<UserPurchase> findByUser(User user, Pageable pageable);
 
   Page<UserPurchase> findBypurchaseStatusAndUser(PurchaseStatus purchaseStatus, User user, Pageable pageable);
-  
+
+  @Query("select min(up.purchaseDate) from UserPurchase up")
+  LocalDate findFirstPurchaseDate();
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select up from UserPurchase up where up.id = :id")
+  Optional<UserPurchase> findByIdForUpdate(@Param("id") UUID id);
+
+  /**
+   * Locks up to :limit PENDING orders whose reservation has expired, skipping
+   * orders another transaction is working on.
+   */
+  @Query(value = "SELECT id AS \"id\", user_id AS \"userId\" FROM user_purchase "
+      + "WHERE purchase_status = 'PENDING' AND reserved_until < :now "
+      + "ORDER BY reserved_until LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+  List<ExpiredReservation> lockExpiredReservations(@Param("now") Instant now, @Param("limit") int limit);
+
+  /**
+   * Locks the given orders in id order and returns their owner and status.
+   */
+  @Query(value = "SELECT id AS \"id\", user_id AS \"userId\", purchase_status AS \"purchaseStatus\" "
+      + "FROM user_purchase WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+  List<LockedOrder> lockOrders(@Param("ids") Collection<UUID> ids);
+
+  /**
+   * Sets the status of the given orders, keeping their reservation; only for
+   * PENDING.
+   */
+  @Modifying
+  @Query("update UserPurchase up set up.purchaseStatus = :status where up.id in :ids")
+  int updateStatus(@Param("ids") Collection<UUID> ids, @Param("status") PurchaseStatus status);
+
+  /**
+   * Sets the status of the given orders and drops their reservation, which
+   * only PENDING orders have.
+   */
+  @Modifying
+  @Query("update UserPurchase up set up.purchaseStatus = :status, up.reservedUntil = null where up.id in :ids")
+  int updateStatusAndClearReservation(@Param("ids") Collection<UUID> ids, @Param("status") PurchaseStatus status);
+
+  interface LockedOrder {
+
+    UUID getId();
+
+    UUID getUserId();
+
+    String getPurchaseStatus();
+
+  }
+
+  interface ExpiredReservation {
+
+    UUID getId();
+
+    UUID getUserId();
+
+  }
+
 }
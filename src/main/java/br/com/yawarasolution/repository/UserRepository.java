@@ -1,9 +1,13 @@
 package br.com.yawarasolution.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import br.com.yawarasolution.model.User;
 
@@ -18,4 +22,7 @@ public interface UserRepository extends JpaRepository<User, UUID> {
   Boolean existsByUsername(String username);
 
   Boolean existsByEmailIgnoreCase(String email);
+
+  @Query("select u.email from User u where u.id in :ids")
+  List<String> findEmailsByIdIn(@Param("ids") Collection<UUID> ids);
 }
@@ -9,6 +9,7 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -23,8 +24,9 @@ import br.com.yawarasolution.DTO.auth.SignupRegisterResponse;
 import br.com.yawarasolution.DTO.auth.SignupRequest;
 import br.com.yawarasolution.DTO.auth.SignupResponse;
 import br.com.yawarasolution.DTO.auth.TokenRefreshResponse;
-import br.com.yawarasolution.config.MailConfig;
 import br.com.yawarasolution.enums.ERole;
+import br.com.yawarasolution.event.MailRequestedEvent;
+import br.com.yawarasolution.event.PrincipalChangedEvent;
 import br.com.yawarasolution.exception.AccountException;
 import br.com.yawarasolution.exception.TokenRefreshException;
 import br.com.yawarasolution.exception.UserException;
@@ -59,7 +61,7 @@ public class AuthService {
   private RefreshTokenService refreshTokenService;
 
   @Autowired
-  private MailConfig mailConfig;
+  private ApplicationEventPublisher eventPublisher;
 
   @Autowired
   private EmailChangeRequestRepository emailChangeRequestRepository;
@@ -160,8 +162,8 @@ public class AuthService {
         "or by entering the activation code: " + activationCode + "\n" +
         "Thank you for registering!";
 
-    // Use JavaMailSender to send the email
-    mailConfig.sendEmail(user.getEmail(), "Confirm your account", message);
+    // Sent after commit; a failing SMTP server does not stop the registration.
+    eventPublisher.publishEvent(new MailRequestedEvent(user.getEmail(), "Confirm your account", message));
 
     return new SignupRegisterResponse(user, rolesList);
   }
@@ -202,6 +204,7 @@ public class AuthService {
     currentRoles.addAll(roles);
     user.get().setRoles(currentRoles);
     userRepository.save(user.get());
+    eventPublisher.publishEvent(new PrincipalChangedEvent(idUsuario));
 
     List<ERole> rolesList = currentRoles.stream().map(Role::getName).collect(Collectors.toList());
 
@@ -0,0 +1,384 @@
+package br.com.yawarasolution.service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import br.com.yawarasolution.DTO.diagnostics.CacheInvalidationStatusResponseDTO;
+import br.com.yawarasolution.enums.PurchaseStatus;
+import br.com.yawarasolution.event.CatalogChangedEvent;
+import br.com.yawarasolution.event.OrderStatusChangedEvent;
+import br.com.yawarasolution.event.PrincipalChangedEvent;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Keeps the in-memory caches of every instance in step, through Postgres
+ * LISTEN/NOTIFY instead of a message broker.
+ *
+ * Each catalog and role change made here is sent on the channel with
+ * pg_notify from the writing transaction, so Postgres delivers it when, and
+ * only if, that transaction commits. Every instance listens on its own
+ * connection, outside the pool, and publishes the changes of the other
+ * instances as remote CatalogChangedEvent and PrincipalChangedEvent, which the
+ * caches evict on like local ones. Listening starts with the application
+ * context, before the warm-up; notifications sent while the listening
+ * connection was not up are lost, so after every successful LISTEN, the first
+ * one included, everything is evicted once. NOTIFY serialises the commits
+ * that send one, so stock changes, made by every order, are not sent: the
+ * snapshot bounds their staleness by age.
+ *
+ * Order status changes travel on the same channel and are published on the
+ * other instances as remote OrderStatusChangedEvent, so a status stream gets
+ * them whichever instance made the change. A transaction sends all of its
+ * status changes in one notification, split only past the payload limit, so
+ * a bulk update or a reservation sweep adds one NOTIFY to its commit, not one
+ * per order. Nothing is cached from them, so none are replayed after a
+ * reconnect; clients resync when their stream reconnects.
+ */
+@Service
+@ConditionalOnProperty(name = "yamarasolution.cache.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+public class CacheInvalidationService implements SmartLifecycle {
+
+  private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationService.class);
+
+  private static final String PRINCIPAL = "PRINCIPAL";
+
+  private static final String ORDER_STATUS = "ORDER_STATUS";
+
+  private static final String ALL = "*";
+
+  // A pair takes 74 characters; NOTIFY payloads must stay under 8000 bytes.
+  private static final int MAX_ORDERS_PER_NOTIFY = 100;
+
+  private final Object orderStatusKey = new Object();
+
+  private final String nodeId = UUID.randomUUID().toString();
+
+  private final LongAdder sent = new LongAdder();
+
+  private final LongAdder received = new LongAdder();
+
+  private final LongAdder reconnects = new LongAdder();
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
+  @Autowired
+  private DataSourceProperties dataSourceProperties;
+
+  @Value("${yamarasolution.cache.invalidation.channel:yawara_cache_invalidation}")
+  private String channel;
+
+  @Value("${yamarasolution.cache.invalidation.poll-ms:5000}")
+  private int pollMs;
+
+  @Value("${yamarasolution.cache.invalidation.max-backoff-ms:30000}")
+  private long maxBackoffMs;
+
+  private volatile boolean running;
+
+  private volatile boolean connected;
+
+  private Thread listener;
+
+  /**
+   * Before a catalog write commits, send it to the other instances.
+   *
+   * @param event The catalog change.
+   */
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+  public void onCatalogChanged(CatalogChangedEvent event) {
+    if (!event.isRemote() && event.getType() != CatalogChangedEvent.Type.STOCK) {
+      notify(event.getType().name(), event.getId());
+    }
+  }
+
+  /**
+   * Before a role change commits, send it to the other instances.
+   *
+   * @param event The role change.
+   */
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+  public void onPrincipalChanged(PrincipalChangedEvent event) {
+    if (!event.isRemote()) {
+      notify(PRINCIPAL, event.getUserId());
+    }
+  }
+
+  /**
+   * It collects the order status changes of the current transaction, which
+   * are sent to the other instances together just before it commits.
+   *
+   * @param event The status change.
+   */
+  @EventListener
+  public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+    if (event.isRemote()) {
+      return;
+    }
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      notifyOrderStatuses(List.of(event));
+      return;
+    }
+    @SuppressWarnings("unchecked")
+    List<OrderStatusChangedEvent> changes = (List<OrderStatusChangedEvent>) TransactionSynchronizationManager
+        .getResource(orderStatusKey);
+    if (changes == null) {
+      List<OrderStatusChangedEvent> collected = new ArrayList<>();
+      TransactionSynchronizationManager.bindResource(orderStatusKey, collected);
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void beforeCommit(boolean readOnly) {
+          notifyOrderStatuses(collected);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+          TransactionSynchronizationManager.unbindResourceIfPossible(orderStatusKey);
+        }
+      });
+      changes = collected;
+    }
+    changes.add(event);
+  }
+
+  /**
+   * When the context starts, before the application runners, start listening
+   * for the changes of the other instances.
+   */
+  @Override
+  public void start() {
+    running = true;
+    listener = new Thread(this::listen, "cache-invalidation");
+    listener.setDaemon(true);
+    listener.start();
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    if (listener != null) {
+      listener.interrupt();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  /**
+   * It returns whether this instance is listening and how many changes it
+   * sent and received since startup
+   *
+   * @return A CacheInvalidationStatusResponseDTO object.
+   */
+  public CacheInvalidationStatusResponseDTO getStatus() {
+    return new CacheInvalidationStatusResponseDTO(nodeId, channel, connected, sent.sum(), received.sum(),
+        reconnects.sum());
+  }
+
+  /**
+   * It sends a change on the channel, as "node type id", from the current
+   * transaction if there is one
+   *
+   * @param type The type of the change.
+   * @param id   The id of what changed, or null for everything of the type.
+   */
+  private void notify(String type, UUID id) {
+    send(nodeId + " " + type + " " + (id != null ? id : ALL));
+  }
+
+  /**
+   * It sends order status changes with one notification per status and time,
+   * as "node ORDER_STATUS status changedAt order:user...", split only when a
+   * payload would exceed what NOTIFY accepts
+   *
+   * @param changes The status changes.
+   */
+  private void notifyOrderStatuses(List<OrderStatusChangedEvent> changes) {
+    Map<String, List<OrderStatusChangedEvent>> byStatus = changes.stream().collect(Collectors.groupingBy(
+        c -> c.getStatus() + " " + c.getChangedAt().toEpochMilli(), LinkedHashMap::new, Collectors.toList()));
+    byStatus.forEach((statusAndTime, group) -> {
+      for (int from = 0; from < group.size(); from += MAX_ORDERS_PER_NOTIFY) {
+        StringBuilder payload = new StringBuilder(nodeId).append(' ').append(ORDER_STATUS).append(' ')
+            .append(statusAndTime);
+        for (OrderStatusChangedEvent change : group.subList(from, Math.min(group.size(),
+            from + MAX_ORDERS_PER_NOTIFY))) {
+          payload.append(' ').append(change.getOrderId()).append(':').append(change.getUserId());
+        }
+        send(payload.toString());
+      }
+    });
+  }
+
+  private void send(String payload) {
+    entityManager.createNativeQuery("SELECT CAST(pg_notify(:channel, :payload) AS text)")
+        .setParameter("channel", channel)
+        .setParameter("payload", payload)
+        .getSingleResult();
+    sent.increment();
+  }
+
+  private void listen() {
+    long backoffMs = 0;
+    boolean listenedBefore = false;
+    while (running) {
+      try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+          dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("LISTEN \"" + channel + "\"");
+        }
+        connected = true;
+        backoffMs = 0;
+        // LISTEN is already in place, so nothing committed from here on is
+        // missed; what was committed before, while disconnected or during
+        // startup, is evicted now.
+        if (listenedBefore) {
+          reconnects.increment();
+          logger.info("Cache invalidation listener reconnected, evicting all cached entries");
+        }
+        evictAll();
+        listenedBefore = true;
+        receive(connection);
+      } catch (SQLException e) {
+        connected = false;
+        if (!running) {
+          return;
+        }
+        backoffMs = backoffMs == 0 ? 1000 : Math.min(backoffMs * 2, maxBackoffMs);
+        logger.warn("Cache invalidation listener disconnected, retrying in {}ms: {}", backoffMs, e.getMessage());
+        try {
+          Thread.sleep(backoffMs);
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+    connected = false;
+  }
+
+  /**
+   * It waits for notifications on the connection until it fails or the
+   * application stops. An idle connection is checked on every poll, so one
+   * dropped without a reset is noticed too.
+   *
+   * @param connection The connection listening on the channel.
+   * @throws SQLException If the connection failed.
+   */
+  private void receive(Connection connection) throws SQLException {
+    PGConnection pgConnection = connection.unwrap(PGConnection.class);
+    while (running) {
+      PGNotification[] notifications = pgConnection.getNotifications(pollMs);
+      if (notifications == null || notifications.length == 0) {
+        if (!connection.isValid(Math.max(1, pollMs / 1000))) {
+          throw new SQLException("Listening connection is no longer valid");
+        }
+        continue;
+      }
+      for (PGNotification notification : notifications) {
+        apply(notification.getParameter());
+      }
+    }
+  }
+
+  /**
+   * It publishes a change received from another instance as a local event
+   *
+   * @param payload The notification, as "node type id [details]".
+   */
+  private void apply(String payload) {
+    String[] parts = payload.split(" ");
+    if (ORDER_STATUS.equals(parts.length > 1 ? parts[1] : null)) {
+      applyOrderStatus(payload, parts);
+      return;
+    }
+    if (parts.length != 3) {
+      logger.warn("Ignoring cache invalidation {}", payload);
+      return;
+    }
+    if (nodeId.equals(parts[0])) {
+      return;
+    }
+    try {
+      UUID id = ALL.equals(parts[2]) ? null : UUID.fromString(parts[2]);
+      if (PRINCIPAL.equals(parts[1])) {
+        eventPublisher.publishEvent(new PrincipalChangedEvent(id, true));
+      } else {
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.valueOf(parts[1]), id, true));
+      }
+      received.increment();
+    } catch (RuntimeException e) {
+      // A change the listener cannot apply may leave a stale entry behind.
+      logger.warn("Could not apply cache invalidation {}, evicting all cached entries: {}", payload, e.getMessage());
+      evictAll();
+    }
+  }
+
+  /**
+   * It publishes the order status changes received from another instance
+   *
+   * @param payload The notification.
+   * @param parts   The notification, as "node ORDER_STATUS status changedAt
+   *                order:user...".
+   */
+  private void applyOrderStatus(String payload, String[] parts) {
+    if (parts.length < 5) {
+      logger.warn("Ignoring order status change {}", payload);
+      return;
+    }
+    if (nodeId.equals(parts[0])) {
+      return;
+    }
+    try {
+      PurchaseStatus status = PurchaseStatus.valueOf(parts[2]);
+      Instant changedAt = Instant.ofEpochMilli(Long.parseLong(parts[3]));
+      for (int i = 4; i < parts.length; i++) {
+        int colon = parts[i].indexOf(':');
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(UUID.fromString(parts[i].substring(colon + 1)),
+            UUID.fromString(parts[i].substring(0, colon)), status, changedAt, true));
+      }
+      received.increment();
+    } catch (RuntimeException e) {
+      // Nothing is cached from it; the client resyncs when its stream reconnects.
+      logger.warn("Could not apply order status change {}: {}", payload, e.getMessage());
+    }
+  }
+
+  private void evictAll() {
+    eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.PRODUCT, null, true));
+    eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.CATEGORY, null, true));
+    eventPublisher.publishEvent(new PrincipalChangedEvent(null, true));
+  }
+
+}
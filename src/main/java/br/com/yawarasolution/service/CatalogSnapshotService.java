@@ -0,0 +1,302 @@
+package br.com.yawarasolution.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.yawarasolution.DTO.product.ProductResponseDTO;
+import br.com.yawarasolution.event.CatalogChangedEvent;
+import br.com.yawarasolution.repository.ProductRepository;
+import br.com.yawarasolution.utils.CatalogSnapshotFile;
+import br.com.yawarasolution.utils.PrecompressedJson;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Keeps the anonymous catalog responses (product list, category list and the
+ * first pages of active products) rendered as compressed JSON, so those
+ * endpoints only copy bytes. The snapshot is dropped after every committed
+ * catalog write and rendered again on the next read. Stock changed by orders
+ * does not drop it, that would render it again on almost every request;
+ * instead a snapshot older than max-age is rendered again by the next reader
+ * while the others keep serving the previous one, so the stock it shows lags
+ * by at most max-age.
+ *
+ * On shutdown the snapshot is written to a file and read back at startup if
+ * no catalog write happened in between, which is checked against the
+ * catalog_version_seq sequence bumped after every committed write.
+ */
+@Service
+public class CatalogSnapshotService {
+
+  private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+  public static final int PAGE_SIZE = 10;
+
+  private static final String PRODUCTS = "products";
+
+  private static final String CATEGORIES = "categories";
+
+  private static final String ACTIVE_PAGE = "products:active:";
+
+  @Autowired
+  private ProductService productService;
+
+  @Autowired
+  private CategoryService categoryService;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Value("${yamarasolution.catalog.snapshot.pages:5}")
+  private int snapshotPages;
+
+  @Value("${yamarasolution.catalog.snapshot.file:}")
+  private String snapshotFile;
+
+  @Value("${yamarasolution.catalog.snapshot.max-age-ms:30000}")
+  private long maxAgeMs;
+
+  private final AtomicLong generation = new AtomicLong();
+
+  private final AtomicBoolean refreshing = new AtomicBoolean();
+
+  private volatile long snapshotNanos;
+
+  private volatile CatalogSnapshotFile snapshot;
+
+  /**
+   * It returns the rendered list of all products
+   *
+   * @return A PrecompressedJson object.
+   */
+  public PrecompressedJson getProducts() {
+    return current().get(PRODUCTS);
+  }
+
+  /**
+   * It returns the rendered list of all categories
+   *
+   * @return A PrecompressedJson object.
+   */
+  public PrecompressedJson getCategories() {
+    return current().get(CATEGORIES);
+  }
+
+  /**
+   * It returns a rendered page of active products with the default page size,
+   * or null if that page is not part of the snapshot
+   *
+   * @param page The page number.
+   * @return A PrecompressedJson object, or null.
+   */
+  public PrecompressedJson getActiveProductsPage(int page) {
+    if (page < 0 || page >= snapshotPages) {
+      return null;
+    }
+    return current().get(ACTIVE_PAGE + page);
+  }
+
+  /**
+   * When the application is ready, load the snapshot left by the previous run
+   * if it is still current, otherwise render it so the first visitors do not
+   * pay for it.
+   *
+   * @param event The event that triggered the listener.
+   */
+  @EventListener
+  public void init(ApplicationReadyEvent event) {
+    try {
+      load();
+      current();
+    } catch (RuntimeException e) {
+      logger.warn("Could not prepare catalog snapshot at startup: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * On graceful shutdown, write the current snapshot to the snapshot file.
+   */
+  @PreDestroy
+  public void persist() {
+    CatalogSnapshotFile current = snapshot;
+    if (current == null || !StringUtils.hasText(snapshotFile)) {
+      return;
+    }
+    try {
+      current.write(Paths.get(snapshotFile));
+      logger.info("Catalog snapshot version {} written to {}", current.getCatalogVersion(), snapshotFile);
+    } catch (IOException e) {
+      logger.warn("Could not write catalog snapshot to {}: {}", snapshotFile, e.getMessage());
+    }
+  }
+
+  /**
+   * It drops the snapshot once a catalog write has been committed and, for a
+   * write made on this node, bumps the catalog version, so snapshots written
+   * by any node become stale
+   *
+   * @param event The catalog change.
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCatalogChanged(CatalogChangedEvent event) {
+    if (event.getType() == CatalogChangedEvent.Type.STOCK) {
+      return;
+    }
+    invalidate();
+    if (!event.isRemote()) {
+      productRepository.nextCatalogVersion();
+    }
+  }
+
+  /**
+   * It drops the current snapshot; the next read renders a new one.
+   */
+  public void invalidate() {
+    generation.incrementAndGet();
+    snapshot = null;
+  }
+
+  /**
+   * It returns the current snapshot, rendering it if needed. A snapshot whose
+   * rendering overlapped an invalidation is served once but not kept. Only
+   * one reader renders an expired snapshot again, the others serve it until
+   * the new one is in place.
+   *
+   * @return The rendered documents by key.
+   */
+  private Map<String, PrecompressedJson> current() {
+    CatalogSnapshotFile current = snapshot;
+    if (current != null && (!isExpired() || !refreshing.compareAndSet(false, true))) {
+      return current.getDocuments();
+    }
+    try {
+      synchronized (this) {
+        CatalogSnapshotFile latest = snapshot;
+        if (latest != null && !isExpired()) {
+          return latest.getDocuments();
+        }
+        long observed = generation.get();
+        long started = System.nanoTime();
+        latest = render();
+        if (generation.get() == observed) {
+          snapshot = latest;
+          snapshotNanos = started;
+        }
+        return latest.getDocuments();
+      }
+    } catch (RuntimeException e) {
+      if (current == null) {
+        throw e;
+      }
+      logger.warn("Could not render catalog snapshot again, serving the previous one: {}", e.getMessage());
+      return current.getDocuments();
+    } finally {
+      if (current != null) {
+        refreshing.set(false);
+      }
+    }
+  }
+
+  private boolean isExpired() {
+    return System.nanoTime() - snapshotNanos > TimeUnit.MILLISECONDS.toNanos(maxAgeMs);
+  }
+
+  /**
+   * It reads the snapshot file and installs it if it was written at the
+   * current catalog version
+   */
+  private synchronized void load() {
+    if (snapshot != null || !StringUtils.hasText(snapshotFile)) {
+      return;
+    }
+    Path file = Paths.get(snapshotFile);
+    try {
+      long observed = generation.get();
+      CatalogSnapshotFile stored = CatalogSnapshotFile.read(file);
+      if (stored == null) {
+        return;
+      }
+      long version = productRepository.currentCatalogVersion();
+      if (stored.getCatalogVersion() != version) {
+        logger.info("Discarding catalog snapshot version {}, catalog is at version {}", stored.getCatalogVersion(),
+            version);
+        return;
+      }
+      if (generation.get() == observed) {
+        // Stock may have changed since the file was written, so it only
+        // serves until it expires.
+        snapshot = stored;
+        snapshotNanos = System.nanoTime();
+        logger.info("Catalog snapshot version {} loaded from {}", version, file);
+      }
+    } catch (IOException e) {
+      logger.warn("Could not read catalog snapshot from {}: {}", file, e.getMessage());
+    }
+  }
+
+  /**
+   * It renders every snapshot document inside one transaction on the primary.
+   * The transaction is not marked read-only: that would route it to a
+   * replica, which may not have the write that dropped the snapshot yet, and
+   * the stale render would then be served until it expires.
+   *
+   * @return The rendered snapshot.
+   */
+  private CatalogSnapshotFile render() {
+    TransactionTemplate template = new TransactionTemplate(transactionManager);
+    return template.execute(status -> {
+      // Read the version before the data: a write committed after this point
+      // bumps the version again and makes this snapshot stale.
+      long version = productRepository.currentCatalogVersion();
+      Map<String, PrecompressedJson> documents = new HashMap<>();
+      documents.put(PRODUCTS, toJson(productService.findAllProducts()));
+      documents.put(CATEGORIES, toJson(categoryService.findAllCategories()));
+      for (int i = 0; i < snapshotPages; i++) {
+        Page<ProductResponseDTO> page = productService.findAllProductsPageable(true, PageRequest.of(i, PAGE_SIZE));
+        documents.put(ACTIVE_PAGE + i, toJson(page));
+        if (!page.hasNext()) {
+          break;
+        }
+      }
+      return new CatalogSnapshotFile(version, Collections.unmodifiableMap(documents));
+    });
+  }
+
+  private PrecompressedJson toJson(Object value) {
+    try {
+      return PrecompressedJson.of(objectMapper.writeValueAsBytes(value));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+}
@@ -5,13 +5,17 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import br.com.yawarasolution.DTO.category.CategoryRequestDTO;
 import br.com.yawarasolution.DTO.category.CategoryResponseDTO;
+import br.com.yawarasolution.datasource.ReadOnlyTransactional;
+import br.com.yawarasolution.event.CatalogChangedEvent;
 import br.com.yawarasolution.exception.CategoryException;
 import br.com.yawarasolution.model.Category;
 import br.com.yawarasolution.repository.CategoryRepository;
+import br.com.yawarasolution.repository.ProductRepository;
 import jakarta.transaction.Transactional;
 
 @Service
@@ -20,12 +24,19 @@ public class CategoryService {
   @Autowired
   private CategoryRepository categoryRepository;
 
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
   /**
    * Find all categories, convert them to CategoryResponseDTOs, and return them as
    * a list.
    * 
    * @return A list of CategoryResponseDTO objects.
    */
+  @ReadOnlyTransactional
   public List<CategoryResponseDTO> findAllCategories() {
     return categoryRepository.findAll().stream()
         .map(CategoryResponseDTO::new).collect(Collectors.toList());
@@ -39,6 +50,7 @@ public class CategoryService {
    * @param id The id of the category you want to find
    * @return A CategoryResponseDTO object
    */
+  @ReadOnlyTransactional
   public CategoryResponseDTO findCategoryById(UUID id) {
     return categoryRepository.findById(id)
         .map(CategoryResponseDTO::new)
@@ -53,6 +65,7 @@ public class CategoryService {
    * @param name The name of the category to search for.
    * @return A list of CategoryResponseDTO objects.
    */
+  @ReadOnlyTransactional
   public List<CategoryResponseDTO> findCategoryByName(String name) {
     List<Category> categories = categoryRepository.findByNameEqualsIgnoreCase(name);
     if (categories.isEmpty()) {
@@ -83,6 +96,7 @@ public class CategoryService {
     category.setName(name);
     category.setDescription(categoryRequest.getDescription());
     category = categoryRepository.save(category);
+    eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.CATEGORY, category.getId()));
 
     return new CategoryResponseDTO(category);
 
@@ -109,6 +123,7 @@ public class CategoryService {
     category.setName(name);
     category.setDescription(categoryRequest.getDescription());
     category = categoryRepository.save(category);
+    eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.CATEGORY, category.getId()));
 
     return new CategoryResponseDTO(category);
 
@@ -121,24 +136,27 @@ public class CategoryService {
    */
   @Transactional
   public void deleteCategory(UUID id) {
-    Category category = categoryRepository.findById(id)
-        .orElseThrow(() -> new CategoryException("Could not find category id= " + id));
+    if (!categoryRepository.existsById(id)) {
+      throw new CategoryException("Could not find category id= " + id);
+    }
 
-    if (hasProducts(category)) {
+    if (hasProducts(id)) {
       throw new CategoryException("Category has products, cannot be deleted");
     }
 
     categoryRepository.deleteById(id);
+    eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.CATEGORY, id));
   }
 
   /**
-   * If the category has products, return true, otherwise return false.
+   * If any product references the category, return true, otherwise return
+   * false. The products themselves are not loaded.
    * 
-   * @param category The category to check
+   * @param categoryId The id of the category to check
    * @return A boolean value.
    */
-  private boolean hasProducts(Category category) {
-    return category.getProducts().size() > 0;
+  private boolean hasProducts(UUID categoryId) {
+    return productRepository.existsByCategory_Id(categoryId);
   }
 
 }
@@ -0,0 +1,379 @@
+package br.com.yawarasolution.service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.yawarasolution.DTO.donation.ContributionRequestDTO;
+import br.com.yawarasolution.DTO.donation.DonationProgressResponseDTO;
+import br.com.yawarasolution.DTO.donation.DonationRequestDTO;
+import br.com.yawarasolution.DTO.donation.DonationResponseDTO;
+import br.com.yawarasolution.exception.DonationException;
+import br.com.yawarasolution.model.Donation;
+import br.com.yawarasolution.model.DonationContribution;
+import br.com.yawarasolution.repository.DonationContributionRepository;
+import br.com.yawarasolution.repository.DonationDonorTotalRepository;
+import br.com.yawarasolution.repository.DonationRepository;
+import br.com.yawarasolution.repository.DonatorRepository;
+import br.com.yawarasolution.repository.DonatorRepository.DonatorKey;
+import br.com.yawarasolution.utils.BatchRetryQueue;
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Transactional;
+
+/**
+ * Donation campaigns and their contributions.
+ *
+ * Contributions are accepted into a bounded in-memory buffer and written in
+ * batches by a scheduled flush, which also adds each campaign's total to
+ * donation.amount_received with one update per campaign. Progress is served
+ * from memory: the amount persisted, as last read from the database, plus a
+ * LongAdder of the contributions still buffered here. The persisted amount
+ * and status are read again once older than progress-refresh-ms, so the
+ * flushes of the other instances show up too; the persisted amount only ever
+ * takes the larger of its value and the one read, so a flush is never
+ * counted twice. Buffered contributions are lost if the process dies before
+ * the next flush.
+ *
+ * A batch that fails is retried, split in halves when the failure came from
+ * its content, and a contribution that still fails on its own is logged to
+ * the "dead-letter" logger and dropped after the maximum attempts, see
+ * BatchRetryQueue.
+ */
+@Service
+public class DonationService {
+
+  private static final Logger logger = LoggerFactory.getLogger(DonationService.class);
+
+  private static final Logger deadLetterLog = LoggerFactory.getLogger("dead-letter");
+
+  public static final String STATUS_OPEN = "OPEN";
+
+  @Autowired
+  private DonationRepository donationRepository;
+
+  @Autowired
+  private DonatorRepository donatorRepository;
+
+  @Autowired
+  private DonationContributionRepository donationContributionRepository;
+
+  @Autowired
+  private DonationDonorTotalRepository donationDonorTotalRepository;
+
+  @Autowired
+  private DonorLeaderboardService donorLeaderboardService;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Value("${yamarasolution.donations.batch-size:500}")
+  private int batchSize;
+
+  @Value("${yamarasolution.donations.progress-refresh-ms:5000}")
+  private long progressRefreshMs;
+
+  private final BlockingQueue<PendingContribution> buffer;
+
+  private final Map<UUID, CampaignProgress> campaigns = new ConcurrentHashMap<>();
+
+  private final BatchRetryQueue<PendingContribution> retry;
+
+  public DonationService(@Value("${yamarasolution.donations.buffer-capacity:100000}") int bufferCapacity,
+      @Value("${yamarasolution.donations.max-attempts:5}") int maxAttempts) {
+    this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+    this.retry = new BatchRetryQueue<>(maxAttempts);
+  }
+
+  /**
+   * It returns all the donation campaigns
+   *
+   * @return A list of DonationResponseDTO objects.
+   */
+  public List<DonationResponseDTO> findAllDonations() {
+    return donationRepository.findAll().stream()
+        .map(DonationResponseDTO::new).collect(Collectors.toList());
+  }
+
+  /**
+   * It creates a new open donation campaign with nothing received yet
+   *
+   * @param donationRequest The goal of the campaign.
+   * @return A DonationResponseDTO object.
+   */
+  @Transactional
+  public DonationResponseDTO createDonation(DonationRequestDTO donationRequest) {
+    Donation donation = new Donation();
+    donation.setStatus(STATUS_OPEN);
+    donation.setGoal(donationRequest.getGoal().setScale(2));
+    donation.setAmountReceived(BigDecimal.ZERO.setScale(2));
+    donation.setDonationDate(LocalDateTime.now());
+    donation = donationRepository.save(donation);
+    return new DonationResponseDTO(donation);
+  }
+
+  /**
+   * It returns the live progress of a campaign, including contributions not
+   * yet written to the database
+   *
+   * @param id The id of the campaign.
+   * @return A DonationProgressResponseDTO object.
+   */
+  public DonationProgressResponseDTO findDonationProgress(UUID id) {
+    CampaignProgress progress = campaign(id);
+    return new DonationProgressResponseDTO(id, progress.status, progress.goalCents, progress.amountCents());
+  }
+
+  /**
+   * It accepts a contribution into the buffer and counts it in the campaign
+   * progress. The contribution is written by the next flush.
+   *
+   * @param id                  The id of the campaign.
+   * @param contributionRequest The donor and the amount.
+   */
+  public void contribute(UUID id, ContributionRequestDTO contributionRequest) {
+    CampaignProgress progress = campaign(id);
+    if (!STATUS_OPEN.equals(progress.status)) {
+      throw new DonationException("Donation campaign is not open, id= " + id);
+    }
+    long cents = toCents(contributionRequest.getAmount());
+    PendingContribution contribution = new PendingContribution(id, contributionRequest.getName().trim(),
+        contributionRequest.getEmail().trim().toLowerCase(), cents, Instant.now());
+    if (!buffer.offer(contribution)) {
+      throw new DonationException("Too many contributions, please try again later");
+    }
+    progress.pendingCents.add(cents);
+  }
+
+  /**
+   * Periodically write the buffered contributions in batches.
+   */
+  @Scheduled(fixedDelayString = "${yamarasolution.donations.flush-interval-ms:1000}")
+  public void scheduledFlush() {
+    flush();
+  }
+
+  /**
+   * On shutdown, write what is still buffered.
+   */
+  @PreDestroy
+  public void shutdownFlush() {
+    flush();
+  }
+
+  /**
+   * It drains the buffer batch by batch, failed batches first. A batch that
+   * failed because of the database stops the flush until the next one; one
+   * that failed because of its content is retried at once in halves.
+   */
+  public synchronized void flush() {
+    while (true) {
+      List<PendingContribution> batch = retry.poll();
+      if (batch == null) {
+        batch = new ArrayList<>();
+        buffer.drainTo(batch, batchSize);
+      }
+      if (batch.isEmpty()) {
+        return;
+      }
+      try {
+        writeBatch(batch);
+        retry.succeeded(batch);
+      } catch (RuntimeException e) {
+        retry.failed(batch, e).forEach(this::deadLetter);
+        if (BatchRetryQueue.isTransient(e) || batch.size() == 1) {
+          logger.error("Could not write {} donation contributions, retrying on next flush", batch.size(), e);
+          return;
+        }
+        logger.warn("Could not write {} donation contributions, retrying them in halves: {}", batch.size(),
+            e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * It writes one batch in a single transaction: one upsert per donor, adding
+   * to its total in SQL so that concurrent flushes, on this instance or
+   * another, never overwrite each other, the contributions, one total update
+   * per donor and campaign and one amount update per campaign. Donors are
+   * written in e-mail order, so two batches cannot deadlock on them.
+   *
+   * @param batch The contributions to write.
+   */
+  private void writeBatch(List<PendingContribution> batch) {
+    Map<UUID, Long> campaignTotals = new HashMap<>();
+    Map<UUID, Long> campaignAmounts = new HashMap<>();
+    List<DonorTotal> donorTotals = new ArrayList<>();
+    new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+      Map<String, List<PendingContribution>> byDonor = batch.stream()
+          .collect(Collectors.groupingBy(c -> c.email, TreeMap::new, Collectors.toList()));
+      Map<String, DonatorKey> donators = new HashMap<>();
+      byDonor.forEach((email, pendings) -> {
+        PendingContribution last = pendings.get(pendings.size() - 1);
+        long cents = pendings.stream().mapToLong(c -> c.amountCents).sum();
+        donators.put(email, donatorRepository.add(last.name, email, BigDecimal.valueOf(cents, 2),
+            LocalDateTime.ofInstant(last.createdAt, ZoneId.systemDefault())));
+      });
+
+      List<DonationContribution> contributions = new ArrayList<>(batch.size());
+      for (PendingContribution pending : batch) {
+        DonationContribution contribution = new DonationContribution();
+        contribution.setDonationId(pending.donationId);
+        contribution.setDonatorId(donators.get(pending.email).getId());
+        contribution.setAmount(BigDecimal.valueOf(pending.amountCents, 2));
+        contribution.setContributionDate(pending.createdAt);
+        contributions.add(contribution);
+
+        campaignTotals.merge(pending.donationId, pending.amountCents, Long::sum);
+      }
+      donationContributionRepository.saveAll(contributions);
+
+      Map<UUID, Map<String, Long>> donorAmounts = new HashMap<>();
+      for (PendingContribution pending : batch) {
+        donorAmounts.computeIfAbsent(pending.donationId, id -> new HashMap<>())
+            .merge(pending.email, pending.amountCents, Long::sum);
+      }
+      donorAmounts.forEach((donationId, amounts) -> amounts.forEach((email, cents) -> {
+        DonatorKey donator = donators.get(email);
+        BigDecimal total = donationDonorTotalRepository.add(donationId, donator.getId(), BigDecimal.valueOf(cents, 2));
+        donorTotals.add(new DonorTotal(donationId, donator.getId(), donator.getName(), toCents(total)));
+      }));
+      campaignTotals.forEach((id, cents) -> campaignAmounts.put(id,
+          toCents(donationRepository.addAmountReceived(id, BigDecimal.valueOf(cents, 2)))));
+    });
+
+    // Only now move the amounts from pending to persisted.
+    campaignTotals.forEach((id, cents) -> {
+      CampaignProgress progress = campaigns.get(id);
+      if (progress != null) {
+        progress.persistedCents.accumulateAndGet(campaignAmounts.get(id), Math::max);
+        progress.pendingCents.add(-cents);
+      }
+    });
+    for (DonorTotal donorTotal : donorTotals) {
+      donorLeaderboardService.update(donorTotal.donationId, donorTotal.donatorId, donorTotal.name,
+          donorTotal.totalCents);
+    }
+  }
+
+  /**
+   * It gives up a contribution that cannot be written: it is logged in full
+   * and no longer counted
+   *
+   * @param contribution The contribution.
+   */
+  private void deadLetter(PendingContribution contribution) {
+    CampaignProgress progress = campaigns.get(contribution.donationId);
+    if (progress != null) {
+      progress.pendingCents.add(-contribution.amountCents);
+    }
+    deadLetterLog.error("Donation contribution dropped: donation={} email={} name={} amountCents={} createdAt={}",
+        contribution.donationId, contribution.email, contribution.name, contribution.amountCents,
+        contribution.createdAt);
+  }
+
+  /**
+   * It returns the in-memory progress of a campaign, loading it on first use
+   * and reading its status and amount again once they are older than the
+   * refresh interval
+   *
+   * @param id The id of the campaign.
+   * @return The campaign progress.
+   */
+  private CampaignProgress campaign(UUID id) {
+    CampaignProgress progress = campaigns.get(id);
+    if (progress != null) {
+      long now = System.currentTimeMillis();
+      if (now - progress.loadedAt > progressRefreshMs) {
+        progress.loadedAt = now;
+        donationRepository.findById(id).ifPresent(progress::refresh);
+      }
+      return progress;
+    }
+    Donation donation = donationRepository.findById(id)
+        .orElseThrow(() -> new DonationException("Could not find donation, id= " + id));
+    return campaigns.computeIfAbsent(id, key -> new CampaignProgress(donation));
+  }
+
+  private static long toCents(BigDecimal amount) {
+    return amount.setScale(2).movePointRight(2).longValueExact();
+  }
+
+  private static final class PendingContribution {
+
+    private final UUID donationId;
+    private final String name;
+    private final String email;
+    private final long amountCents;
+    private final Instant createdAt;
+
+    private PendingContribution(UUID donationId, String name, String email, long amountCents, Instant createdAt) {
+      this.donationId = donationId;
+      this.name = name;
+      this.email = email;
+      this.amountCents = amountCents;
+      this.createdAt = createdAt;
+    }
+  }
+
+  private static final class DonorTotal {
+
+    private final UUID donationId;
+    private final UUID donatorId;
+    private final String name;
+    private final long totalCents;
+
+    private DonorTotal(UUID donationId, UUID donatorId, String name, long totalCents) {
+      this.donationId = donationId;
+      this.donatorId = donatorId;
+      this.name = name;
+      this.totalCents = totalCents;
+    }
+  }
+
+  private static final class CampaignProgress {
+
+    private final AtomicLong persistedCents = new AtomicLong();
+    private final LongAdder pendingCents = new LongAdder();
+    private volatile String status;
+    private volatile long goalCents;
+    private volatile long loadedAt;
+
+    private CampaignProgress(Donation donation) {
+      refresh(donation);
+      this.loadedAt = System.currentTimeMillis();
+    }
+
+    private void refresh(Donation donation) {
+      status = donation.getStatus();
+      goalCents = toCents(donation.getGoal());
+      persistedCents.accumulateAndGet(toCents(donation.getAmountReceived()), Math::max);
+    }
+
+    private long amountCents() {
+      return persistedCents.get() + pendingCents.sum();
+    }
+  }
+
+}
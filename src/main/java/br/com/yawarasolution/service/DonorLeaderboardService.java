@@ -0,0 +1,152 @@
+package br.com.yawarasolution.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.yawarasolution.DTO.donation.DonorRankingResponseDTO;
+import br.com.yawarasolution.DTO.donation.DonorTotalDTO;
+import br.com.yawarasolution.repository.DonationDonorTotalRepository;
+import br.com.yawarasolution.utils.BoundedLeaderboard;
+
+/**
+ * Top donors of every campaign, kept in memory.
+ *
+ * The boards are filled at startup with one streaming pass over
+ * donation_donor_total and then updated by the donation flush with each
+ * donor's new campaign total, so serving a page never sorts donors. The flush
+ * only sees the donations made on this instance, so the boards are rebuilt
+ * from donation_donor_total on a schedule as well, picking up the other
+ * instances' donations and renamed donors.
+ */
+@Service
+public class DonorLeaderboardService {
+
+  private static final Logger logger = LoggerFactory.getLogger(DonorLeaderboardService.class);
+
+  @Autowired
+  private DonationDonorTotalRepository donationDonorTotalRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Value("${yamarasolution.donations.leaderboard-size:100}")
+  private int leaderboardSize;
+
+  private volatile Map<UUID, BoundedLeaderboard> boards = new ConcurrentHashMap<>();
+
+  // The boards being rebuilt, if any; updates go to both until they replace
+  // the current ones.
+  private volatile Map<UUID, BoundedLeaderboard> rebuilding;
+
+  private final Object rebuildLock = new Object();
+
+  /**
+   * It records a donor's new total in a campaign
+   *
+   * @param donationId The id of the campaign.
+   * @param donatorId  The id of the donor.
+   * @param name       The donor's name.
+   * @param totalCents Everything the donor has given to the campaign, in cents.
+   */
+  public void update(UUID donationId, UUID donatorId, String name, long totalCents) {
+    // The rebuild is read first: once it is null, boards is already the
+    // rebuilt map.
+    Map<UUID, BoundedLeaderboard> next = rebuilding;
+    if (next != null) {
+      offer(next, donationId, donatorId, name, totalCents);
+    }
+    offer(boards, donationId, donatorId, name, totalCents);
+  }
+
+  /**
+   * It returns a page of the top donors of a campaign
+   *
+   * @param donationId The id of the campaign.
+   * @param pageable   The page to return.
+   * @return A page of DonorRankingResponseDTO objects.
+   */
+  public Page<DonorRankingResponseDTO> findTopDonors(UUID donationId, Pageable pageable) {
+    BoundedLeaderboard board = boards.get(donationId);
+    if (board == null) {
+      return Page.empty(pageable);
+    }
+    List<BoundedLeaderboard.Entry> entries = board.slice(pageable.getOffset(), pageable.getPageSize());
+    List<DonorRankingResponseDTO> content = new ArrayList<>(entries.size());
+    int rank = (int) pageable.getOffset();
+    for (BoundedLeaderboard.Entry entry : entries) {
+      content.add(new DonorRankingResponseDTO(++rank, entry.getLabel(), entry.getScore()));
+    }
+    return new PageImpl<>(content, pageable, board.size());
+  }
+
+  /**
+   * When the application is ready, fill the boards from the donor totals.
+   *
+   * @param event The event that triggered the listener.
+   */
+  @EventListener
+  public void onApplicationReady(ApplicationReadyEvent event) {
+    rebuild();
+  }
+
+  /**
+   * It builds new boards from the donor totals in a single streaming pass and
+   * replaces the current ones with them. Updates made by the flush meanwhile
+   * are kept, since a board only keeps the highest total it has seen for a
+   * donor; if the pass fails, the current boards stay.
+   */
+  @Scheduled(initialDelayString = "${yamarasolution.donations.leaderboard-rebuild-ms:300000}",
+      fixedDelayString = "${yamarasolution.donations.leaderboard-rebuild-ms:300000}")
+  public void rebuild() {
+    synchronized (rebuildLock) {
+      Map<UUID, BoundedLeaderboard> next = new ConcurrentHashMap<>();
+      rebuilding = next;
+      TransactionTemplate template = new TransactionTemplate(transactionManager);
+      template.setReadOnly(true);
+      AtomicLong rows = new AtomicLong();
+      try {
+        template.executeWithoutResult(status -> {
+          try (Stream<DonorTotalDTO> totals = donationDonorTotalRepository.streamAll()) {
+            totals.forEach(total -> {
+              offer(next, total.getDonationId(), total.getDonatorId(), total.getName(),
+                  total.getAmount().setScale(2).movePointRight(2).longValueExact());
+              rows.incrementAndGet();
+            });
+          }
+        });
+        boards = next;
+        logger.info("Donor leaderboards rebuilt from {} donor totals", rows.get());
+      } catch (RuntimeException e) {
+        logger.warn("Could not rebuild donor leaderboards: {}", e.getMessage());
+      } finally {
+        rebuilding = null;
+      }
+    }
+  }
+
+  private void offer(Map<UUID, BoundedLeaderboard> target, UUID donationId, UUID donatorId, String name,
+      long totalCents) {
+    target.computeIfAbsent(donationId, id -> new BoundedLeaderboard(leaderboardSize))
+        .offer(donatorId, name, totalCents);
+  }
+
+}
@@ -5,6 +5,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.core.io.ClassPathResource;
@@ -13,19 +14,33 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.google.auth.oauth2.GoogleCredentials;
+import com.google.cloud.ServiceOptions;
+import com.google.cloud.http.HttpTransportOptions;
 import com.google.cloud.storage.BlobId;
 import com.google.cloud.storage.BlobInfo;
 import com.google.cloud.storage.Storage;
 import com.google.cloud.storage.StorageOptions;
 
+import br.com.yawarasolution.jfr.FileUploadEvent;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+
 @Service
 public class FirebaseFileService {
 
     private Storage storage;
 
+    @Value("${yamarasolution.firebase.connect-timeout-ms:5000}")
+    private int connectTimeoutMs;
+
+    @Value("${yamarasolution.firebase.read-timeout-ms:20000}")
+    private int readTimeoutMs;
+
     /**
      * When the application is ready, load the firebase.json file and use it to
-     * create a storage object.
+     * create a storage object. Calls time out instead of waiting forever, and
+     * are not retried by the client: the "firebase" circuit breaker decides
+     * when to try again.
      * 
      * @param event The event that triggered the listener.
      */
@@ -35,6 +50,11 @@ public class FirebaseFileService {
             ClassPathResource serviceAccount = new ClassPathResource("firebase.json");
             storage = StorageOptions.newBuilder()
                     .setCredentials(GoogleCredentials.fromStream(serviceAccount.getInputStream()))
+                    .setTransportOptions(HttpTransportOptions.newBuilder()
+                            .setConnectTimeout(connectTimeoutMs)
+                            .setReadTimeout(readTimeoutMs)
+                            .build())
+                    .setRetrySettings(ServiceOptions.getNoRetrySettings())
                     .setProjectId("yamara-db-image").build().getService();
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -49,6 +69,8 @@ public class FirebaseFileService {
      * @param file The file to upload.
      * @return The name of the file that was uploaded.
      */
+    @Bulkhead(name = "firebase")
+    @CircuitBreaker(name = "firebase")
     public String saveFile(MultipartFile file) throws IOException {
         String imageName = generateFileName(file.getOriginalFilename());
         Map<String, String> map = new HashMap<>();
@@ -58,7 +80,19 @@ public class FirebaseFileService {
                 .setMetadata(map)
                 .setContentType(file.getContentType())
                 .build();
-        storage.create(blobInfo, file.getInputStream());
+        FileUploadEvent event = new FileUploadEvent();
+        event.begin();
+        try {
+            storage.create(blobInfo, file.getInputStream());
+            event.setSucceeded(true);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.setBytes(file.getSize());
+                event.setContentType(file.getContentType());
+                event.commit();
+            }
+        }
         return imageName;
     }
 
@@ -90,6 +124,8 @@ public class FirebaseFileService {
      * @param fileName The full URL of the image.
      * @return The return value is a boolean value.
      */
+    @Bulkhead(name = "firebase")
+    @CircuitBreaker(name = "firebase")
     public Boolean deletFile(String fileName) {
         int startIndex = fileName.lastIndexOf("/") + 1;
         int endIndex = fileName.lastIndexOf("?");
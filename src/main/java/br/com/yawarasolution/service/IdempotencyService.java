@@ -0,0 +1,287 @@
+package br.com.yawarasolution.service;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.yawarasolution.exception.ApiError;
+import br.com.yawarasolution.model.IdempotencyKey;
+import br.com.yawarasolution.repository.IdempotencyKeyRepository;
+
+/**
+ * Idempotency-Key support for requests that must not run twice.
+ *
+ * A key is claimed per user with an insert into idempotency_key before the
+ * request runs, and completed with the response in the same transaction as
+ * the request. A replay with the same body gets the stored response back; a
+ * replay while the first request is still running gets 409; the same key
+ * with a different body gets 422. Failed requests release their key so the
+ * client can retry.
+ *
+ * A claim is a lease: if the node running the request dies before
+ * completing or releasing the key, a retry of the same request takes the
+ * claim over once lease-seconds have passed, instead of getting 409 until
+ * the key expires. The claim and the completion carry a token, so a request
+ * still running when its claim was taken over cannot complete it; its
+ * transaction is rolled back and it answers 409.
+ *
+ * Completed keys and keys in flight on this node are also kept in memory,
+ * so replays and concurrent duplicates are answered without a query.
+ */
+@Service
+public class IdempotencyService {
+
+  private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+  public static final String HEADER = "Idempotency-Key";
+
+  public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+  public static final int MAX_KEY_LENGTH = 255;
+
+  @Autowired
+  private IdempotencyKeyRepository idempotencyKeyRepository;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Value("${yamarasolution.idempotency.ttl-hours:24}")
+  private long ttlHours;
+
+  @Value("${yamarasolution.idempotency.cache-size:10000}")
+  private int cacheSize;
+
+  @Value("${yamarasolution.idempotency.lease-seconds:60}")
+  private long leaseSeconds;
+
+  private final Map<String, Entry> front = new ConcurrentHashMap<>();
+
+  /**
+   * It runs the action once per Idempotency-Key of the logged user
+   *
+   * @param key     The value of the Idempotency-Key header.
+   * @param request The request body, compared with the one first sent with
+   *                the key.
+   * @param action  The request handling; a 2xx response is stored and
+   *                replayed, anything else releases the key.
+   * @return The response of the action, or the stored one.
+   */
+  public ResponseEntity<Object> execute(String key, Object request, Supplier<ResponseEntity<Object>> action) {
+    if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+      return error(HttpStatus.BAD_REQUEST, "Bad Request",
+          HEADER + " must have between 1 and " + MAX_KEY_LENGTH + " characters");
+    }
+    UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication()
+        .getPrincipal();
+    UUID userId = userDetails.getId();
+    String frontKey = userId + ":" + key;
+    String requestHash = hash(request);
+
+    Entry cached = front.get(frontKey);
+    if (cached != null) {
+      return answer(cached, requestHash);
+    }
+    Entry inFlight = new Entry(requestHash, null, null, null, Instant.now().plus(Duration.ofHours(ttlHours)));
+    if (front.putIfAbsent(frontKey, inFlight) != null) {
+      return answer(front.getOrDefault(frontKey, inFlight), requestHash);
+    }
+
+    UUID leaseToken = UUID.randomUUID();
+    Instant leaseUntil = Instant.now().plusSeconds(leaseSeconds);
+    boolean claimed = false;
+    try {
+      claimed = new TransactionTemplate(transactionManager).execute(status -> idempotencyKeyRepository
+          .claim(userId, key, requestHash, inFlight.expiresAt, leaseUntil, leaseToken) == 1);
+      if (!claimed) {
+        front.remove(frontKey, inFlight);
+        return idempotencyKeyRepository.findByUserIdAndIdempotencyKey(userId, key)
+            .map(row -> {
+              Entry stored = Entry.of(row);
+              if (stored.isCompleted()) {
+                remember(frontKey, stored);
+              }
+              return answer(stored, requestHash);
+            })
+            .orElseGet(() -> error(HttpStatus.CONFLICT, "Conflict", "Request with this " + HEADER
+                + " is being processed, try again"));
+      }
+
+      Entry[] completed = new Entry[1];
+      boolean[] takenOver = new boolean[1];
+      ResponseEntity<Object> response = new TransactionTemplate(transactionManager).execute(status -> {
+        ResponseEntity<Object> result = action.get();
+        if (result.getStatusCode().is2xxSuccessful()) {
+          URI location = result.getHeaders().getLocation();
+          Entry entry = new Entry(requestHash, result.getStatusCode().value(),
+              location != null ? location.toString() : null, toJson(result.getBody()), inFlight.expiresAt);
+          if (idempotencyKeyRepository.complete(userId, key, leaseToken, entry.responseStatus,
+              entry.responseLocation, entry.responseBody) == 1) {
+            completed[0] = entry;
+          } else {
+            // The lease ran out and a retry took the key over: that one runs
+            // the request, so nothing this one wrote is kept.
+            takenOver[0] = true;
+            status.setRollbackOnly();
+          }
+        } else {
+          // Nothing the action wrote is kept, and the key is released below.
+          status.setRollbackOnly();
+        }
+        return result;
+      });
+
+      if (completed[0] != null) {
+        front.remove(frontKey, inFlight);
+        remember(frontKey, completed[0]);
+      } else if (takenOver[0]) {
+        front.remove(frontKey, inFlight);
+        logger.warn("Idempotency key of user {} was taken over after its lease ran out", userId);
+        return error(HttpStatus.CONFLICT, "Conflict", "Request with this " + HEADER + " is being processed, try again");
+      } else {
+        release(userId, key, leaseToken, frontKey, inFlight);
+      }
+      return response;
+    } catch (RuntimeException e) {
+      if (claimed) {
+        release(userId, key, leaseToken, frontKey, inFlight);
+      } else {
+        front.remove(frontKey, inFlight);
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * It deletes the expired keys in one statement and drops them from memory
+   *
+   * @return The number of keys deleted from the database.
+   */
+  public int purgeExpired() {
+    Instant now = Instant.now();
+    front.values().removeIf(entry -> entry.expiresAt.isBefore(now));
+    Integer deleted = new TransactionTemplate(transactionManager)
+        .execute(status -> idempotencyKeyRepository.deleteExpired(now));
+    logger.info("Purged {} expired idempotency keys", deleted);
+    return deleted;
+  }
+
+  private void release(UUID userId, String key, UUID leaseToken, String frontKey, Entry inFlight) {
+    try {
+      new TransactionTemplate(transactionManager)
+          .executeWithoutResult(status -> idempotencyKeyRepository.release(userId, key, leaseToken));
+    } catch (RuntimeException e) {
+      // The key stays claimed until its lease runs out; retries get 409 meanwhile.
+      logger.warn("Could not release idempotency key of user {}: {}", userId, e.getMessage());
+    } finally {
+      front.remove(frontKey, inFlight);
+    }
+  }
+
+  private void remember(String frontKey, Entry entry) {
+    if (front.size() < cacheSize) {
+      front.put(frontKey, entry);
+    }
+  }
+
+  /**
+   * It answers a request whose key was already used
+   *
+   * @param entry       The first request with the key.
+   * @param requestHash The hash of this request's body.
+   * @return The stored response, 409 or 422.
+   */
+  private ResponseEntity<Object> answer(Entry entry, String requestHash) {
+    if (!entry.requestHash.equals(requestHash)) {
+      return error(HttpStatus.UNPROCESSABLE_ENTITY, "Unprocessable Entity",
+          HEADER + " was already used with a different request");
+    }
+    if (!entry.isCompleted()) {
+      return error(HttpStatus.CONFLICT, "Conflict", "Request with this " + HEADER + " is being processed, try again");
+    }
+    ResponseEntity.BodyBuilder builder = ResponseEntity.status(entry.responseStatus)
+        .contentType(MediaType.APPLICATION_JSON)
+        .header(REPLAYED_HEADER, "true");
+    if (entry.responseLocation != null) {
+      builder.location(URI.create(entry.responseLocation));
+    }
+    return builder.body(entry.responseBody.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static ResponseEntity<Object> error(HttpStatus status, String error, String message) {
+    return ResponseEntity.status(status).body(new ApiError(status, error, message));
+  }
+
+  private String hash(Object request) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+    } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+      throw new IllegalStateException("Could not hash request", e);
+    }
+  }
+
+  private String toJson(Object body) {
+    try {
+      return objectMapper.writeValueAsString(body);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Could not serialise response", e);
+    }
+  }
+
+  private static final class Entry {
+
+    private final String requestHash;
+    private final Integer responseStatus;
+    private final String responseLocation;
+    private final String responseBody;
+    private final Instant expiresAt;
+
+    private Entry(String requestHash, Integer responseStatus, String responseLocation, String responseBody,
+        Instant expiresAt) {
+      this.requestHash = requestHash;
+      this.responseStatus = responseStatus;
+      this.responseLocation = responseLocation;
+      this.responseBody = responseBody;
+      this.expiresAt = expiresAt;
+    }
+
+    private static Entry of(IdempotencyKey row) {
+      if (!IdempotencyKey.COMPLETED.equals(row.getStatus())) {
+        return new Entry(row.getRequestHash(), null, null, null, row.getExpiresAt());
+      }
+      return new Entry(row.getRequestHash(), row.getResponseStatus(), row.getResponseLocation(),
+          row.getResponseBody(), row.getExpiresAt());
+    }
+
+    private boolean isCompleted() {
+      return responseStatus != null;
+    }
+  }
+
+}
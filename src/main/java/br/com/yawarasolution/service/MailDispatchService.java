@@ -0,0 +1,42 @@
+package br.com.yawarasolution.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import br.com.yawarasolution.config.MailConfig;
+import br.com.yawarasolution.event.MailRequestedEvent;
+
+/**
+ * E-mails requested by checkout, order status and account changes, and
+ * registration, sent on the mail executor once their transaction commits.
+ * When SMTP is slow, down or its circuit breaker is open, the e-mail is logged
+ * as lost and the order or account is kept.
+ */
+@Service
+public class MailDispatchService {
+
+  private static final Logger logger = LoggerFactory.getLogger(MailDispatchService.class);
+
+  @Autowired
+  private MailConfig mailConfig;
+
+  /**
+   * Once the transaction commits, send the e-mail in the background.
+   *
+   * @param event The e-mail to send.
+   */
+  @Async("mailExecutor")
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onMailRequested(MailRequestedEvent event) {
+    try {
+      mailConfig.sendEmail(event.getTo(), event.getSubject(), event.getText());
+    } catch (RuntimeException e) {
+      logger.warn("Could not send '{}' e-mail: {}", event.getSubject(), e.getMessage());
+    }
+  }
+
+}
@@ -0,0 +1,123 @@
+package br.com.yawarasolution.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.yawarasolution.enums.PurchaseStatus;
+import br.com.yawarasolution.event.CatalogChangedEvent;
+import br.com.yawarasolution.event.OrderStatusChangedEvent;
+import br.com.yawarasolution.repository.ProductRepository;
+import br.com.yawarasolution.repository.UserOrderSummaryRepository;
+import br.com.yawarasolution.repository.UserPurchaseRepository;
+import br.com.yawarasolution.repository.UserPurchaseRepository.ExpiredReservation;
+
+/**
+ * Stock reservations of PENDING orders.
+ *
+ * A new order holds its stock until its reserved_until; the sweeper cancels
+ * orders still PENDING after that, in batches, with set-based statements:
+ * one status update for the orders and their history rows, one stock update
+ * per product and one rollup upsert per day and product.
+ */
+@Service
+public class OrderReservationService {
+
+  private static final Logger logger = LoggerFactory.getLogger(OrderReservationService.class);
+
+  @Autowired
+  private UserPurchaseRepository userPurchaseRepository;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private UserOrderSummaryRepository userOrderSummaryRepository;
+
+  @Autowired
+  private SalesRollupService salesRollupService;
+
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Value("${yamarasolution.orders.reservation-minutes:30}")
+  private long reservationMinutes;
+
+  @Value("${yamarasolution.orders.reservation-sweep-batch:500}")
+  private int sweepBatch;
+
+  /**
+   * It returns the deadline of a reservation made now
+   *
+   * @return An Instant object.
+   */
+  public Instant reservationDeadline() {
+    return Instant.now().plusSeconds(reservationMinutes * 60);
+  }
+
+  /**
+   * It cancels every PENDING order whose reservation has expired, one batch
+   * per transaction. Orders locked by another transaction, e.g. an admin
+   * changing their status, are skipped until the next run.
+   *
+   * @return The number of orders canceled.
+   */
+  public int releaseExpiredReservations() {
+    TransactionTemplate template = new TransactionTemplate(transactionManager);
+    int total = 0;
+    int released;
+    do {
+      released = template.execute(status -> releaseBatch(Instant.now()));
+      total += released;
+    } while (released == sweepBatch);
+    if (total > 0) {
+      logger.info("Released the stock of {} expired PENDING orders", total);
+    }
+    return total;
+  }
+
+  /**
+   * It cancels one batch of expired orders. The rollups are updated before
+   * the status so they still see the orders' lines and dates.
+   *
+   * @param now The reference time.
+   * @return The number of orders canceled.
+   */
+  private int releaseBatch(Instant now) {
+    List<ExpiredReservation> expired = userPurchaseRepository.lockExpiredReservations(now, sweepBatch);
+    if (expired.isEmpty()) {
+      return 0;
+    }
+    List<UUID> orderIds = expired.stream().map(ExpiredReservation::getId).collect(Collectors.toList());
+
+    List<UUID> productIds = productRepository.lockProductsOfOrders(orderIds);
+    productRepository.returnStockOfOrders(orderIds);
+    salesRollupService.recordCancellations(orderIds);
+    userPurchaseRepository.updateStatusAndClearReservation(orderIds, PurchaseStatus.CANCELED);
+    userOrderSummaryRepository.updateStatus(orderIds, PurchaseStatus.CANCELED);
+
+    for (UUID productId : productIds) {
+      eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.STOCK, productId));
+    }
+    Instant changedAt = Instant.now();
+    for (ExpiredReservation reservation : expired) {
+      eventPublisher.publishEvent(new OrderStatusChangedEvent(reservation.getUserId(), reservation.getId(),
+          PurchaseStatus.CANCELED, changedAt));
+    }
+    return expired.size();
+  }
+
+}
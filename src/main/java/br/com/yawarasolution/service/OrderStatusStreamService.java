@@ -0,0 +1,253 @@
+package br.com.yawarasolution.service;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import br.com.yawarasolution.DTO.userpurchase.OrderStatusEventDTO;
+import br.com.yawarasolution.event.OrderStatusChangedEvent;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Server-Sent Events streams of order status changes, one or more per user.
+ *
+ * A committed status change, made here or, through CacheInvalidationService,
+ * on another instance, is put in the bounded buffer of each of the owner's
+ * streams and the buffer is drained on the stream executor, so neither the
+ * request that changed the status nor a Tomcat thread ever writes to a client
+ * socket. When a buffer is full the oldest event is
+ * dropped and the client is sent a "resync" event telling it to fetch its
+ * orders once. Every stream gets a heartbeat comment so idle connections
+ * survive proxies and dead ones are noticed.
+ */
+@Service
+public class OrderStatusStreamService {
+
+  private static final Logger logger = LoggerFactory.getLogger(OrderStatusStreamService.class);
+
+  public static final String STATUS_EVENT = "status";
+
+  public static final String RESYNC_EVENT = "resync";
+
+  @Autowired
+  @Qualifier("streamExecutor")
+  private Executor streamExecutor;
+
+  @Value("${yamarasolution.orders.stream.timeout-ms:1800000}")
+  private long timeoutMs;
+
+  @Value("${yamarasolution.orders.stream.buffer-size:32}")
+  private int bufferSize;
+
+  @Value("${yamarasolution.orders.stream.max-per-user:5}")
+  private int maxPerUser;
+
+  private final Map<UUID, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+
+  private final AtomicInteger open = new AtomicInteger();
+
+  /**
+   * It opens a status stream for the logged user
+   *
+   * @return The emitter to return from the controller.
+   */
+  public SseEmitter subscribeLoggedUser() {
+    UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication()
+        .getPrincipal();
+    return subscribe(userDetails.getId());
+  }
+
+  /**
+   * It opens a status stream for a user. The oldest stream of the user is
+   * closed when the user already has the maximum number open.
+   *
+   * @param userId The id of the user.
+   * @return The emitter to return from the controller.
+   */
+  public SseEmitter subscribe(UUID userId) {
+    Subscription subscription = new Subscription(userId, new SseEmitter(timeoutMs), bufferSize);
+    Set<Subscription> userSubscriptions = subscriptions.compute(userId, (id, current) -> {
+      Set<Subscription> set = current != null ? current : new CopyOnWriteArraySet<>();
+      set.add(subscription);
+      return set;
+    });
+    open.incrementAndGet();
+    for (Subscription oldest : userSubscriptions) {
+      if (userSubscriptions.size() <= maxPerUser) {
+        break;
+      }
+      close(oldest);
+    }
+    subscription.emitter.onCompletion(() -> remove(subscription));
+    subscription.emitter.onTimeout(() -> close(subscription));
+    subscription.emitter.onError(e -> remove(subscription));
+    return subscription.emitter;
+  }
+
+  /**
+   * Once the status change is committed, queue it on every stream of the
+   * order's owner.
+   *
+   * @param event The status change.
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+    Set<Subscription> userSubscriptions = subscriptions.get(event.getUserId());
+    if (userSubscriptions == null) {
+      return;
+    }
+    OrderStatusEventDTO payload = new OrderStatusEventDTO(event);
+    for (Subscription subscription : userSubscriptions) {
+      subscription.enqueue(payload);
+      schedule(subscription);
+    }
+  }
+
+  /**
+   * Periodically send a heartbeat on every open stream.
+   */
+  @Scheduled(fixedDelayString = "${yamarasolution.orders.stream.heartbeat-ms:15000}")
+  public void heartbeat() {
+    for (Set<Subscription> userSubscriptions : subscriptions.values()) {
+      for (Subscription subscription : userSubscriptions) {
+        subscription.heartbeat = true;
+        schedule(subscription);
+      }
+    }
+  }
+
+  /**
+   * On shutdown, close every stream so clients reconnect to another node.
+   */
+  @PreDestroy
+  public void closeAll() {
+    subscriptions.values().forEach(userSubscriptions -> userSubscriptions.forEach(this::close));
+  }
+
+  public int getOpenStreams() {
+    return open.get();
+  }
+
+  /**
+   * It drains a stream on the stream executor unless a drain is already
+   * scheduled. If the executor is saturated the events stay buffered and the
+   * next heartbeat schedules the drain again.
+   *
+   * @param subscription The stream to drain.
+   */
+  private void schedule(Subscription subscription) {
+    if (!subscription.scheduled.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      streamExecutor.execute(() -> drain(subscription));
+    } catch (RejectedExecutionException e) {
+      subscription.scheduled.set(false);
+    }
+  }
+
+  /**
+   * It writes everything buffered for a stream to the client
+   *
+   * @param subscription The stream to drain.
+   */
+  private void drain(Subscription subscription) {
+    try {
+      while (true) {
+        if (subscription.overflowed.getAndSet(false)) {
+          subscription.emitter.send(SseEmitter.event().name(RESYNC_EVENT).data("", MediaType.TEXT_PLAIN));
+        }
+        OrderStatusEventDTO payload = subscription.buffer.poll();
+        if (payload == null) {
+          break;
+        }
+        subscription.emitter.send(SseEmitter.event().name(STATUS_EVENT)
+            .id(payload.getOrderId() + ":" + payload.getStatus())
+            .data(payload, MediaType.APPLICATION_JSON));
+      }
+      if (subscription.heartbeat) {
+        subscription.heartbeat = false;
+        subscription.emitter.send(SseEmitter.event().comment("heartbeat"));
+      }
+    } catch (IOException | IllegalStateException e) {
+      logger.debug("Closing order status stream of user {}: {}", subscription.userId, e.getMessage());
+      close(subscription);
+      return;
+    } finally {
+      subscription.scheduled.set(false);
+    }
+    // An event queued after the last poll but before the flag was cleared
+    // would otherwise wait for the next heartbeat.
+    if (!subscription.buffer.isEmpty() || subscription.overflowed.get()) {
+      schedule(subscription);
+    }
+  }
+
+  private void close(Subscription subscription) {
+    remove(subscription);
+    try {
+      subscription.emitter.complete();
+    } catch (IllegalStateException e) {
+      // Already completed.
+    }
+  }
+
+  private void remove(Subscription subscription) {
+    subscriptions.computeIfPresent(subscription.userId, (id, set) -> {
+      if (set.remove(subscription)) {
+        open.decrementAndGet();
+      }
+      return set.isEmpty() ? null : set;
+    });
+  }
+
+  private static final class Subscription {
+
+    private final UUID userId;
+    private final SseEmitter emitter;
+    private final Queue<OrderStatusEventDTO> buffer;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicBoolean overflowed = new AtomicBoolean();
+    private volatile boolean heartbeat;
+
+    private Subscription(UUID userId, SseEmitter emitter, int bufferSize) {
+      this.userId = userId;
+      this.emitter = emitter;
+      this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    /**
+     * It buffers an event, dropping the oldest one when the buffer is full
+     *
+     * @param payload The event to send.
+     */
+    private void enqueue(OrderStatusEventDTO payload) {
+      while (!buffer.offer(payload)) {
+        buffer.poll();
+        overflowed.set(true);
+      }
+    }
+  }
+
+}
@@ -7,6 +7,7 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -15,13 +16,17 @@ import org.springframework.web.multipart.MultipartFile;
 
 import br.com.yawarasolution.DTO.product.ProducRequestDTO;
 import br.com.yawarasolution.DTO.product.ProductResponseDTO;
+import br.com.yawarasolution.datasource.ReadOnlyTransactional;
+import br.com.yawarasolution.event.CatalogChangedEvent;
 import br.com.yawarasolution.exception.ProductException;
 import br.com.yawarasolution.model.Category;
 import br.com.yawarasolution.model.Product;
 import br.com.yawarasolution.model.User;
 import br.com.yawarasolution.repository.CategoryRepository;
 import br.com.yawarasolution.repository.ProductRepository;
+import br.com.yawarasolution.repository.PurchaseRepository;
 import br.com.yawarasolution.repository.UserRepository;
+import br.com.yawarasolution.utils.Money;
 import jakarta.transaction.Transactional;
 
 @Service
@@ -39,6 +44,12 @@ public class ProductService {
   @Autowired
   private CategoryRepository categoryRepository;
 
+  @Autowired
+  private PurchaseRepository purchaseRepository;
+
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
   /**
    * It takes all the products from the database, converts them to a
    * ProductResponseDTO object, and
@@ -46,6 +57,7 @@ public class ProductService {
    * 
    * @return A list of ProductResponseDTO objects.
    */
+  @ReadOnlyTransactional
   public List<ProductResponseDTO> findAllProducts() {
     return productRepository.findAll().stream()
         .map(ProductResponseDTO::new).collect(Collectors.toList());
@@ -59,6 +71,7 @@ public class ProductService {
    * @param id The id of the product to be found
    * @return A ProductResponseDTO object.
    */
+  @ReadOnlyTransactional
   public ProductResponseDTO findProductsById(UUID id) {
     return productRepository.findById(id).filter(p -> p.getIsActive())
         .map(ProductResponseDTO::new)
@@ -74,6 +87,7 @@ public class ProductService {
    *                 size, and sort order.
    * @return A Page of ProductResponseDTOs
    */
+  @ReadOnlyTransactional
   public Page<ProductResponseDTO> findAllProductsPageable(Boolean isActive, Pageable pageable) {
     Page<Product> products = productRepository.findByIsActive(isActive, pageable);
     return products.map(ProductResponseDTO::new);
@@ -89,6 +103,7 @@ public class ProductService {
    *                     order.
    * @return A Page of ProductResponseDTOs
    */
+  @ReadOnlyTransactional
   public Page<ProductResponseDTO> findAllProductsByCategyPageable(String categoryName, Boolean isActive,
       Pageable pageable) {
     Page<Product> products = productRepository.findByCategory_NameIgnoreCaseAndIsActive(categoryName, isActive,
@@ -106,6 +121,7 @@ public class ProductService {
    *                     and page size.
    * @return A Page of ProductResponseDTOs
    */
+  @ReadOnlyTransactional
   public Page<ProductResponseDTO> searchProductsByCategories(String name, String categoryName, boolean isActive,
       Pageable pageable) {
     if (pageable == null || pageable.getPageNumber() < 0 || pageable.getPageSize() < 1) {
@@ -134,6 +150,7 @@ public class ProductService {
    *                 order.
    * @return A Page of ProductResponseDTOs
    */
+  @ReadOnlyTransactional
   public Page<ProductResponseDTO> searchProducts(String name, Boolean isActive, Pageable pageable) {
 
     if (pageable == null || pageable.getPageNumber() < 0 || pageable.getPageSize() < 1) {
@@ -188,11 +205,12 @@ public class ProductService {
         "https://firebasestorage.googleapis.com/v0/b/yamara-db-image.appspot.com/o/" + urlfile + "?alt=media");
     product.setIsActive(true);
     product.setName(name);
-    product.setPrice(productRequest.getPrice());
+    product.setPriceCents(Money.toCents(productRequest.getPrice()));
     product.setRating(5);
     product.setStock(productRequest.getStock());
     product.setUpdatedAt(null);
     product = productRepository.save(product);
+    eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.PRODUCT, product.getId()));
 
     return new ProductResponseDTO(product);
   }
@@ -229,11 +247,12 @@ public class ProductService {
     product.setImageUrl(product.getImageUrl());
     product.setIsActive(true);
     product.setName(name);
-    product.setPrice(productRequest.getPrice());
+    product.setPriceCents(Money.toCents(productRequest.getPrice()));
     product.setRating(product.getRating());
     product.setStock(productRequest.getStock());
     product.setUpdatedAt(Instant.now());
     product = productRepository.save(product);
+    eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.PRODUCT, product.getId()));
 
     return new ProductResponseDTO(product);
 
@@ -264,6 +283,7 @@ public class ProductService {
         "https://firebasestorage.googleapis.com/v0/b/yamara-db-image.appspot.com/o/" + urlfile + "?alt=media");
     product.setUpdatedAt(Instant.now());
     product = productRepository.save(product);
+    eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.PRODUCT, product.getId()));
     return new ProductResponseDTO(product);
   }
 
@@ -281,6 +301,7 @@ public class ProductService {
     product.setUpdatedAt(Instant.now());
     product.setIsActive(false);
     productRepository.save(product);
+    eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.PRODUCT, id));
   }
 
   /**
@@ -290,25 +311,28 @@ public class ProductService {
    */
   @Transactional
   public void deleteProduct(UUID id) {
-    // Finding the product by id and throwing an exception if it is not found.
-    Product product = productRepository.findById(id)
-        .orElseThrow(() -> new ProductException("Could not find product, id= " + id));
+    // Checking that the product exists without loading it or its purchases.
+    if (!productRepository.existsById(id)) {
+      throw new ProductException("Could not find product, id= " + id);
+    }
 
-    if (hasPurchases(product)) {
+    if (hasPurchases(id)) {
       throw new ProductException("Product has purchases, cannot be deleted");
     }
 
     productRepository.deleteById(id);
+    eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.PRODUCT, id));
   }
 
   /**
-   * If the product has no purchases, then it is not a valid product
+   * It checks if any purchase references the product, without loading the
+   * purchases
    * 
-   * @param product The product to check for purchases
+   * @param productId The id of the product to check for purchases
    * @return A boolean value.
    */
-  private boolean hasPurchases(Product product) {
-    return product.getPurchases().size() > 0;
+  private boolean hasPurchases(UUID productId) {
+    return purchaseRepository.existsByProduct_Id(productId);
   }
 
   /**
@@ -325,5 +349,6 @@ public class ProductService {
     product.setUpdatedAt(Instant.now());
     product.setIsActive(true);
     productRepository.save(product);
+    eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.PRODUCT, id));
   }
 }
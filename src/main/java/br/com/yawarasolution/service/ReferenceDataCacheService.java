@@ -0,0 +1,74 @@
+package br.com.yawarasolution.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import br.com.yawarasolution.DTO.diagnostics.CacheRegionStatsResponseDTO;
+import br.com.yawarasolution.DTO.diagnostics.CacheStatsResponseDTO;
+import br.com.yawarasolution.event.CatalogChangedEvent;
+import br.com.yawarasolution.model.Category;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * The Hibernate second-level cache of reference data: Role and Category
+ * entities and the cached role lookup by name.
+ *
+ * Writes made through Hibernate update the cache themselves; a category is
+ * also evicted once its change is committed, so a write that bypassed the
+ * entity, such as a native statement, cannot leave a stale copy behind.
+ */
+@Service
+public class ReferenceDataCacheService {
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  /**
+   * Once a category change is committed, evict it from the cache.
+   *
+   * @param event The catalog change.
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCatalogChanged(CatalogChangedEvent event) {
+    if (event.getType() == CatalogChangedEvent.Type.CATEGORY) {
+      evictCategory(event);
+    }
+  }
+
+  /**
+   * It returns the hit, miss and put counts of every cache region and of the
+   * query cache since startup
+   *
+   * @return A CacheStatsResponseDTO object.
+   */
+  public CacheStatsResponseDTO getStatistics() {
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    List<CacheRegionStatsResponseDTO> regions = new ArrayList<>();
+    for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+      CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+      if (region != null) {
+        regions.add(new CacheRegionStatsResponseDTO(regionName, region.getHitCount(), region.getMissCount(),
+            region.getPutCount()));
+      }
+    }
+    return new CacheStatsResponseDTO(regions, statistics.getQueryCacheHitCount(),
+        statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount(),
+        statistics.getQueryExecutionCount());
+  }
+
+  private void evictCategory(CatalogChangedEvent event) {
+    if (event.getId() != null) {
+      entityManagerFactory.getCache().evict(Category.class, event.getId());
+    } else {
+      entityManagerFactory.getCache().evict(Category.class);
+    }
+  }
+
+}
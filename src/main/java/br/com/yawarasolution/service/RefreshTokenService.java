@@ -1,7 +1,6 @@
 package br.com.yawarasolution.service;
 
 import java.time.Instant;
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -93,21 +92,15 @@ public class RefreshTokenService {
   }
 
   /**
-   * Delete all refresh tokens that have expired.
+   * Delete at most limit refresh tokens that expired before now, in one
+   * statement.
+   *
+   * @param now   The reference time.
+   * @param limit The most tokens to delete.
+   * @return The number of tokens deleted.
    */
   @Transactional
-  public void deleteAllRefreshTokensExpired() {
-    List<RefreshToken> tokens = refreshTokenRepository.findAll();
-
-    if (!tokens.isEmpty()) {
-      Instant now = Instant.now();
-
-      tokens.forEach(token -> {
-        if (now.isAfter(token.getExpiryDate())) {
-          refreshTokenRepository.deleteById(token.getId());
-        }
-      });
-    }
-
+  public int deleteExpiredRefreshTokens(Instant now, int limit) {
+    return refreshTokenRepository.deleteExpired(now, limit);
   }
 }
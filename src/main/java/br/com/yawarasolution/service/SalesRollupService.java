@@ -0,0 +1,239 @@
+package br.com.yawarasolution.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.yawarasolution.DTO.report.CategorySalesResponseDTO;
+import br.com.yawarasolution.DTO.report.DailySalesResponseDTO;
+import br.com.yawarasolution.DTO.report.ProductSalesResponseDTO;
+import br.com.yawarasolution.exception.ReportException;
+import br.com.yawarasolution.model.Purchase;
+import br.com.yawarasolution.model.UserPurchase;
+import br.com.yawarasolution.repository.SalesDailyRollupRepository;
+import br.com.yawarasolution.repository.UserPurchaseRepository;
+import br.com.yawarasolution.utils.Money;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Maintains per-product daily sales rollups inside the order transactions
+ * and answers the sales reports from them. Per-category figures are grouped
+ * from the per-product rows, which hold the product's category.
+ */
+@Service
+public class SalesRollupService {
+
+  private static final Logger logger = LoggerFactory.getLogger(SalesRollupService.class);
+
+  private static final int MAX_TOP = 100;
+
+  @Autowired
+  private SalesDailyRollupRepository salesDailyRollupRepository;
+
+  @Autowired
+  private UserPurchaseRepository userPurchaseRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Value("${yamarasolution.reports.backfill.chunk-days:7}")
+  private int backfillChunkDays;
+
+  private final AtomicBoolean backfillRunning = new AtomicBoolean();
+
+  /**
+   * It refuses to start with a backfill chunk that would never advance.
+   */
+  @PostConstruct
+  public void validate() {
+    if (backfillChunkDays < 1) {
+      throw new IllegalStateException(
+          "yamarasolution.reports.backfill.chunk-days must be at least 1, was " + backfillChunkDays);
+    }
+  }
+
+  /**
+   * It adds a new order to the rollups of its day. Must run in the order's
+   * transaction.
+   * 
+   * @param userPurchase The order.
+   * @param purchases    The order lines.
+   */
+  public void recordOrder(UserPurchase userPurchase, List<Purchase> purchases) {
+    apply(userPurchase, purchases, false);
+  }
+
+  /**
+   * It removes a canceled order's units and revenue from the rollups of the
+   * day it was placed and counts the cancellation. Must run in the order's
+   * transaction.
+   * 
+   * @param userPurchase The order being canceled.
+   */
+  public void recordCancellation(UserPurchase userPurchase) {
+    apply(userPurchase, userPurchase.getPurchases(), true);
+  }
+
+  /**
+   * It takes many canceled orders out of the rollups at once, with one upsert
+   * per day and product. Must run in the cancellation's transaction, before
+   * the order lines change.
+   * 
+   * @param orderIds The ids of the orders being canceled.
+   */
+  public void recordCancellations(Collection<UUID> orderIds) {
+    if (!orderIds.isEmpty()) {
+      salesDailyRollupRepository.addCancellations(orderIds);
+    }
+  }
+
+  /**
+   * It returns the sales of every day in the range
+   * 
+   * @param from First day, inclusive.
+   * @param to   Last day, inclusive.
+   * @return A list of DailySalesResponseDTO, by day.
+   */
+  public List<DailySalesResponseDTO> findDailySales(LocalDate from, LocalDate to) {
+    validateRange(from, to);
+    return salesDailyRollupRepository.findDailySales(from, to);
+  }
+
+  /**
+   * It returns the products with the highest revenue in the range
+   * 
+   * @param from  First day, inclusive.
+   * @param to    Last day, inclusive.
+   * @param limit How many products to return.
+   * @return A list of ProductSalesResponseDTO.
+   */
+  public List<ProductSalesResponseDTO> findTopProducts(LocalDate from, LocalDate to, int limit) {
+    validateRange(from, to);
+    return salesDailyRollupRepository.findTopProducts(from, to, PageRequest.of(0, validateLimit(limit)));
+  }
+
+  /**
+   * It returns the categories with the highest revenue in the range
+   * 
+   * @param from  First day, inclusive.
+   * @param to    Last day, inclusive.
+   * @param limit How many categories to return.
+   * @return A list of CategorySalesResponseDTO.
+   */
+  public List<CategorySalesResponseDTO> findTopCategories(LocalDate from, LocalDate to, int limit) {
+    validateRange(from, to);
+    return salesDailyRollupRepository.findTopCategories(from, to, PageRequest.of(0, validateLimit(limit)));
+  }
+
+  /**
+   * It checks if a backfill is running
+   * 
+   * @return A boolean value.
+   */
+  public boolean isBackfillRunning() {
+    return backfillRunning.get();
+  }
+
+  /**
+   * It rebuilds the rollups from the order history up to the given day, a few
+   * days per transaction, on the background executor. Only one backfill runs
+   * at a time.
+   * 
+   * @param to Last day to rebuild, inclusive.
+   */
+  @Async("backgroundExecutor")
+  public void backfill(LocalDate to) {
+    if (!backfillRunning.compareAndSet(false, true)) {
+      logger.info("Sales rollup backfill already running");
+      return;
+    }
+    try {
+      LocalDate first = userPurchaseRepository.findFirstPurchaseDate();
+      if (first == null) {
+        return;
+      }
+      TransactionTemplate template = new TransactionTemplate(transactionManager);
+      int rows = 0;
+      for (LocalDate from = first; !from.isAfter(to); from = from.plusDays(backfillChunkDays)) {
+        LocalDate chunkFrom = from;
+        LocalDate chunkTo = from.plusDays(backfillChunkDays - 1L).isAfter(to) ? to
+            : from.plusDays(backfillChunkDays - 1L);
+        rows += template.execute(status -> {
+          salesDailyRollupRepository.deleteBetween(chunkFrom, chunkTo);
+          return salesDailyRollupRepository.rebuildBetween(chunkFrom, chunkTo);
+        });
+      }
+      logger.info("Sales rollup backfill from {} to {} wrote {} rows", first, to, rows);
+    } catch (RuntimeException e) {
+      logger.error("Sales rollup backfill failed", e);
+    } finally {
+      backfillRunning.set(false);
+    }
+  }
+
+  /**
+   * It groups the order lines by product and adds them to the rollups, once
+   * per product
+   * 
+   * @param userPurchase The order.
+   * @param purchases    The order lines.
+   * @param canceled     Whether the lines are being removed by a cancellation.
+   */
+  private void apply(UserPurchase userPurchase, List<Purchase> purchases, boolean canceled) {
+    if (purchases == null || purchases.isEmpty() || userPurchase.getPurchaseDate() == null) {
+      return;
+    }
+    // Units and revenue in cents, per product.
+    Map<UUID, long[]> totals = new LinkedHashMap<>();
+    Map<UUID, UUID> categories = new LinkedHashMap<>();
+    for (Purchase purchase : purchases) {
+      UUID productId = purchase.getProduct().getId();
+      long[] total = totals.computeIfAbsent(productId, id -> new long[2]);
+      total[0] += purchase.getQuantity();
+      total[1] = Math.addExact(total[1], Money.times(purchase.getUnitPriceCents(), purchase.getQuantity()));
+      if (purchase.getProduct().getCategory() != null) {
+        categories.put(productId, purchase.getProduct().getCategory().getId());
+      }
+    }
+    for (Map.Entry<UUID, long[]> entry : totals.entrySet()) {
+      BigDecimal units = BigDecimal.valueOf(entry.getValue()[0]);
+      BigDecimal revenue = Money.fromCents(entry.getValue()[1]);
+      if (canceled) {
+        salesDailyRollupRepository.add(userPurchase.getPurchaseDate(), entry.getKey(), categories.get(entry.getKey()),
+            units.negate(), revenue.negate(), 0, 1);
+      } else {
+        salesDailyRollupRepository.add(userPurchase.getPurchaseDate(), entry.getKey(), categories.get(entry.getKey()),
+            units, revenue, 1, 0);
+      }
+    }
+  }
+
+  private void validateRange(LocalDate from, LocalDate to) {
+    if (from == null || to == null || from.isAfter(to)) {
+      throw new ReportException("Invalid date range, from= " + from + " to= " + to);
+    }
+  }
+
+  private int validateLimit(int limit) {
+    if (limit < 1 || limit > MAX_TOP) {
+      throw new ReportException("Limit must be between 1 and " + MAX_TOP);
+    }
+    return limit;
+  }
+
+}
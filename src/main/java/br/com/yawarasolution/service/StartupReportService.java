@@ -0,0 +1,150 @@
+package br.com.yawarasolution.service;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.NativeDetector;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Service;
+
+import br.com.yawarasolution.DTO.diagnostics.StartupPhaseResponseDTO;
+import br.com.yawarasolution.DTO.diagnostics.StartupReportResponseDTO;
+
+/**
+ * How long the application took to become ready, per startup phase.
+ *
+ * Built once when the application is ready from the steps recorded by the
+ * BufferingApplicationStartup set in main: the time the JVM took to reach
+ * main, each Spring Boot and context phase, and the slowest beans to create,
+ * dependencies included, e.g. the entity manager factory or the Flyway
+ * migration.
+ *
+ * The report also says whether this is the JVM or the native executable and
+ * the resident memory once ready, so both builds can be compared.
+ */
+@Service
+public class StartupReportService {
+
+  private static final Logger logger = LoggerFactory.getLogger(StartupReportService.class);
+
+  private static final String BEAN_STEP = "spring.beans.instantiate";
+
+  private static final int SLOWEST_BEANS = 10;
+
+  private static final Path PROC_STATUS = Path.of("/proc/self/status");
+
+  @Autowired
+  private ApplicationStartup applicationStartup;
+
+  @Value("${yamarasolution.startup.exit-when-ready:false}")
+  private boolean exitWhenReady;
+
+  private volatile StartupReportResponseDTO report;
+
+  /**
+   * When the application is ready, build and log the startup report. In a
+   * training run for the class data sharing archive, exit right after.
+   *
+   * @param event The event that triggered the listener.
+   */
+  @EventListener
+  public void onReady(ApplicationReadyEvent event) {
+    report = buildReport();
+    logger.info("Ready in {}ms on {}, RSS {}kB, process to main {}ms; phases: {}; slowest beans: {}",
+        report.getReadyMillis(), report.getRuntime(), report.getRssKb(), report.getJvmMillis(),
+        format(report.getPhases()), format(report.getSlowestBeans()));
+    if (exitWhenReady) {
+      logger.info("Exiting after startup, yamarasolution.startup.exit-when-ready is set");
+      System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+  }
+
+  public StartupReportResponseDTO getReport() {
+    return report;
+  }
+
+  private StartupReportResponseDTO buildReport() {
+    long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+    long readyMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+    String runtime = NativeDetector.inNativeImage() ? "native" : "jvm";
+    Long rssKb = residentMemoryKb();
+    if (!(applicationStartup instanceof BufferingApplicationStartup buffering)) {
+      return new StartupReportResponseDTO(runtime, rssKb, null, readyMillis, List.of(), List.of());
+    }
+    StartupTimeline timeline = buffering.getBufferedTimeline();
+    Instant started = timeline.getStartTime();
+    long jvmMillis = started.toEpochMilli() - jvmStart;
+
+    // Same-named steps, e.g. one per bean post-processing pass, are added up.
+    Map<String, Long> phases = new LinkedHashMap<>();
+    List<StartupPhaseResponseDTO> beans = new ArrayList<>();
+    for (StartupTimeline.TimelineEvent event : timeline.getEvents()) {
+      StartupStep step = event.getStartupStep();
+      long millis = event.getDuration().toMillis();
+      if (BEAN_STEP.equals(step.getName())) {
+        beans.add(new StartupPhaseResponseDTO(beanName(step), millis));
+      } else {
+        phases.merge(step.getName(), millis, Long::sum);
+      }
+    }
+    List<StartupPhaseResponseDTO> slowestBeans = beans.stream()
+        .sorted(Comparator.comparing(StartupPhaseResponseDTO::getMillis).reversed())
+        .limit(SLOWEST_BEANS)
+        .collect(Collectors.toList());
+    List<StartupPhaseResponseDTO> phaseList = phases.entrySet().stream()
+        .map(e -> new StartupPhaseResponseDTO(e.getKey(), e.getValue()))
+        .collect(Collectors.toList());
+    return new StartupReportResponseDTO(runtime, rssKb, jvmMillis, readyMillis, phaseList, slowestBeans);
+  }
+
+  /**
+   * It reads the resident set size of the process from /proc
+   *
+   * @return The RSS in kB, or null when /proc is not available.
+   */
+  private static Long residentMemoryKb() {
+    try {
+      for (String line : Files.readAllLines(PROC_STATUS)) {
+        if (line.startsWith("VmRSS:")) {
+          return Long.parseLong(line.replaceAll("[^0-9]", ""));
+        }
+      }
+    } catch (IOException | NumberFormatException e) {
+      logger.debug("Could not read the resident memory: {}", e.getMessage());
+    }
+    return null;
+  }
+
+  private static String beanName(StartupStep step) {
+    for (StartupStep.Tag tag : step.getTags()) {
+      if ("beanName".equals(tag.getKey())) {
+        return tag.getValue();
+      }
+    }
+    return step.getName();
+  }
+
+  private static String format(List<StartupPhaseResponseDTO> entries) {
+    return entries.stream().map(e -> e.getName() + "=" + e.getMillis() + "ms").collect(Collectors.joining(", "));
+  }
+
+}
@@ -0,0 +1,351 @@
+package br.com.yawarasolution.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.yawarasolution.DTO.survey.QuestionResultResponseDTO;
+import br.com.yawarasolution.DTO.survey.ResponseCountResponseDTO;
+import br.com.yawarasolution.DTO.survey.SurveyAnswerRequestDTO;
+import br.com.yawarasolution.DTO.survey.SurveyResultsResponseDTO;
+import br.com.yawarasolution.DTO.survey.SurveySubmissionRequestDTO;
+import br.com.yawarasolution.exception.SurveyException;
+import br.com.yawarasolution.model.SurveyQuestion;
+import br.com.yawarasolution.model.SurveyResponseRollup;
+import br.com.yawarasolution.repository.DonationRepository;
+import br.com.yawarasolution.repository.DonatorRepository;
+import br.com.yawarasolution.repository.SurveyQuestionRepository;
+import br.com.yawarasolution.repository.SurveyResponseRollupRepository;
+import br.com.yawarasolution.utils.BatchRetryQueue;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Survey submissions and their per-question response distributions.
+ *
+ * Submissions are queued in memory and written by a scheduled flush: the
+ * survey_question rows as batched inserts and the distribution as one upsert
+ * per distinct (donation, question, response) in survey_response_rollup.
+ * The queue is bounded by the number of answers it holds; a submission that
+ * does not fit is rejected as a whole. A batch that fails is retried, split
+ * in halves when the failure came from its content, and a submission that
+ * still fails on its own is logged to the "dead-letter" logger and dropped
+ * after the maximum attempts, see BatchRetryQueue.
+ *
+ * Results are served from an in-memory distribution per donation: counts read
+ * from the rollup table, refreshed periodically to pick up other nodes, plus
+ * the answers accepted here and not yet written. The persisted counts only
+ * ever take the larger of what they hold and a count read back from the
+ * table, so the flush and the refresh need no common lock and a request
+ * never waits on a flush.
+ */
+@Service
+public class SurveyService {
+
+  private static final Logger logger = LoggerFactory.getLogger(SurveyService.class);
+
+  private static final Logger deadLetterLog = LoggerFactory.getLogger("dead-letter");
+
+  @Autowired
+  private SurveyQuestionRepository surveyQuestionRepository;
+
+  @Autowired
+  private SurveyResponseRollupRepository surveyResponseRollupRepository;
+
+  @Autowired
+  private DonationRepository donationRepository;
+
+  @Autowired
+  private DonatorRepository donatorRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Value("${yamarasolution.surveys.batch-size:1000}")
+  private int batchSize;
+
+  @Value("${yamarasolution.surveys.results-refresh-ms:5000}")
+  private long resultsRefreshMs;
+
+  private final Semaphore capacity;
+
+  private final ConcurrentLinkedQueue<PendingSubmission> queue = new ConcurrentLinkedQueue<>();
+
+  private final BatchRetryQueue<PendingSubmission> retry;
+
+  private final Object flushLock = new Object();
+
+  private final Map<UUID, Distribution> distributions = new ConcurrentHashMap<>();
+
+  private final Set<UUID> knownDonations = ConcurrentHashMap.newKeySet();
+
+  public SurveyService(@Value("${yamarasolution.surveys.buffer-capacity:500000}") int bufferCapacity,
+      @Value("${yamarasolution.surveys.max-attempts:5}") int maxAttempts) {
+    this.capacity = new Semaphore(bufferCapacity);
+    this.retry = new BatchRetryQueue<>(maxAttempts);
+  }
+
+  /**
+   * It accepts a survey submission and counts its answers in the donation's
+   * distribution. The answers are written by the next flush.
+   *
+   * @param submissionRequest The donation, the optional donor and the answers.
+   */
+  public void submit(SurveySubmissionRequestDTO submissionRequest) {
+    UUID donationId = submissionRequest.getDonationId();
+    if (!knownDonations.contains(donationId)) {
+      if (!donationRepository.existsById(donationId)) {
+        throw new SurveyException("Could not find donation, id= " + donationId);
+      }
+      knownDonations.add(donationId);
+    }
+    UUID donatorId = submissionRequest.getDonatorId();
+    if (donatorId != null && !donatorRepository.existsById(donatorId)) {
+      throw new SurveyException("Could not find donator, id= " + donatorId);
+    }
+    List<SurveyAnswerRequestDTO> answers = submissionRequest.getAnswers();
+    if (!capacity.tryAcquire(answers.size())) {
+      throw new SurveyException("Too many survey submissions, please try again later");
+    }
+    Distribution distribution = distribution(donationId);
+    PendingSubmission submission = new PendingSubmission(donationId, donatorId, LocalDateTime.now(),
+        answers.stream().map(a -> new Answer(a.getQuestion().trim(), a.getResponse().trim()))
+            .collect(Collectors.toList()));
+    for (Answer answer : submission.answers) {
+      distribution.counter(answer).pending.increment();
+    }
+    queue.add(submission);
+  }
+
+  /**
+   * It returns the response distribution of every question of a donation
+   * survey, most frequent responses first
+   *
+   * @param donationId The id of the donation.
+   * @return A SurveyResultsResponseDTO object.
+   */
+  public SurveyResultsResponseDTO findResults(UUID donationId) {
+    if (!knownDonations.contains(donationId) && !donationRepository.existsById(donationId)) {
+      throw new SurveyException("Could not find donation, id= " + donationId);
+    }
+    Distribution distribution = distribution(donationId);
+    if (System.currentTimeMillis() - distribution.loadedAt > resultsRefreshMs) {
+      reload(donationId, distribution);
+    }
+    Map<String, List<ResponseCountResponseDTO>> byQuestion = new HashMap<>();
+    distribution.counters.forEach((answer, counter) -> {
+      long count = counter.count();
+      if (count > 0) {
+        byQuestion.computeIfAbsent(answer.question, q -> new ArrayList<>())
+            .add(new ResponseCountResponseDTO(answer.response, count));
+      }
+    });
+    List<QuestionResultResponseDTO> questions = byQuestion.entrySet().stream()
+        .map(e -> {
+          e.getValue().sort(Comparator.comparingLong(ResponseCountResponseDTO::getCount).reversed()
+              .thenComparing(ResponseCountResponseDTO::getResponse));
+          long total = e.getValue().stream().mapToLong(ResponseCountResponseDTO::getCount).sum();
+          return new QuestionResultResponseDTO(e.getKey(), total, e.getValue());
+        })
+        .sorted(Comparator.comparing(QuestionResultResponseDTO::getQuestion))
+        .collect(Collectors.toList());
+    return new SurveyResultsResponseDTO(donationId, questions);
+  }
+
+  /**
+   * Periodically write the queued submissions in batches.
+   */
+  @Scheduled(fixedDelayString = "${yamarasolution.surveys.flush-interval-ms:1000}")
+  public void scheduledFlush() {
+    flush();
+  }
+
+  /**
+   * On shutdown, write what is still queued.
+   */
+  @PreDestroy
+  public void shutdownFlush() {
+    flush();
+  }
+
+  /**
+   * It drains the queue batch by batch, failed batches first. A batch that
+   * failed because of the database stops the flush until the next one; one
+   * that failed because of its content is retried at once in halves.
+   */
+  public void flush() {
+    synchronized (flushLock) {
+      while (true) {
+        List<PendingSubmission> batch = retry.poll();
+        if (batch == null) {
+          batch = new ArrayList<>();
+          int answers = 0;
+          PendingSubmission next;
+          while (answers < batchSize && (next = queue.poll()) != null) {
+            batch.add(next);
+            answers += next.answers.size();
+          }
+        }
+        if (batch.isEmpty()) {
+          return;
+        }
+        try {
+          writeBatch(batch);
+          retry.succeeded(batch);
+          capacity.release(batch.stream().mapToInt(s -> s.answers.size()).sum());
+        } catch (RuntimeException e) {
+          retry.failed(batch, e).forEach(this::deadLetter);
+          if (BatchRetryQueue.isTransient(e) || batch.size() == 1) {
+            logger.error("Could not write {} survey submissions, retrying on next flush", batch.size(), e);
+            return;
+          }
+          logger.warn("Could not write {} survey submissions, retrying them in halves: {}", batch.size(),
+              e.getMessage());
+        }
+      }
+    }
+  }
+
+  /**
+   * It writes one batch in a single transaction: the answers and one rollup
+   * upsert per distinct response
+   *
+   * @param batch The submissions to write.
+   */
+  private void writeBatch(List<PendingSubmission> batch) {
+    Map<UUID, Map<Answer, Long>> deltas = new HashMap<>();
+    Map<UUID, Map<Answer, Long>> totals = new HashMap<>();
+    new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+      List<SurveyQuestion> rows = new ArrayList<>();
+      for (PendingSubmission submission : batch) {
+        Map<Answer, Long> donationDeltas = deltas.computeIfAbsent(submission.donationId, id -> new HashMap<>());
+        for (Answer answer : submission.answers) {
+          SurveyQuestion row = new SurveyQuestion();
+          row.setQuestion(answer.question);
+          row.setResponse(answer.response);
+          row.setSurveyDate(submission.createdAt);
+          row.setDonation(donationRepository.getReferenceById(submission.donationId));
+          if (submission.donatorId != null) {
+            row.setDonator(donatorRepository.getReferenceById(submission.donatorId));
+          }
+          rows.add(row);
+          donationDeltas.merge(answer, 1L, Long::sum);
+        }
+      }
+      surveyQuestionRepository.saveAll(rows);
+      deltas.forEach((donationId, counts) -> counts.forEach((answer, count) -> totals
+          .computeIfAbsent(donationId, id -> new HashMap<>())
+          .put(answer, surveyResponseRollupRepository.add(donationId, answer.question, answer.response, count))));
+    });
+
+    // Only now move the counts from pending to persisted.
+    deltas.forEach((donationId, counts) -> {
+      Distribution distribution = distributions.get(donationId);
+      counts.forEach((answer, count) -> {
+        Counter counter = distribution.counter(answer);
+        counter.persisted.accumulateAndGet(totals.get(donationId).get(answer), Math::max);
+        counter.pending.add(-count);
+      });
+    });
+  }
+
+  /**
+   * It gives up a submission that cannot be written: it is logged in full
+   * and no longer counted
+   *
+   * @param submission The submission.
+   */
+  private void deadLetter(PendingSubmission submission) {
+    Distribution distribution = distributions.get(submission.donationId);
+    for (Answer answer : submission.answers) {
+      distribution.counter(answer).pending.decrement();
+    }
+    capacity.release(submission.answers.size());
+    deadLetterLog.error("Survey submission dropped: {}", submission);
+  }
+
+  /**
+   * It returns the in-memory distribution of a donation, loading it from the
+   * rollup table on first use
+   *
+   * @param donationId The id of the donation.
+   * @return The distribution.
+   */
+  private Distribution distribution(UUID donationId) {
+    Distribution distribution = distributions.get(donationId);
+    if (distribution != null) {
+      return distribution;
+    }
+    synchronized (this) {
+      distribution = distributions.get(donationId);
+      if (distribution == null) {
+        distribution = new Distribution();
+        reload(donationId, distribution);
+        distributions.put(donationId, distribution);
+      }
+      return distribution;
+    }
+  }
+
+  /**
+   * It brings the persisted counts of a distribution up to the rollup table.
+   * The table counts only grow, so taking the larger count never counts a
+   * batch both from the table and from the flush, whichever comes first.
+   *
+   * @param donationId   The id of the donation.
+   * @param distribution The distribution to refresh.
+   */
+  private void reload(UUID donationId, Distribution distribution) {
+    for (SurveyResponseRollup row : surveyResponseRollupRepository.findByDonationId(donationId)) {
+      distribution.counter(new Answer(row.getQuestion(), row.getResponse())).persisted
+          .accumulateAndGet(row.getResponseCount(), Math::max);
+    }
+    distribution.loadedAt = System.currentTimeMillis();
+  }
+
+  private record Answer(String question, String response) {
+  }
+
+  private record PendingSubmission(UUID donationId, UUID donatorId, LocalDateTime createdAt, List<Answer> answers) {
+  }
+
+  private static final class Counter {
+
+    private final AtomicLong persisted = new AtomicLong();
+    private final LongAdder pending = new LongAdder();
+
+    private long count() {
+      return persisted.get() + pending.sum();
+    }
+  }
+
+  private static final class Distribution {
+
+    private final Map<Answer, Counter> counters = new ConcurrentHashMap<>();
+    private volatile long loadedAt;
+
+    private Counter counter(Answer answer) {
+      return counters.computeIfAbsent(answer, a -> new Counter());
+    }
+  }
+
+}
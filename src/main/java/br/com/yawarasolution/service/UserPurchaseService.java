@@ -1,39 +1,58 @@
 package br.com.yawarasolution.service;
 
-import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import br.com.yawarasolution.DTO.userpurchase.PurchaseRequestUserPurchaseDTO;
+import br.com.yawarasolution.DTO.userpurchase.UserOrderSummaryResponseDTO;
 import br.com.yawarasolution.DTO.userpurchase.UserPurchaseRequestDTO;
 import br.com.yawarasolution.DTO.userpurchase.UserPurchaseResponseDTO;
-import br.com.yawarasolution.config.MailConfig;
+import br.com.yawarasolution.datasource.ReadOnlyTransactional;
+import br.com.yawarasolution.datasource.ReadYourWrites;
 import br.com.yawarasolution.enums.PurchaseStatus;
+import br.com.yawarasolution.event.CatalogChangedEvent;
+import br.com.yawarasolution.event.MailRequestedEvent;
+import br.com.yawarasolution.event.OrderStatusChangedEvent;
 import br.com.yawarasolution.exception.UserPurchaseException;
+import br.com.yawarasolution.jfr.CheckoutEvent;
 import br.com.yawarasolution.model.Product;
 import br.com.yawarasolution.model.Purchase;
 import br.com.yawarasolution.model.User;
+import br.com.yawarasolution.model.UserOrderSummary;
 import br.com.yawarasolution.model.UserPurchase;
 import br.com.yawarasolution.repository.ProductRepository;
 import br.com.yawarasolution.repository.PurchaseRepository;
+import br.com.yawarasolution.repository.UserOrderSummaryRepository;
 import br.com.yawarasolution.repository.UserPurchaseRepository;
+import br.com.yawarasolution.repository.UserPurchaseRepository.LockedOrder;
 import br.com.yawarasolution.repository.UserRepository;
+import br.com.yawarasolution.utils.Money;
 import jakarta.transaction.Transactional;
 
 @Service
 public class UserPurchaseService {
 
+  private static final int SUMMARY_PRODUCT_NAMES = 3;
+
+  private static final int SUMMARY_PRODUCT_NAMES_LENGTH = 255;
+
   @Autowired
   private UserRepository userRepository;
 
@@ -47,7 +66,19 @@ public class UserPurchaseService {
   private ProductRepository productRepository;
 
   @Autowired
-  private MailConfig mailConfig;
+  private UserOrderSummaryRepository userOrderSummaryRepository;
+
+  @Autowired
+  private SalesRollupService salesRollupService;
+
+  @Autowired
+  private OrderReservationService orderReservationService;
+
+  @Autowired
+  private ReadYourWrites readYourWrites;
+
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
 
   /**
    * It takes all the user purchases from the database, converts them to
@@ -56,6 +87,7 @@ public class UserPurchaseService {
    * 
    * @return A list of UserPurchaseResponseDTO objects.
    */
+  @ReadOnlyTransactional
   public List<UserPurchaseResponseDTO> findAllUserPurchase() {
     return userPurchaseRepository.findAll().stream()
         .map(UserPurchaseResponseDTO::new).collect(Collectors.toList());
@@ -69,6 +101,7 @@ public class UserPurchaseService {
    * @param id UUID
    * @return UserPurchaseResponseDTO
    */
+  @ReadOnlyTransactional
   public UserPurchaseResponseDTO findUserPurchasById(UUID id) {
     return userPurchaseRepository.findById(id)
         .map(UserPurchaseResponseDTO::new)
@@ -85,6 +118,7 @@ public class UserPurchaseService {
    * @param id The id of the user purchase.
    * @return A UserPurchaseResponseDTO object.
    */
+  @ReadOnlyTransactional
   public UserPurchaseResponseDTO findUserPurchasLoogedUserById(UUID id) {
     // This is getting the user from the security context.
     UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication()
@@ -97,19 +131,18 @@ public class UserPurchaseService {
   }
 
   /**
-   * It searches for a user purchase by the Logged user and the purchase name
+   * It lists the orders of the Logged user from the order summary table, most
+   * recent first. Use the find by id methods for the full order.
    * 
-   * @param purchase This is the search query.
    * @param pageable This is the page number and the page size.
    * @return The searchUserPurchases method is returning a Page of
-   *         UserPurchaseResponseDTO.
+   *         UserOrderSummaryResponseDTO.
    */
-  public Page<UserPurchaseResponseDTO> searchUserPurchases(Pageable pageable) {
+  @ReadOnlyTransactional
+  public Page<UserOrderSummaryResponseDTO> searchUserPurchases(Pageable pageable) {
     // This is getting the user from the security context.
     UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication()
         .getPrincipal();
-    User user = userRepository.findById(userDetails.getId())
-        .orElseThrow(() -> new UserPurchaseException("Could not find user, id: " + userDetails.getId()));
 
     // Checking if the page number is less than 0 or the page size is less than 1.
     // If it is, it throws an exception.
@@ -117,9 +150,10 @@ public class UserPurchaseService {
       throw new UserPurchaseException("Invalid page request");
     }
 
-    Page<UserPurchase> userPurchase = userPurchaseRepository.findByUser(user, pageable);
+    Page<UserOrderSummary> orders = userOrderSummaryRepository
+        .findByUserIdOrderByPurchaseDateDescIdDesc(userDetails.getId(), pageable);
 
-    return userPurchase.map(UserPurchaseResponseDTO::new);
+    return orders.map(UserOrderSummaryResponseDTO::new);
   }
 
   /**
@@ -134,14 +168,13 @@ public class UserPurchaseService {
    * @param status   The status of the purchase.
    * @param pageable This is the pageable object that is passed in from the
    *                 controller.
-   * @return A Page of UserPurchaseResponseDTOs.
+   * @return A Page of UserOrderSummaryResponseDTOs.
    */
-  public Page<UserPurchaseResponseDTO> searchUserPurchasesByStatus(PurchaseStatus status, Pageable pageable) {
+  @ReadOnlyTransactional
+  public Page<UserOrderSummaryResponseDTO> searchUserPurchasesByStatus(PurchaseStatus status, Pageable pageable) {
     // This is getting the user from the security context.
     UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication()
         .getPrincipal();
-    User user = userRepository.findById(userDetails.getId())
-        .orElseThrow(() -> new UserPurchaseException("Could not find user, id: " + userDetails.getId()));
 
     // Checking if the page number is less than 0 or the page size is less than 1.
     // If it is, it throws an exception.
@@ -149,14 +182,15 @@ public class UserPurchaseService {
       throw new UserPurchaseException("Invalid page request");
     }
 
-    Page<UserPurchase> userPurchase = userPurchaseRepository.findBypurchaseStatusAndUser(status, user, pageable);
+    Page<UserOrderSummary> orders = userOrderSummaryRepository
+        .findByUserIdAndPurchaseStatusOrderByPurchaseDateDescIdDesc(userDetails.getId(), status, pageable);
 
-    if (userPurchase == null || userPurchase.isEmpty()) {
+    if (orders == null || orders.isEmpty()) {
       throw new UserPurchaseException(
-          "No UserPurchase found for User: " + user.getUsername() + " and status: " + status);
+          "No UserPurchase found for User: " + userDetails.getUsername() + " and status: " + status);
     }
 
-    return userPurchase.map(UserPurchaseResponseDTO::new);
+    return orders.map(UserOrderSummaryResponseDTO::new);
   }
 
   /**
@@ -171,6 +205,8 @@ public class UserPurchaseService {
    */
   @Transactional
   public UserPurchaseResponseDTO createOrder(UserPurchaseRequestDTO purchaseRequest) {
+    CheckoutEvent checkout = new CheckoutEvent();
+    checkout.begin();
 
     // This is getting the user from the security context.
     UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication()
@@ -182,15 +218,21 @@ public class UserPurchaseService {
     userPurchase.setUser(user);
     userPurchase.setPurchaseStatus(PurchaseStatus.PENDING);
     userPurchase.setPurchaseDate(LocalDate.now());
+    userPurchase.setReservedUntil(orderReservationService.reservationDeadline());
 
     List<Purchase> purchases = new ArrayList<>();
 
+    long stockCheckStart = System.nanoTime();
     purchaseRequest.getPurchases().stream().forEach(p -> purchases.add(fromPurchaseProductRequestDTO(p)));
+    updateProductStock(purchases);
+    long stockCheckNanos = System.nanoTime() - stockCheckStart;
 
-    BigDecimal totalPrice = purchases.stream()
-        .map(p -> p.getUnitPrice().multiply(p.getQuantity()))
-        .reduce(BigDecimal.ZERO, BigDecimal::add);
-    userPurchase.setTotalPrice(totalPrice);
+    long totalPriceCents = 0;
+    for (Purchase purchase : purchases) {
+      totalPriceCents = Math.addExact(totalPriceCents,
+          Money.times(purchase.getUnitPriceCents(), purchase.getQuantity()));
+    }
+    userPurchase.setTotalPriceCents(totalPriceCents);
 
     userPurchase = userPurchaseRepository.save(userPurchase);
 
@@ -199,42 +241,81 @@ public class UserPurchaseService {
       purchaseRepository.save(purchase);
     }
 
-    // Send email notification
     List<String> productNames = purchases.stream().map(p -> p.getProduct().getName()).collect(Collectors.toList());
+    userOrderSummaryRepository.save(toOrderSummary(userPurchase, productNames));
+    salesRollupService.recordOrder(userPurchase, purchases);
+    // The client reads its new order right after checkout.
+    readYourWrites.afterCommit(user.getId());
+
+    // Send email notification
     String productList = String.join(", ", productNames);
     String confirmationMessage = "Sua compra foi concluída com sucesso. Produtos comprados: " + productList
-        + ". Status: " + userPurchase.getPurchaseStatus().getMensagem() + ". Valor total: " + userPurchase.getTotalPrice()
+        + ". Status: " + userPurchase.getPurchaseStatus().getMensagem() + ". Valor total: " + Money.fromCents(totalPriceCents)
         + ".";
 
-    mailConfig.sendEmail(user.getEmail(), "Thank you for your purchase", confirmationMessage);
+    // Sent after commit; a failing SMTP server does not stop the checkout.
+    eventPublisher.publishEvent(new MailRequestedEvent(user.getEmail(), "Thank you for your purchase",
+        confirmationMessage));
 
+    checkout.end();
+    if (checkout.shouldCommit()) {
+      checkout.setItems(purchases.size());
+      checkout.setTotalCents(totalPriceCents);
+      checkout.setStockCheckNanos(stockCheckNanos);
+      checkout.commit();
+    }
     return new UserPurchaseResponseDTO(userPurchase, purchases);
   }
 
   /**
-   * It updates the stock of a product by subtracting the quantity of the product
-   * that was purchased
+   * It builds the order history row for a new order, keeping the first product
+   * names only
    * 
-   * @param purchaseProduct This is the product that the user is trying to
-   *                        purchase.
-   * @param product         The product that the user is purchasing
+   * @param userPurchase The saved order.
+   * @param productNames The names of the purchased products, in order.
+   * @return A UserOrderSummary object.
    */
-  @Transactional
-  private void updateProductStock(PurchaseRequestUserPurchaseDTO purchaseProduct, Product product) {
-    BigDecimal newStockQuantity = new BigDecimal(product.getStock()).subtract(purchaseProduct.getQuantity());
-    if (newStockQuantity.compareTo(BigDecimal.ZERO) < 0) {
-      throw new UserPurchaseException("Insufficient stock for product with id " + product.getId());
+  private UserOrderSummary toOrderSummary(UserPurchase userPurchase, List<String> productNames) {
+    String names = productNames.stream().limit(SUMMARY_PRODUCT_NAMES).collect(Collectors.joining(", "));
+    if (names.length() > SUMMARY_PRODUCT_NAMES_LENGTH) {
+      names = names.substring(0, SUMMARY_PRODUCT_NAMES_LENGTH);
     }
-    product.setStock(newStockQuantity.intValueExact());
-    productRepository.save(product);
+    UserOrderSummary summary = new UserOrderSummary();
+    summary.setUserPurchaseId(userPurchase.getId());
+    summary.setUserId(userPurchase.getUser().getId());
+    summary.setPurchaseStatus(userPurchase.getPurchaseStatus());
+    summary.setTotalPriceCents(userPurchase.getTotalPriceCents());
+    summary.setPurchaseDate(userPurchase.getPurchaseDate());
+    summary.setLineCount(productNames.size());
+    summary.setProductNames(names);
+    return summary;
+  }
+
+  /**
+   * It takes the purchased quantities from the stock of the products, in
+   * product id order like the reservation sweeper. Each product is decremented
+   * in SQL only if it has enough stock, so stock returned meanwhile by another
+   * transaction is never overwritten.
+   * 
+   * @param purchases The order lines.
+   */
+  private void updateProductStock(List<Purchase> purchases) {
+    Map<UUID, Integer> quantities = new TreeMap<>();
+    for (Purchase purchase : purchases) {
+      quantities.merge(purchase.getProduct().getId(), purchase.getQuantity(), Math::addExact);
+    }
+    quantities.forEach((productId, quantity) -> {
+      if (productRepository.takeStock(productId, quantity) == 0) {
+        throw new UserPurchaseException("Insufficient stock for product with id " + productId);
+      }
+      eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.STOCK, productId));
+    });
   }
 
   /**
    * It takes a PurchaseRequestUserPurchaseDTO object, finds the product in the
-   * database, updates the
-   * product stock, creates a new Purchase object, sets the product, unit price,
-   * and quantity, and
-   * returns the Purchase object
+   * database, creates a new Purchase object, sets the product, unit price, and
+   * quantity, and returns the Purchase object
    * 
    * @param purchaseProduct PurchaseRequestUserPurchaseDTO
    * @return A Purchase object.
@@ -243,10 +324,9 @@ public class UserPurchaseService {
   private Purchase fromPurchaseProductRequestDTO(PurchaseRequestUserPurchaseDTO purchaseProduct) {
     Product product = productRepository.findById(purchaseProduct.getProduct().getId()).orElseThrow(
         () -> new UserPurchaseException("Product not found with id " + purchaseProduct.getProduct().getId()));
-    updateProductStock(purchaseProduct, product);
     Purchase purchase = new Purchase();
     purchase.setProduct(product);
-    purchase.setUnitPrice(new BigDecimal(product.getPrice()));
+    purchase.setUnitPriceCents(product.getPriceCents());
     purchase.setQuantity(purchaseProduct.getQuantity());
     return purchase;
   }
@@ -260,7 +340,8 @@ public class UserPurchaseService {
    */
   @Transactional
   public UserPurchaseResponseDTO updateOrderStatus(UUID id, PurchaseStatus statusRequest) {
-    UserPurchase userPurchase = userPurchaseRepository.findById(id)
+    // Locked so the reservation sweeper cannot cancel the order meanwhile.
+    UserPurchase userPurchase = userPurchaseRepository.findByIdForUpdate(id)
         .orElseThrow(() -> new UserPurchaseException("Could not find Order, id: " + id));
 
     if (userPurchase.getPurchaseStatus() == PurchaseStatus.CANCELED) {
@@ -269,21 +350,88 @@ public class UserPurchaseService {
 
     if (statusRequest == PurchaseStatus.CANCELED && userPurchase.getPurchaseStatus() != PurchaseStatus.CANCELED) {
       returnProductStock(userPurchase.getPurchases());
+      salesRollupService.recordCancellation(userPurchase);
     }
 
     userPurchase.setPurchaseStatus(statusRequest);
+    if (statusRequest != PurchaseStatus.PENDING) {
+      userPurchase.setReservedUntil(null);
+    }
     userPurchase = userPurchaseRepository.save(userPurchase);
+    userOrderSummaryRepository.updateStatus(id, statusRequest);
+    eventPublisher.publishEvent(new OrderStatusChangedEvent(userPurchase.getUser().getId(), id, statusRequest,
+        Instant.now()));
 
     // Email notification
     String pattern = "dd/MM/yyyy HH:mm:ss";
     DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern);
     String mensagem = String.format("Status do pedido atualizado para '%s' às %s",
         statusRequest.getMensagem(), LocalDateTime.now().format(formatter));
-    mailConfig.sendEmail(userPurchase.getUser().getEmail(), "Update on your purchase", mensagem);
+    eventPublisher.publishEvent(
+        new MailRequestedEvent(userPurchase.getUser().getEmail(), "Update on your purchase", mensagem));
 
     return new UserPurchaseResponseDTO(userPurchase);
   }
 
+  /**
+   * It moves many orders to the same status at once. The orders are locked and
+   * checked with one query, the status and the order history change with one
+   * update each, and a cancellation returns the stock with one update per
+   * product. Each owner is e-mailed once, through the mail executor after
+   * commit.
+   * 
+   * @param ids           The ids of the orders.
+   * @param statusRequest The new status.
+   * @return The number of orders updated.
+   */
+  @Transactional
+  public int updateOrdersStatus(List<UUID> ids, PurchaseStatus statusRequest) {
+    Set<UUID> distinctIds = new HashSet<>(ids);
+    List<LockedOrder> orders = userPurchaseRepository.lockOrders(distinctIds);
+
+    if (orders.size() != distinctIds.size()) {
+      Set<UUID> missing = new HashSet<>(distinctIds);
+      orders.forEach(o -> missing.remove(o.getId()));
+      throw new UserPurchaseException("Could not find Orders, ids: " + missing);
+    }
+    List<UUID> canceled = orders.stream()
+        .filter(o -> PurchaseStatus.CANCELED.name().equals(o.getPurchaseStatus()))
+        .map(LockedOrder::getId).collect(Collectors.toList());
+    if (!canceled.isEmpty()) {
+      throw new UserPurchaseException(
+          "Purchases already canceled, impossible to change the status, ids: " + canceled);
+    }
+
+    if (statusRequest == PurchaseStatus.CANCELED) {
+      List<UUID> productIds = productRepository.lockProductsOfOrders(distinctIds);
+      productRepository.returnStockOfOrders(distinctIds);
+      salesRollupService.recordCancellations(distinctIds);
+      productIds.forEach(productId -> eventPublisher
+          .publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.STOCK, productId)));
+    }
+    int updated = statusRequest == PurchaseStatus.PENDING
+        ? userPurchaseRepository.updateStatus(distinctIds, statusRequest)
+        : userPurchaseRepository.updateStatusAndClearReservation(distinctIds, statusRequest);
+    userOrderSummaryRepository.updateStatus(distinctIds, statusRequest);
+
+    Instant changedAt = Instant.now();
+    Set<UUID> userIds = new HashSet<>();
+    for (LockedOrder order : orders) {
+      userIds.add(order.getUserId());
+      eventPublisher.publishEvent(new OrderStatusChangedEvent(order.getUserId(), order.getId(), statusRequest,
+          changedAt));
+    }
+
+    String pattern = "dd/MM/yyyy HH:mm:ss";
+    DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern);
+    String mensagem = String.format("Status do pedido atualizado para '%s' às %s",
+        statusRequest.getMensagem(), LocalDateTime.now().format(formatter));
+    for (String email : userRepository.findEmailsByIdIn(userIds)) {
+      eventPublisher.publishEvent(new MailRequestedEvent(email, "Update on your purchase", mensagem));
+    }
+    return updated;
+  }
+
   /**
    * It returns the stock of the products purchased by the user
    * 
@@ -291,12 +439,17 @@ public class UserPurchaseService {
    */
   @Transactional
   private void returnProductStock(List<Purchase> purchases) {
+    Map<UUID, Integer> quantities = new TreeMap<>();
     for (Purchase purchase : purchases) {
-      Product product = productRepository.findById(purchase.getProduct().getId())
-          .orElseThrow(() -> new UserPurchaseException("Product not found, id: " + purchase.getProduct().getId()));
-      product.setStock(new BigDecimal(product.getStock()).add(purchase.getQuantity()).intValueExact());
-      productRepository.save(product);
+      quantities.merge(purchase.getProduct().getId(), purchase.getQuantity(), Math::addExact);
     }
+    // Added in SQL, in product id order, like the reservation sweeper.
+    quantities.forEach((productId, quantity) -> {
+      if (productRepository.addStock(productId, quantity) == 0) {
+        throw new UserPurchaseException("Product not found, id: " + productId);
+      }
+      eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.STOCK, productId));
+    });
   }
 
 }
@@ -7,6 +7,7 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -16,7 +17,9 @@ import br.com.yawarasolution.DTO.users.EmailChangeRequestDTO;
 import br.com.yawarasolution.DTO.users.UserRequestAdminDTO;
 import br.com.yawarasolution.DTO.users.UserRequestDTO;
 import br.com.yawarasolution.DTO.users.UserResponseDTO;
-import br.com.yawarasolution.config.MailConfig;
+import br.com.yawarasolution.datasource.ReadOnlyTransactional;
+import br.com.yawarasolution.datasource.ReadYourWrites;
+import br.com.yawarasolution.event.MailRequestedEvent;
 import br.com.yawarasolution.exception.CategoryException;
 import br.com.yawarasolution.exception.UserException;
 import br.com.yawarasolution.model.EmailChangeRequest;
@@ -35,7 +38,7 @@ public class UserService {
   private PasswordEncoder encoder;
 
   @Autowired
-  private MailConfig mailConfig;
+  private ApplicationEventPublisher eventPublisher;
 
   @Autowired
   private EmailChangeRequestRepository emailChangeRequestRepository;
@@ -43,11 +46,15 @@ public class UserService {
   @Autowired
   private FirebaseFileService firebaseFileService;
 
+  @Autowired
+  private ReadYourWrites readYourWrites;
+
   /**
    * It gets the user from the database and returns it as a UserResponseDTO
    * 
    * @return UserResponseDTO
    */
+  @ReadOnlyTransactional
   public UserResponseDTO findLoggedUser() {
     UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication()
         .getPrincipal();
@@ -61,6 +68,7 @@ public class UserService {
    * 
    * @return A list of UserResponseDTO objects.
    */
+  @ReadOnlyTransactional
   public List<UserResponseDTO> findAllUsers() {
     return userRepository.findAll().stream()
         .map(UserResponseDTO::new).collect(Collectors.toList());
@@ -73,6 +81,7 @@ public class UserService {
    * @param id The id of the user to be found
    * @return A UserResponseDTO object.
    */
+  @ReadOnlyTransactional
   public UserResponseDTO findUserById(UUID id) {
     return userRepository.findById(id).map(UserResponseDTO::new)
         .orElseThrow(() -> new UserException("Could not find user, id= " + id));
@@ -86,6 +95,7 @@ public class UserService {
    * @param email the email of the user you want to find
    * @return A UserResponseDTO object.
    */
+  @ReadOnlyTransactional
   public UserResponseDTO findUserByEmail(String email) {
     User user = userRepository.findByEmail(email);
     if (user == null) {
@@ -102,6 +112,7 @@ public class UserService {
    * @param username The username of the user to be found.
    * @return UserResponseDTO
    */
+  @ReadOnlyTransactional
   public UserResponseDTO findUserByUsername(String username) {
     return userRepository.findByUsername(username).map(UserResponseDTO::new)
         .orElseThrow(() -> new UserException("Could not find user, username= " + username));
@@ -175,10 +186,11 @@ public class UserService {
     user.setUpdatedAt(Instant.now());
     user.setTelefone(userRequest.getTelefone());
     user = userRepository.save(user);
+    readYourWrites.afterCommit(user.getId());
 
     String message = "Attention! Your account information has been changed. Please contact us if these changes were not made by you.";
 
-    mailConfig.sendEmail(user.getEmail(), "Credentials update", message);
+    eventPublisher.publishEvent(new MailRequestedEvent(user.getEmail(), "Credentials update", message));
 
     return new UserResponseDTO(user);
 
@@ -222,8 +234,7 @@ public class UserService {
         "http://localhost:8080/api/update/email/confirm?code=" + confirmationCode + "\n" +
         "or by entering the activation code: " + confirmationCode;
 
-    // Use JavaMailSender to send the email
-    mailConfig.sendEmail(emailChangeRequest.getEmail(), "Confirm your Email", message);
+    eventPublisher.publishEvent(new MailRequestedEvent(emailChangeRequest.getEmail(), "Confirm your Email", message));
   }
 
   /**
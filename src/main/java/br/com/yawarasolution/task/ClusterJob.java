@@ -0,0 +1,42 @@
+package br.com.yawarasolution.task;
+
+import java.time.Duration;
+
+/**
+ * A scheduled job that runs on one instance at a time, through
+ * ClusterJobRunner.
+ *
+ * The work is split in chunks. Each chunk runs in its own transaction, which
+ * also saves the cursor it returns, so a run stopped by its time limit, a
+ * failure or a shutdown resumes after the last committed chunk.
+ */
+public interface ClusterJob {
+
+  /**
+   * It returns the name of the job, unique among the jobs, used for its lock
+   * and its row in scheduled_job
+   *
+   * @return The name of the job.
+   */
+  String getName();
+
+  /**
+   * It returns the trigger window of the job: a run started less than this
+   * before a trigger is taken as the run of that trigger on another instance,
+   * and the trigger is skipped. It must be longer than the clock and scheduler
+   * drift between instances and shorter than the time between two triggers.
+   *
+   * @return The trigger window of the job.
+   */
+  Duration getTriggerWindow();
+
+  /**
+   * It runs one chunk of the job, inside the transaction of the chunk
+   *
+   * @param cursor    Where the previous chunk stopped, or null at the start.
+   * @param chunkSize The most rows the chunk should touch.
+   * @return A JobChunk object.
+   */
+  JobChunk runChunk(String cursor, int chunkSize);
+
+}
@@ -0,0 +1,261 @@
+package br.com.yawarasolution.task;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.yawarasolution.DTO.diagnostics.ScheduledJobResponseDTO;
+import br.com.yawarasolution.model.ScheduledJob;
+import br.com.yawarasolution.repository.ScheduledJobRepository;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs the ClusterJob beans so that each job runs on one instance at a time,
+ * whichever instance's scheduler fires first.
+ *
+ * A triggered job is handed to the job executor, so the scheduler thread
+ * never waits on it. The run first takes a Postgres transaction advisory lock
+ * named after the job, in a transaction on a connection of its own that stays
+ * open until the end; instances that do not get the lock skip the run. The
+ * lock goes with that transaction: it is released when the run rolls it back,
+ * when the pool resets the connection if that failed, or by Postgres if the
+ * instance holding it dies, so a pooled connection can never keep it. The
+ * transaction only runs that one statement, so it holds back no vacuum.
+ *
+ * With the lock held, the run is skipped if scheduled_job shows a run started
+ * within the job's trigger window, so an instance whose scheduler fires after
+ * another one's run has finished does not run the job a second time. The
+ * chunks then run one transaction each until the job is done or the run is
+ * over its time limit, and the run's start, duration, rows and outcome are
+ * kept in scheduled_job.
+ */
+@Component
+public class ClusterJobRunner {
+
+  private static final Logger logger = LoggerFactory.getLogger(ClusterJobRunner.class);
+
+  /** First key of the advisory locks of the jobs; the second is the hash of the name. */
+  private static final int LOCK_NAMESPACE = 0x59415741;
+
+  private static final int MAX_ERROR_LENGTH = 1000;
+
+  private final String nodeId = ManagementFactory.getRuntimeMXBean().getName();
+
+  private final Set<String> runningHere = ConcurrentHashMap.newKeySet();
+
+  @Autowired
+  private List<ClusterJob> jobs;
+
+  @Autowired
+  private ScheduledJobRepository scheduledJobRepository;
+
+  @Autowired
+  private DataSource dataSource;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  @Qualifier("jobExecutor")
+  private Executor jobExecutor;
+
+  @Value("${yamarasolution.jobs.chunk-size:500}")
+  private int chunkSize;
+
+  @Value("${yamarasolution.jobs.max-run-ms:60000}")
+  private long maxRunMs;
+
+  private volatile boolean stopping;
+
+  /**
+   * It starts a run of a job on the job executor, unless the job is already
+   * running on this instance or the executor is full. The trigger window of
+   * the run starts now.
+   *
+   * @param name The name of the job.
+   * @return True if the run was started.
+   */
+  public boolean trigger(String name) {
+    ClusterJob job = jobs.stream().filter(j -> j.getName().equals(name)).findFirst()
+        .orElseThrow(() -> new IllegalArgumentException("Unknown job " + name));
+    if (!runningHere.add(name)) {
+      logger.debug("{} is still running on this instance, trigger skipped", name);
+      return false;
+    }
+    Instant triggeredAt = Instant.now();
+    try {
+      jobExecutor.execute(() -> {
+        try {
+          run(job, triggeredAt);
+        } finally {
+          runningHere.remove(name);
+        }
+      });
+      return true;
+    } catch (RejectedExecutionException e) {
+      runningHere.remove(name);
+      logger.warn("Job executor is full, {} skipped until its next trigger", name);
+      return false;
+    }
+  }
+
+  /**
+   * It returns the last run of every job that has run, by name
+   *
+   * @return A list of ScheduledJobResponseDTO.
+   */
+  public List<ScheduledJobResponseDTO> getJobs() {
+    return scheduledJobRepository.findAll(Sort.by("name")).stream()
+        .map(ScheduledJobResponseDTO::new).collect(Collectors.toList());
+  }
+
+  /**
+   * On shutdown, stop the running jobs after their current chunk.
+   */
+  @PreDestroy
+  public void stop() {
+    stopping = true;
+  }
+
+  private void run(ClusterJob job, Instant triggeredAt) {
+    try (Connection lockConnection = dataSource.getConnection()) {
+      lockConnection.setAutoCommit(false);
+      try {
+        if (!tryLock(lockConnection, job.getName())) {
+          logger.debug("{} is running on another instance, run skipped", job.getName());
+          return;
+        }
+        execute(job, triggeredAt.minus(job.getTriggerWindow()));
+      } finally {
+        // Ends the transaction and with it the lock.
+        lockConnection.rollback();
+      }
+    } catch (SQLException e) {
+      logger.warn("Could not take or release the lock of {}: {}", job.getName(), e.getMessage());
+    }
+  }
+
+  /**
+   * It tries to take the job's advisory lock for the connection's current
+   * transaction
+   *
+   * @param connection The connection holding the lock, not in auto-commit.
+   * @param name       The name of the job.
+   * @return True if the lock was taken.
+   * @throws SQLException If the statement failed.
+   */
+  private static boolean tryLock(Connection connection, String name) throws SQLException {
+    try (PreparedStatement statement = connection
+        .prepareStatement("SELECT pg_try_advisory_xact_lock(?, hashtext(?))")) {
+      statement.setInt(1, LOCK_NAMESPACE);
+      statement.setString(2, name);
+      try (ResultSet result = statement.executeQuery()) {
+        return result.next() && result.getBoolean(1);
+      }
+    }
+  }
+
+  /**
+   * It runs the chunks of a job, with the lock held, and records the run,
+   * unless a run started after the start of the trigger window
+   *
+   * @param job         The job.
+   * @param windowStart The start of the trigger window.
+   */
+  private void execute(ClusterJob job, Instant windowStart) {
+    TransactionTemplate template = new TransactionTemplate(transactionManager);
+    String name = job.getName();
+    long started = System.nanoTime();
+    long deadline = started + TimeUnit.MILLISECONDS.toNanos(maxRunMs);
+
+    ScheduledJob start = template.execute(status -> {
+      ScheduledJob state = scheduledJobRepository.findById(name).orElseGet(ScheduledJob::new);
+      if (state.getLastStartedAt() != null && state.getLastStartedAt().isAfter(windowStart)) {
+        return null;
+      }
+      state.setName(name);
+      state.setLastStartedAt(Instant.now());
+      state.setLastStatus(ScheduledJob.RUNNING);
+      state.setLastNode(nodeId);
+      state.setLastError(null);
+      return scheduledJobRepository.save(state);
+    });
+    if (start == null) {
+      logger.debug("{} already ran in this trigger window, run skipped", name);
+      return;
+    }
+    String cursor = start.getResumeCursor();
+    if (cursor != null) {
+      logger.info("{} resumes from {}", name, cursor);
+    }
+
+    long rows = 0;
+    String outcome = ScheduledJob.PARTIAL;
+    String error = null;
+    try {
+      while (true) {
+        String from = cursor;
+        JobChunk chunk = template.execute(status -> {
+          JobChunk result = job.runChunk(from, chunkSize);
+          scheduledJobRepository.saveCursor(name, result.isDone() ? null : result.getCursor());
+          return result;
+        });
+        rows += chunk.getRows();
+        cursor = chunk.getCursor();
+        if (chunk.isDone()) {
+          outcome = ScheduledJob.SUCCEEDED;
+          break;
+        }
+        if (stopping || System.nanoTime() > deadline) {
+          break;
+        }
+      }
+    } catch (RuntimeException e) {
+      // The chunks committed so far stay, the next run resumes after them.
+      outcome = ScheduledJob.FAILED;
+      error = e.getMessage();
+      logger.error("{} failed after {} rows", name, rows, e);
+    }
+
+    long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+    long rowsAffected = rows;
+    String lastStatus = outcome;
+    String lastError = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH)
+        : error;
+    template.executeWithoutResult(status -> scheduledJobRepository.findById(name).ifPresent(state -> {
+      state.setLastFinishedAt(Instant.now());
+      state.setLastDurationMs(durationMs);
+      state.setLastRowsAffected(rowsAffected);
+      state.setLastStatus(lastStatus);
+      state.setLastError(lastError);
+    }));
+    if (ScheduledJob.PARTIAL.equals(outcome)) {
+      logger.warn("{} stopped after {}ms and {} rows, the next run resumes it", name, durationMs, rows);
+    } else if (ScheduledJob.SUCCEEDED.equals(outcome)) {
+      logger.info("{} finished in {}ms, {} rows", name, durationMs, rows);
+    }
+  }
+
+}
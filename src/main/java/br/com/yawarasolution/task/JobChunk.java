@@ -0,0 +1,29 @@
+package br.com.yawarasolution.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The result of one chunk of a ClusterJob: the rows it affected and, unless
+ * the job is done, where the next chunk starts. Jobs that need no cursor,
+ * e.g. a purge that deletes the first rows matching, return null.
+ */
+@Getter
+@AllArgsConstructor
+public class JobChunk {
+
+  private final int rows;
+
+  private final String cursor;
+
+  private final boolean done;
+
+  public static JobChunk next(int rows, String cursor) {
+    return new JobChunk(rows, cursor, false);
+  }
+
+  public static JobChunk done(int rows) {
+    return new JobChunk(rows, null, true);
+  }
+
+}
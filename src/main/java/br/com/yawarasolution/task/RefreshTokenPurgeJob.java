@@ -0,0 +1,43 @@
+package br.com.yawarasolution.task;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import br.com.yawarasolution.service.RefreshTokenService;
+
+/**
+ * Deletes the expired refresh tokens, a chunk per statement. The tokens
+ * deleted by a chunk no longer match, so the job needs no cursor to resume.
+ */
+@Component
+public class RefreshTokenPurgeJob implements ClusterJob {
+
+  public static final String NAME = "refresh-token-purge";
+
+  @Autowired
+  private RefreshTokenService refreshTokenService;
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  /**
+   * The job is triggered once a week, so a run started within the hour before
+   * a trigger is the run of that same trigger on another instance.
+   */
+  @Override
+  public Duration getTriggerWindow() {
+    return Duration.ofHours(1);
+  }
+
+  @Override
+  public JobChunk runChunk(String cursor, int chunkSize) {
+    int deleted = refreshTokenService.deleteExpiredRefreshTokens(Instant.now(), chunkSize);
+    return deleted < chunkSize ? JobChunk.done(deleted) : JobChunk.next(deleted, null);
+  }
+
+}
@@ -5,23 +5,47 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import br.com.yawarasolution.service.RefreshTokenService;
+import br.com.yawarasolution.service.IdempotencyService;
+import br.com.yawarasolution.service.OrderReservationService;
 
 @Component
 @EnableScheduling
 public class ScheduledTask {
 
   @Autowired
-  private RefreshTokenService refreshTokenService;
+  private ClusterJobRunner clusterJobRunner;
+
+  @Autowired
+  private IdempotencyService idempotencyService;
+
+  @Autowired
+  private OrderReservationService orderReservationService;
 
   /**
-   * Every Sunday at midnight, delete all refresh tokens that have expired.
+   * Every Sunday at midnight, delete all refresh tokens that have expired, on
+   * one instance only, see ClusterJobRunner.
    * a tarefa será executada à meia-noite (0 horas, 0 minutos, 0 segundos) todos
    * os domingos.
    */
   @Scheduled(cron = "0 0 0 * * 0", zone = "America/Sao_Paulo")
   public void scheduleTaskWithCronExpression() {
-    refreshTokenService.deleteAllRefreshTokensExpired();
+    clusterJobRunner.trigger(RefreshTokenPurgeJob.NAME);
+  }
+
+  /**
+   * Every hour, delete the expired idempotency keys in one statement.
+   */
+  @Scheduled(cron = "0 15 * * * *")
+  public void purgeExpiredIdempotencyKeys() {
+    idempotencyService.purgeExpired();
+  }
+
+  /**
+   * Every minute, cancel the PENDING orders whose stock reservation expired.
+   */
+  @Scheduled(fixedDelayString = "${yamarasolution.orders.reservation-sweep-ms:60000}")
+  public void releaseExpiredReservations() {
+    orderReservationService.releaseExpiredReservations();
   }
 
 }
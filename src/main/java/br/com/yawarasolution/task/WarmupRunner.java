@@ -0,0 +1,137 @@
+package br.com.yawarasolution.task;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.yawarasolution.service.CategoryService;
+import br.com.yawarasolution.service.ProductService;
+import br.com.yawarasolution.utils.JwtUtils;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Warm-up of the main read paths before the application reports ready.
+ *
+ * Spring Boot switches readiness to ACCEPTING_TRAFFIC only after every
+ * ApplicationRunner returned, so until this one is done
+ * /actuator/health/readiness answers 503 and the pod gets no traffic. Each
+ * round lists products and categories from the database, signs and verifies
+ * a JWT and serialises the results, the same work as a catalog request. The
+ * rounds stop once the mean latency of a window of rounds is within the
+ * tolerance of the previous window, or when the duration is over.
+ */
+@Component
+@ConditionalOnProperty(name = "yamarasolution.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupRunner implements ApplicationRunner {
+
+  private static final Logger logger = LoggerFactory.getLogger(WarmupRunner.class);
+
+  private static final String WARMUP_USER = "warmup";
+
+  @Autowired
+  private ProductService productService;
+
+  @Autowired
+  private CategoryService categoryService;
+
+  @Autowired
+  private JwtUtils jwtUtils;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Value("${yamarasolution.warmup.duration-ms:30000}")
+  private long durationMs;
+
+  @Value("${yamarasolution.warmup.window:50}")
+  private int window;
+
+  @Value("${yamarasolution.warmup.tolerance:0.1}")
+  private double tolerance;
+
+  /**
+   * It refuses to start with a window of rounds that could never fill.
+   */
+  @PostConstruct
+  public void validate() {
+    if (window < 1) {
+      throw new IllegalStateException("yamarasolution.warmup.window must be at least 1, was " + window);
+    }
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    long started = System.nanoTime();
+    long deadline = started + durationMs * 1_000_000;
+    long[] previous = null;
+    long[] current = new long[window];
+    int rounds = 0;
+    long firstRoundNanos = 0;
+    try {
+      while (System.nanoTime() < deadline) {
+        long roundStart = System.nanoTime();
+        round(rounds);
+        long roundNanos = System.nanoTime() - roundStart;
+        if (rounds == 0) {
+          firstRoundNanos = roundNanos;
+        }
+        current[rounds % window] = roundNanos;
+        rounds++;
+        if (rounds % window != 0) {
+          continue;
+        }
+        if (previous != null && isStable(previous, current)) {
+          logger.info("Warm-up latency stabilised after {} rounds in {}ms: first round {}µs, now {}µs",
+              rounds, (System.nanoTime() - started) / 1_000_000, firstRoundNanos / 1000, mean(current) / 1000);
+          return;
+        }
+        previous = current.clone();
+      }
+      logger.warn("Warm-up stopped after {}ms and {} rounds without stable latency: first round {}µs, last {}µs",
+          durationMs, rounds, firstRoundNanos / 1000, rounds > 0 ? mean(current) / 1000 : 0);
+    } catch (RuntimeException | JsonProcessingException e) {
+      // A failed warm-up only leaves the application cold, it does not stop it.
+      logger.warn("Warm-up stopped after {} rounds: {}", rounds, e.getMessage());
+    }
+  }
+
+  /**
+   * It runs one synthetic catalog request
+   *
+   * @param round The number of the round, used to vary the page.
+   * @throws JsonProcessingException If a result could not be serialised.
+   */
+  private void round(int round) throws JsonProcessingException {
+    PageRequest page = PageRequest.of(round % 3, 20);
+    objectMapper.writeValueAsBytes(productService.findAllProductsPageable(true, page));
+    objectMapper.writeValueAsBytes(productService.searchProducts("a", true, page));
+    objectMapper.writeValueAsBytes(categoryService.findAllCategories());
+
+    String token = jwtUtils.generateTokenFromUsername(WARMUP_USER, UUID.randomUUID());
+    if (!jwtUtils.validateJwtToken(token) || !WARMUP_USER.equals(jwtUtils.getSubjectFromToken(token))) {
+      throw new IllegalStateException("Warm-up JWT did not verify");
+    }
+  }
+
+  private boolean isStable(long[] previous, long[] current) {
+    long previousMean = mean(previous);
+    return Math.abs(mean(current) - previousMean) <= previousMean * tolerance;
+  }
+
+  private static long mean(long[] nanos) {
+    return (long) Arrays.stream(nanos).average().orElse(0);
+  }
+
+}
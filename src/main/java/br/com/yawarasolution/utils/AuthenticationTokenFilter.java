@@ -12,7 +12,9 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import br.com.yawarasolution.jfr.AuthenticationEvent;
 import br.com.yawarasolution.service.UserDetailsServiceImpl;
+import br.com.yawarasolution.utils.RequestTimings.Phase;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -31,12 +33,32 @@ public class AuthenticationTokenFilter extends OncePerRequestFilter {
   @Override
   protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
       throws ServletException, IOException {
+    long authStart = RequestTimings.enter(Phase.AUTH);
+    String jwt = parseJwt(request);
+    // Only requests with a token are recorded, over the event's threshold.
+    AuthenticationEvent event = null;
+    if (jwt != null) {
+      event = new AuthenticationEvent();
+      event.begin();
+    }
+    long jwtNanos = 0;
+    long userNanos = 0;
+    boolean authenticated = false;
     try {
-      String jwt = parseJwt(request);
-      if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-        String username = jwtUtils.getSubjectFromToken(jwt);
-
-        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+      long jwtStart = System.nanoTime();
+      boolean valid = jwt != null && jwtUtils.validateJwtToken(jwt);
+      String username = valid ? jwtUtils.getSubjectFromToken(jwt) : null;
+      jwtNanos = System.nanoTime() - jwtStart;
+      RequestTimings.add(Phase.JWT, jwtNanos);
+      if (valid) {
+        long userStart = System.nanoTime();
+        UserDetails userDetails;
+        try {
+          userDetails = userDetailsService.loadUserByUsername(username);
+        } finally {
+          userNanos = System.nanoTime() - userStart;
+          RequestTimings.add(Phase.USER, userNanos);
+        }
 
         if (!userDetails.isEnabled()) {
           throw new IllegalStateException("Error User is not activated");
@@ -47,9 +69,21 @@ public class AuthenticationTokenFilter extends OncePerRequestFilter {
         authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
+        authenticated = true;
       }
     } catch (Exception e) {
       logger.error("Cannot set user authentication: {}", e.getMessage());
+    } finally {
+      RequestTimings.exit(Phase.AUTH, authStart);
+      if (event != null) {
+        event.end();
+        if (event.shouldCommit()) {
+          event.setParseNanos(jwtNanos);
+          event.setUserLookupNanos(userNanos);
+          event.setAuthenticated(authenticated);
+          event.commit();
+        }
+      }
     }
 
     filterChain.doFilter(request, response);
@@ -0,0 +1,104 @@
+package br.com.yawarasolution.utils;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+/**
+ * The batches of a write-behind buffer that failed to be written, retried
+ * before anything new.
+ *
+ * A batch that failed because of the database, e.g. it was down, is retried
+ * whole. A batch that failed because of its content is split in halves, so
+ * the items that can be written are, and an item that still fails on its own
+ * is given up after the maximum attempts instead of blocking every later
+ * batch. Not thread-safe: used by one flush at a time.
+ *
+ * @param <T> The buffered item.
+ */
+public class BatchRetryQueue<T> {
+
+  private final Deque<List<T>> batches = new ArrayDeque<>();
+
+  private final Map<T, Integer> attempts = new IdentityHashMap<>();
+
+  private final int maxAttempts;
+
+  public BatchRetryQueue(int maxAttempts) {
+    this.maxAttempts = Math.max(1, maxAttempts);
+  }
+
+  /**
+   * It returns the next batch to retry
+   *
+   * @return A batch, or null if there is none.
+   */
+  public List<T> poll() {
+    return batches.pollFirst();
+  }
+
+  public boolean isEmpty() {
+    return batches.isEmpty();
+  }
+
+  /**
+   * It forgets the attempts of a batch that was written
+   *
+   * @param batch The batch.
+   */
+  public void succeeded(List<T> batch) {
+    if (!attempts.isEmpty()) {
+      batch.forEach(attempts::remove);
+    }
+  }
+
+  /**
+   * It queues a batch that failed to be written again, split if the failure
+   * came from its content
+   *
+   * @param batch   The batch.
+   * @param failure Why it failed.
+   * @return The items given up, empty unless the batch was a single item over
+   *         the maximum attempts.
+   */
+  public List<T> failed(List<T> batch, RuntimeException failure) {
+    if (isTransient(failure) || batch.isEmpty()) {
+      batches.addFirst(batch);
+      return Collections.emptyList();
+    }
+    if (batch.size() > 1) {
+      int half = batch.size() / 2;
+      batches.addFirst(List.copyOf(batch.subList(half, batch.size())));
+      batches.addFirst(List.copyOf(batch.subList(0, half)));
+      return Collections.emptyList();
+    }
+    T item = batch.get(0);
+    if (attempts.merge(item, 1, Integer::sum) >= maxAttempts) {
+      attempts.remove(item);
+      return batch;
+    }
+    batches.addFirst(batch);
+    return Collections.emptyList();
+  }
+
+  /**
+   * It tells whether a failure came from the database rather than from what
+   * was written, so retrying the same batch later may work
+   *
+   * @param failure The failure.
+   * @return True if the batch should be retried as it is.
+   */
+  public static boolean isTransient(RuntimeException failure) {
+    return failure instanceof TransientDataAccessException
+        || failure instanceof RecoverableDataAccessException
+        || failure instanceof CannotCreateTransactionException;
+  }
+
+}
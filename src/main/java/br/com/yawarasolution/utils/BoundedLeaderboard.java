@@ -0,0 +1,111 @@
+package br.com.yawarasolution.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * The K highest scores seen so far, for scores that only ever grow.
+ *
+ * Members are kept in a sorted set plus an index by id, so an update costs
+ * O(log K) whatever the number of competitors. Because a score never goes
+ * down, a competitor pushed out of the top K can only come back with a
+ * higher score, which the caller always passes in full; the board is
+ * therefore exact without remembering anyone outside it.
+ */
+public final class BoundedLeaderboard {
+
+  private static final Comparator<Entry> ORDER = Comparator.comparingLong(Entry::getScore).reversed()
+      .thenComparing(Entry::getId);
+
+  private final int capacity;
+
+  private final TreeSet<Entry> ranking = new TreeSet<>(ORDER);
+
+  private final Map<UUID, Entry> members = new HashMap<>();
+
+  public BoundedLeaderboard(int capacity) {
+    this.capacity = capacity;
+  }
+
+  /**
+   * It records the current score of a competitor
+   *
+   * @param id    The competitor.
+   * @param label The name shown on the board.
+   * @param score The competitor's total, not an increment.
+   */
+  public synchronized void offer(UUID id, String label, long score) {
+    Entry current = members.get(id);
+    if (current != null) {
+      if (score <= current.score) {
+        return;
+      }
+      ranking.remove(current);
+    } else if (ranking.size() >= capacity) {
+      Entry last = ranking.last();
+      if (ORDER.compare(new Entry(id, label, score), last) >= 0) {
+        return;
+      }
+      ranking.pollLast();
+      members.remove(last.id);
+    }
+    Entry entry = new Entry(id, label, score);
+    ranking.add(entry);
+    members.put(id, entry);
+  }
+
+  /**
+   * It returns a slice of the board, best first
+   *
+   * @param offset How many entries to skip.
+   * @param limit  How many entries to return at most.
+   * @return The entries.
+   */
+  public synchronized List<Entry> slice(long offset, int limit) {
+    List<Entry> result = new ArrayList<>(Math.min(limit, ranking.size()));
+    Iterator<Entry> it = ranking.iterator();
+    for (long i = 0; i < offset && it.hasNext(); i++) {
+      it.next();
+    }
+    while (result.size() < limit && it.hasNext()) {
+      result.add(it.next());
+    }
+    return result;
+  }
+
+  public synchronized int size() {
+    return ranking.size();
+  }
+
+  public static final class Entry {
+
+    private final UUID id;
+    private final String label;
+    private final long score;
+
+    private Entry(UUID id, String label, long score) {
+      this.id = id;
+      this.label = label;
+      this.score = score;
+    }
+
+    public UUID getId() {
+      return id;
+    }
+
+    public String getLabel() {
+      return label;
+    }
+
+    public long getScore() {
+      return score;
+    }
+  }
+
+}
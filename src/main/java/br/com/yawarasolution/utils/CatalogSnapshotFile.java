@@ -0,0 +1,120 @@
+package br.com.yawarasolution.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binary file holding the rendered catalog documents together with the
+ * catalog version they were rendered at.
+ *
+ * Layout: magic (int), format (int), catalog version (long), entry count
+ * (int), then per entry: key length (short) and UTF-8 key, identity length
+ * (int) and bytes, gzip length (int) and bytes.
+ */
+public final class CatalogSnapshotFile {
+
+  private static final int MAGIC = 0x59574353;
+
+  private static final int FORMAT = 1;
+
+  private final long catalogVersion;
+
+  private final Map<String, PrecompressedJson> documents;
+
+  public CatalogSnapshotFile(long catalogVersion, Map<String, PrecompressedJson> documents) {
+    this.catalogVersion = catalogVersion;
+    this.documents = documents;
+  }
+
+  public long getCatalogVersion() {
+    return catalogVersion;
+  }
+
+  public Map<String, PrecompressedJson> getDocuments() {
+    return documents;
+  }
+
+  /**
+   * It writes the snapshot to a temporary file next to the target and moves it
+   * into place, so a crash never leaves a half-written snapshot behind
+   *
+   * @param file The target file.
+   */
+  public void write(Path file) throws IOException {
+    Path dir = file.toAbsolutePath().getParent();
+    Files.createDirectories(dir);
+    Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+    try (OutputStream fileOut = Files.newOutputStream(tmp);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut, 64 * 1024))) {
+      out.writeInt(MAGIC);
+      out.writeInt(FORMAT);
+      out.writeLong(catalogVersion);
+      out.writeInt(documents.size());
+      for (Map.Entry<String, PrecompressedJson> entry : documents.entrySet()) {
+        byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+        out.writeShort(key.length);
+        out.write(key);
+        out.writeInt(entry.getValue().getIdentity().length);
+        out.write(entry.getValue().getIdentity());
+        out.writeInt(entry.getValue().getGzip().length);
+        out.write(entry.getValue().getGzip());
+      }
+    }
+    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * It maps the file into memory and reads the snapshot back
+   *
+   * @param file The snapshot file.
+   * @return The snapshot, or null if the file is missing or not a valid
+   *         snapshot.
+   */
+  public static CatalogSnapshotFile read(Path file) throws IOException {
+    if (!Files.isRegularFile(file)) {
+      return null;
+    }
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT) {
+        return null;
+      }
+      long version = buffer.getLong();
+      int count = buffer.getInt();
+      Map<String, PrecompressedJson> documents = new HashMap<>();
+      for (int i = 0; i < count; i++) {
+        String key = new String(bytes(buffer, buffer.getShort()), StandardCharsets.UTF_8);
+        byte[] identity = bytes(buffer, buffer.getInt());
+        byte[] gzip = bytes(buffer, buffer.getInt());
+        documents.put(key, PrecompressedJson.of(identity, gzip));
+      }
+      return new CatalogSnapshotFile(version, Collections.unmodifiableMap(documents));
+    } catch (BufferUnderflowException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private static byte[] bytes(ByteBuffer buffer, int length) {
+    if (length < 0 || length > buffer.remaining()) {
+      throw new IllegalArgumentException("Corrupt snapshot entry");
+    }
+    byte[] bytes = new byte[length];
+    buffer.get(bytes);
+    return bytes;
+  }
+
+}
@@ -0,0 +1,59 @@
+package br.com.yawarasolution.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram with fixed bucket bounds, cheap enough to record on
+ * every connection borrow.
+ */
+public final class Histogram {
+
+  /** Bucket bounds for durations in milliseconds. */
+  public static final long[] MILLIS = { 1, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000 };
+
+  private final long[] bounds;
+
+  private final LongAdder[] counts;
+
+  /**
+   * @param bounds The inclusive upper bound of every bucket, ascending; values
+   *               above the last bound go to an overflow bucket.
+   */
+  public Histogram(long[] bounds) {
+    this.bounds = bounds.clone();
+    this.counts = new LongAdder[bounds.length + 1];
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * It counts a value in its bucket
+   *
+   * @param value The value to count.
+   */
+  public void record(long value) {
+    int i = 0;
+    while (i < bounds.length && value > bounds[i]) {
+      i++;
+    }
+    counts[i].increment();
+  }
+
+  /**
+   * It returns the count of every bucket, labelled by its upper bound
+   *
+   * @return The counts, e.g. {"<=1": 10, "<=5": 3, ..., ">10000": 0}.
+   */
+  public Map<String, Long> snapshot() {
+    Map<String, Long> snapshot = new LinkedHashMap<>();
+    for (int i = 0; i < bounds.length; i++) {
+      snapshot.put("<=" + bounds[i], counts[i].sum());
+    }
+    snapshot.put(">" + bounds[bounds.length - 1], counts[bounds.length].sum());
+    return snapshot;
+  }
+
+}
@@ -0,0 +1,52 @@
+package br.com.yawarasolution.utils;
+
+import java.math.BigDecimal;
+
+/**
+ * Amounts of money kept as a long number of cents.
+ *
+ * Prices and totals are stored and added up as cents so the order pipeline
+ * works on primitives; they become BigDecimal only when read from or written
+ * to the API.
+ */
+public final class Money {
+
+  public static final int SCALE = 2;
+
+  private Money() {
+  }
+
+  /**
+   * It converts an amount given by the API to cents
+   *
+   * @param amount The amount, with at most two decimal places.
+   * @return The amount in cents.
+   * @throws ArithmeticException If the amount has more than two decimal places
+   *                             or does not fit in a long.
+   */
+  public static long toCents(BigDecimal amount) {
+    return amount.setScale(SCALE).unscaledValue().longValueExact();
+  }
+
+  /**
+   * It converts cents to an amount for the API
+   *
+   * @param cents The amount in cents.
+   * @return The amount with two decimal places, or null for null.
+   */
+  public static BigDecimal fromCents(Long cents) {
+    return cents == null ? null : BigDecimal.valueOf(cents, SCALE);
+  }
+
+  /**
+   * It returns the price of a line, failing instead of overflowing
+   *
+   * @param unitCents The unit price in cents.
+   * @param quantity  The quantity.
+   * @return The line total in cents.
+   */
+  public static long times(long unitCents, int quantity) {
+    return Math.multiplyExact(unitCents, quantity);
+  }
+
+}
@@ -0,0 +1,110 @@
+package br.com.yawarasolution.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * An immutable JSON document kept both as plain bytes and gzip-compressed
+ * bytes, ready to be copied to the response without serialising again.
+ */
+public final class PrecompressedJson {
+
+  private final byte[] identity;
+
+  private final byte[] gzip;
+
+  private PrecompressedJson(byte[] identity, byte[] gzip) {
+    this.identity = identity;
+    this.gzip = gzip;
+  }
+
+  /**
+   * It compresses the given JSON bytes and keeps both representations
+   *
+   * @param json The serialised JSON document.
+   * @return A PrecompressedJson object.
+   */
+  public static PrecompressedJson of(byte[] json) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+    try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+      gzipOut.write(json);
+    }
+    return new PrecompressedJson(json, out.toByteArray());
+  }
+
+  /**
+   * It wraps representations that were already compressed, e.g. read back from
+   * a snapshot file
+   *
+   * @param identity The plain JSON bytes.
+   * @param gzip     The same document, gzip-compressed.
+   * @return A PrecompressedJson object.
+   */
+  public static PrecompressedJson of(byte[] identity, byte[] gzip) {
+    return new PrecompressedJson(identity, gzip);
+  }
+
+  public byte[] getIdentity() {
+    return identity;
+  }
+
+  public byte[] getGzip() {
+    return gzip;
+  }
+
+  /**
+   * It builds a 200 response with the gzip bytes when the client accepts gzip,
+   * and with the plain bytes otherwise
+   *
+   * @param acceptEncoding The value of the Accept-Encoding request header.
+   * @return A ResponseEntity object.
+   */
+  public ResponseEntity<Object> toResponse(String acceptEncoding) {
+    boolean compressed = acceptsGzip(acceptEncoding);
+    byte[] body = compressed ? gzip : identity;
+    ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .contentLength(body.length)
+        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (compressed) {
+      builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+    return builder.body(body);
+  }
+
+  /**
+   * It checks if the Accept-Encoding header allows gzip, honouring "q=0"
+   *
+   * @param acceptEncoding The value of the Accept-Encoding request header.
+   * @return A boolean value.
+   */
+  private static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    for (String token : acceptEncoding.split(",")) {
+      String[] parts = token.trim().split(";");
+      String coding = parts[0].trim();
+      if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) {
+        continue;
+      }
+      boolean rejected = false;
+      for (int i = 1; i < parts.length; i++) {
+        String param = parts[i].trim().replace(" ", "");
+        if (param.equals("q=0") || param.startsWith("q=0.") && param.substring(4).matches("0*")) {
+          rejected = true;
+        }
+      }
+      if (!rejected) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+}
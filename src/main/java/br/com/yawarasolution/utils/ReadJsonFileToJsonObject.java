@@ -1,22 +1,26 @@
 package br.com.yawarasolution.utils;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 
 import org.json.JSONObject;
+import org.springframework.core.io.ClassPathResource;
 
 public class ReadJsonFileToJsonObject {
 
+  private static final String FILE = "openapi/response.json";
+
   /**
-   * It reads the contents of a file and returns a JSONObject
+   * It reads the OpenAPI response examples from the classpath, so it also
+   * works from the packaged jar, and returns them as a JSONObject
    * 
    * @return A JSONObject
    */
   public JSONObject read() throws IOException {
-    String file = "src/main/resources/openapi/response.json";
-    String content = new String(Files.readAllBytes(Paths.get(file)));
-    return new JSONObject(content);
+    try (InputStream in = new ClassPathResource(FILE).getInputStream()) {
+      return new JSONObject(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+    }
   }
 
 }
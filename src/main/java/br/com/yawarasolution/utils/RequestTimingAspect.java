@@ -0,0 +1,50 @@
+package br.com.yawarasolution.utils;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import br.com.yawarasolution.utils.RequestTimings.Phase;
+
+/**
+ * Adds the time spent in services, repositories and external calls to the
+ * timings of the current request. The user lookup of the JWT filter is
+ * timed by the filter itself, as its own phase.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "yamarasolution.server-timing.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestTimingAspect {
+
+  @Around("execution(public * br.com.yawarasolution.service..*(..)) "
+      + "&& !within(br.com.yawarasolution.service.UserDetailsServiceImpl)")
+  public Object serviceMethod(ProceedingJoinPoint joinPoint) throws Throwable {
+    return timed(Phase.SERVICE, joinPoint);
+  }
+
+  @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+  public Object repositoryMethod(ProceedingJoinPoint joinPoint) throws Throwable {
+    return timed(Phase.REPOSITORY, joinPoint);
+  }
+
+  @Around("execution(public * br.com.yawarasolution.config.MailConfig.sendEmail(..)) "
+      + "|| execution(public * br.com.yawarasolution.service.FirebaseFileService.*(..))")
+  public Object externalCall(ProceedingJoinPoint joinPoint) throws Throwable {
+    return timed(Phase.EXTERNAL, joinPoint);
+  }
+
+  private static Object timed(Phase phase, ProceedingJoinPoint joinPoint) throws Throwable {
+    long start = RequestTimings.enter(phase);
+    try {
+      return joinPoint.proceed();
+    } finally {
+      RequestTimings.exit(phase, start);
+    }
+  }
+
+}
@@ -0,0 +1,185 @@
+package br.com.yawarasolution.utils;
+
+import java.util.Arrays;
+
+/**
+ * Time spent per phase by the HTTP request on the current thread, for the
+ * Server-Timing header and the access log.
+ *
+ * Each request thread reuses one instance with fixed arrays, so timing a
+ * phase costs a thread-local lookup and two System.nanoTime calls and
+ * allocates nothing. Outside a request every method is a no-op. A phase
+ * nested in the same phase, e.g. a service calling another service, is only
+ * timed once, by the outermost call.
+ */
+public final class RequestTimings {
+
+  /** Sentinel returned by enter when the call is not timed. */
+  public static final long NOT_TIMED = Long.MIN_VALUE;
+
+  public enum Phase {
+    AUTH("auth", "JWT filter"),
+    JWT("jwt", "JWT verify"),
+    USER("user", "User lookup"),
+    SERVICE("service", "Services"),
+    REPOSITORY("repo", "Repositories"),
+    DB("db", "SQL"),
+    EXTERNAL("external", "Firebase and SMTP");
+
+    private final String metric;
+    private final String description;
+
+    Phase(String metric, String description) {
+      this.metric = metric;
+      this.description = description;
+    }
+
+    public String getMetric() {
+      return metric;
+    }
+
+    public String getDescription() {
+      return description;
+    }
+  }
+
+  private static final Phase[] PHASES = Phase.values();
+
+  private static final ThreadLocal<RequestTimings> CURRENT = ThreadLocal.withInitial(RequestTimings::new);
+
+  private final long[] nanos = new long[PHASES.length];
+
+  private final int[] counts = new int[PHASES.length];
+
+  private final int[] depth = new int[PHASES.length];
+
+  private boolean active;
+
+  private long startNanos;
+
+  private RequestTimings() {
+  }
+
+  /**
+   * It starts timing a request on this thread
+   *
+   * @return The timings of the request.
+   */
+  public static RequestTimings begin() {
+    RequestTimings timings = CURRENT.get();
+    Arrays.fill(timings.nanos, 0);
+    Arrays.fill(timings.counts, 0);
+    Arrays.fill(timings.depth, 0);
+    timings.active = true;
+    timings.startNanos = System.nanoTime();
+    return timings;
+  }
+
+  /**
+   * It stops timing the request on this thread. The instance keeps its
+   * values until the next request begins.
+   */
+  public static void end() {
+    CURRENT.get().active = false;
+  }
+
+  /**
+   * It marks the start of a phase
+   *
+   * @param phase The phase.
+   * @return The start time to pass to exit, or NOT_TIMED.
+   */
+  public static long enter(Phase phase) {
+    RequestTimings timings = CURRENT.get();
+    if (!timings.active || timings.depth[phase.ordinal()]++ > 0) {
+      return NOT_TIMED;
+    }
+    return System.nanoTime();
+  }
+
+  /**
+   * It marks the end of a phase
+   *
+   * @param phase The phase.
+   * @param start The value returned by enter.
+   */
+  public static void exit(Phase phase, long start) {
+    RequestTimings timings = CURRENT.get();
+    if (!timings.active) {
+      return;
+    }
+    timings.depth[phase.ordinal()]--;
+    if (start != NOT_TIMED) {
+      timings.nanos[phase.ordinal()] += System.nanoTime() - start;
+      timings.counts[phase.ordinal()]++;
+    }
+  }
+
+  /**
+   * It adds time measured elsewhere to a phase, e.g. one SQL statement
+   *
+   * @param phase       The phase.
+   * @param elapsedNano How long it took.
+   */
+  public static void add(Phase phase, long elapsedNano) {
+    RequestTimings timings = CURRENT.get();
+    if (timings.active) {
+      timings.nanos[phase.ordinal()] += elapsedNano;
+      timings.counts[phase.ordinal()]++;
+    }
+  }
+
+  public long getTotalNanos() {
+    return System.nanoTime() - startNanos;
+  }
+
+  public long getNanos(Phase phase) {
+    return nanos[phase.ordinal()];
+  }
+
+  public int getCount(Phase phase) {
+    return counts[phase.ordinal()];
+  }
+
+  /**
+   * It formats the phases that ran as a Server-Timing header value, e.g.
+   * db;dur=12.3;desc="SQL x4", total;dur=20.1
+   *
+   * @return The header value.
+   */
+  public String toServerTiming() {
+    StringBuilder header = new StringBuilder(160);
+    for (Phase phase : PHASES) {
+      if (counts[phase.ordinal()] == 0) {
+        continue;
+      }
+      header.append(phase.getMetric()).append(";dur=");
+      appendMillis(header, nanos[phase.ordinal()]);
+      header.append(";desc=\"").append(phase.getDescription()).append(" x").append(counts[phase.ordinal()])
+          .append("\", ");
+    }
+    header.append("total;dur=");
+    appendMillis(header, getTotalNanos());
+    return header.toString();
+  }
+
+  /**
+   * It formats the phases as key=value pairs for the access log, e.g.
+   * db_ms=12.3 db_n=4
+   *
+   * @param line The builder to append to.
+   */
+  public void appendTo(StringBuilder line) {
+    for (Phase phase : PHASES) {
+      line.append(' ').append(phase.getMetric()).append("_ms=");
+      appendMillis(line, nanos[phase.ordinal()]);
+      line.append(' ').append(phase.getMetric()).append("_n=").append(counts[phase.ordinal()]);
+    }
+  }
+
+  private static void appendMillis(StringBuilder builder, long nanos) {
+    long tenths = nanos / 100_000;
+    builder.append(tenths / 10).append('.').append(tenths % 10);
+  }
+
+}
@@ -0,0 +1,76 @@
+package br.com.yawarasolution.utils;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Times every HTTP request per phase, see RequestTimings, and reports it in
+ * a Server-Timing response header and in one access log line.
+ *
+ * The header is set just before the response is committed, so it covers
+ * everything up to the body being written. The access log line is written
+ * to the "access" logger once the request is done, as key=value pairs. It
+ * is the first filter, so SqlRequestFilter and everything after it is timed.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "yamarasolution.server-timing.enabled", havingValue = "true", matchIfMissing = true)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+  private static final Logger accessLog = LoggerFactory.getLogger("access");
+
+  public static final String HEADER = "Server-Timing";
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    RequestTimings timings = RequestTimings.begin();
+    HttpServletResponse timedResponse = new OnCommittedResponseWrapper(response) {
+      @Override
+      protected void onResponseCommitted() {
+        setHeader(HEADER, timings.toServerTiming());
+      }
+    };
+    try {
+      filterChain.doFilter(request, timedResponse);
+      if (!response.isCommitted()) {
+        response.setHeader(HEADER, timings.toServerTiming());
+      }
+    } finally {
+      if (accessLog.isInfoEnabled()) {
+        accessLog.info(accessLine(request, response, timings));
+      }
+      RequestTimings.end();
+    }
+  }
+
+  private static String accessLine(HttpServletRequest request, HttpServletResponse response,
+      RequestTimings timings) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    StringBuilder line = new StringBuilder(256)
+        .append("method=").append(request.getMethod())
+        .append(" path=").append(request.getRequestURI())
+        .append(" endpoint=").append(pattern != null ? pattern : "-")
+        .append(" status=").append(response.getStatus())
+        .append(" total_ms=");
+    long tenths = timings.getTotalNanos() / 100_000;
+    line.append(tenths / 10).append('.').append(tenths % 10);
+    timings.appendTo(line);
+    return line.toString();
+  }
+
+}
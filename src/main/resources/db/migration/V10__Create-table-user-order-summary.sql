@@ -0,0 +1,50 @@
+CREATE TABLE
+    user_order_summary (
+        id UUID,
+        user_purchase_id UUID NOT NULL,
+        user_id UUID NOT NULL,
+        purchase_status varchar(20) NOT NULL,
+        total_price decimal(10, 2) NOT NULL,
+        purchase_date date,
+        line_count integer NOT NULL,
+        product_names varchar(255) NOT NULL,
+        PRIMARY KEY (id),
+        CONSTRAINT UK_user_order_summary_user_purchase_id UNIQUE (user_purchase_id),
+        CONSTRAINT FK_user_order_summary_user_purchase_id FOREIGN KEY (user_purchase_id) REFERENCES user_purchase(id),
+        CONSTRAINT FK_user_order_summary_user_id FOREIGN KEY (user_id) REFERENCES users(id)
+    );
+
+CREATE INDEX idx_user_order_summary_user_date ON user_order_summary (user_id, purchase_date DESC);
+
+CREATE INDEX idx_user_order_summary_user_status_date ON user_order_summary (user_id, purchase_status, purchase_date DESC);
+
+INSERT INTO
+    user_order_summary (
+        id,
+        user_purchase_id,
+        user_id,
+        purchase_status,
+        total_price,
+        purchase_date,
+        line_count,
+        product_names
+    )
+SELECT
+    gen_random_uuid(),
+    up.id,
+    up.user_id,
+    up.purchase_status,
+    up.total_price,
+    up.purchase_date,
+    COUNT(pu.id),
+    COALESCE(LEFT(string_agg(p.name, ', ' ORDER BY p.name), 255), '')
+FROM user_purchase up
+    LEFT JOIN purchase pu ON pu.user_purchase_id = up.id
+    LEFT JOIN product p ON p.id = pu.product_id
+WHERE up.user_id IS NOT NULL
+GROUP BY
+    up.id,
+    up.user_id,
+    up.purchase_status,
+    up.total_price,
+    up.purchase_date;
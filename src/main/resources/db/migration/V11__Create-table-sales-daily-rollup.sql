@@ -0,0 +1,16 @@
+CREATE TABLE
+    sales_daily_rollup (
+        id UUID,
+        rollup_date date NOT NULL,
+        product_id UUID NOT NULL,
+        category_id UUID,
+        units decimal(14, 2) NOT NULL,
+        revenue decimal(14, 2) NOT NULL,
+        order_count integer NOT NULL,
+        cancellations integer NOT NULL,
+        PRIMARY KEY (id),
+        CONSTRAINT UK_sales_daily_rollup_date_product UNIQUE (rollup_date, product_id),
+        CONSTRAINT FK_sales_daily_rollup_product_id FOREIGN KEY (product_id) REFERENCES product(id)
+    );
+
+CREATE INDEX idx_sales_daily_rollup_category_date ON sales_daily_rollup (category_id, rollup_date);
@@ -0,0 +1,17 @@
+CREATE TABLE
+    donation_contribution (
+        id UUID,
+        donation_id UUID NOT NULL,
+        donator_id UUID NOT NULL,
+        amount decimal(10, 2) NOT NULL,
+        contribution_date timestamp
+        with
+            time zone NOT NULL,
+            PRIMARY KEY (id),
+            CONSTRAINT FK_donation_contribution_donation_id FOREIGN KEY (donation_id) REFERENCES donation(id),
+            CONSTRAINT FK_donation_contribution_donator_id FOREIGN KEY (donator_id) REFERENCES donator(id)
+    );
+
+CREATE INDEX idx_donation_contribution_donation_id ON donation_contribution (donation_id);
+
+CREATE INDEX idx_donator_email ON donator (email);
@@ -0,0 +1,23 @@
+CREATE TABLE
+    survey_response_rollup (
+        id UUID,
+        donation_id UUID NOT NULL,
+        question varchar(255) NOT NULL,
+        response varchar(255) NOT NULL,
+        response_count bigint NOT NULL,
+        PRIMARY KEY (id),
+        CONSTRAINT UK_survey_response_rollup_donation_question_response UNIQUE (donation_id, question, response),
+        CONSTRAINT FK_survey_response_rollup_donation_id FOREIGN KEY (donation_id) REFERENCES donation(id)
+    );
+
+INSERT INTO
+    survey_response_rollup (id, donation_id, question, response, response_count)
+SELECT
+    gen_random_uuid(),
+    donation_id,
+    question,
+    response,
+    COUNT(*)
+FROM survey_question
+WHERE donation_id IS NOT NULL
+GROUP BY donation_id, question, response;
@@ -0,0 +1,21 @@
+CREATE TABLE
+    donation_donor_total (
+        id UUID,
+        donation_id UUID NOT NULL,
+        donator_id UUID NOT NULL,
+        amount decimal(14, 2) NOT NULL,
+        PRIMARY KEY (id),
+        CONSTRAINT UK_donation_donor_total_donation_donator UNIQUE (donation_id, donator_id),
+        CONSTRAINT FK_donation_donor_total_donation_id FOREIGN KEY (donation_id) REFERENCES donation(id),
+        CONSTRAINT FK_donation_donor_total_donator_id FOREIGN KEY (donator_id) REFERENCES donator(id)
+    );
+
+INSERT INTO
+    donation_donor_total (id, donation_id, donator_id, amount)
+SELECT
+    gen_random_uuid(),
+    donation_id,
+    donator_id,
+    SUM(amount)
+FROM donation_contribution
+GROUP BY donation_id, donator_id;
@@ -0,0 +1,22 @@
+CREATE TABLE
+    idempotency_key (
+        id UUID,
+        user_id UUID NOT NULL,
+        idempotency_key varchar(255) NOT NULL,
+        request_hash varchar(64) NOT NULL,
+        status varchar(20) NOT NULL,
+        response_status integer,
+        response_location varchar(255),
+        response_body text,
+        created_at timestamp
+        with
+            time zone NOT NULL,
+            expires_at timestamp
+        with
+            time zone NOT NULL,
+            PRIMARY KEY (id),
+            CONSTRAINT UK_idempotency_key_user_key UNIQUE (user_id, idempotency_key),
+            CONSTRAINT FK_idempotency_key_user_id FOREIGN KEY (user_id) REFERENCES users(id)
+    );
+
+CREATE INDEX idx_idempotency_key_expires_at ON idempotency_key (expires_at);
@@ -0,0 +1,7 @@
+-- Orders placed before this migration keep their stock until they are
+-- moved out of PENDING by hand; only new orders get a reservation deadline.
+ALTER TABLE user_purchase ADD COLUMN reserved_until timestamp with time zone;
+
+CREATE INDEX idx_user_purchase_pending_reserved_until ON user_purchase (reserved_until)
+WHERE
+    purchase_status = 'PENDING';
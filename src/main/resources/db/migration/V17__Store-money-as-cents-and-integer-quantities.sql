@@ -0,0 +1,22 @@
+ALTER TABLE product
+ALTER COLUMN price SET DATA TYPE bigint USING round(price::numeric * 100)::bigint;
+
+ALTER TABLE product RENAME COLUMN price TO price_cents;
+
+ALTER TABLE purchase
+ALTER COLUMN quantity SET DATA TYPE integer USING round(quantity)::integer;
+
+ALTER TABLE purchase
+ALTER COLUMN unit_price SET DATA TYPE bigint USING round(unit_price * 100)::bigint;
+
+ALTER TABLE purchase RENAME COLUMN unit_price TO unit_price_cents;
+
+ALTER TABLE user_purchase
+ALTER COLUMN total_price SET DATA TYPE bigint USING round(total_price * 100)::bigint;
+
+ALTER TABLE user_purchase RENAME COLUMN total_price TO total_price_cents;
+
+ALTER TABLE user_order_summary
+ALTER COLUMN total_price SET DATA TYPE bigint USING round(total_price * 100)::bigint;
+
+ALTER TABLE user_order_summary RENAME COLUMN total_price TO total_price_cents;
@@ -0,0 +1,19 @@
+CREATE TABLE
+    scheduled_job (
+        name varchar(100) NOT NULL,
+        last_started_at timestamp
+        with
+            time zone,
+            last_finished_at timestamp
+        with
+            time zone,
+            last_duration_ms bigint,
+            last_rows_affected bigint,
+            last_status varchar(20),
+            last_error varchar(1000),
+            last_node varchar(255),
+            resume_cursor varchar(255),
+            PRIMARY KEY (name)
+    );
+
+CREATE INDEX idx_refreshtoken_expiry_date ON refreshtoken (expiry_date);
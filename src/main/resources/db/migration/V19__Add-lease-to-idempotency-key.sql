@@ -0,0 +1,10 @@
+ALTER TABLE idempotency_key
+ADD COLUMN lease_until timestamp
+with
+    time zone;
+
+ALTER TABLE idempotency_key ADD COLUMN lease_token UUID;
+
+UPDATE idempotency_key SET lease_until = created_at;
+
+ALTER TABLE idempotency_key ALTER COLUMN lease_until SET NOT NULL;
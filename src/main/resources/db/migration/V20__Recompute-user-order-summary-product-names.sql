@@ -0,0 +1,43 @@
+-- V10 filled product_names with every name, while new orders get only the
+-- first 3 names, cut to 255 characters. Lines carry no position, so the line
+-- order of orders backfilled by V10 is unknown; their first 3 names are taken
+-- in name order, then product id, which gives the same result on every run.
+UPDATE user_order_summary s
+SET
+    product_names = n.product_names
+FROM (
+        SELECT
+            l.user_purchase_id,
+            COALESCE(LEFT(string_agg(l.name, ', ' ORDER BY l.line) FILTER (WHERE l.line <= 3), 255), '') AS product_names,
+            COALESCE(LEFT(string_agg(l.name, ', ' ORDER BY l.name), 255), '') AS backfilled_names
+        FROM (
+                SELECT
+                    pu.user_purchase_id,
+                    p.name,
+                    row_number() OVER (
+                        PARTITION BY pu.user_purchase_id
+                        ORDER BY
+                            p.name,
+                            p.id
+                    ) AS line
+                FROM purchase pu
+                    JOIN product p ON p.id = pu.product_id
+            ) l
+        GROUP BY l.user_purchase_id
+    ) n
+WHERE
+    s.user_purchase_id = n.user_purchase_id
+    -- Only rows still holding what V10 wrote; orders placed since keep the
+    -- names createOrder stored in line order.
+    AND s.product_names = n.backfilled_names
+    AND s.product_names <> n.product_names;
+
+-- The listings page by date, then id, so orders placed on the same day keep
+-- their place between pages.
+DROP INDEX idx_user_order_summary_user_date;
+
+DROP INDEX idx_user_order_summary_user_status_date;
+
+CREATE INDEX idx_user_order_summary_user_date ON user_order_summary (user_id, purchase_date DESC, id DESC);
+
+CREATE INDEX idx_user_order_summary_user_status_date ON user_order_summary (user_id, purchase_status, purchase_date DESC, id DESC);
@@ -0,0 +1,64 @@
+-- Contributions store donors by their e-mail trimmed and in lower case; rows
+-- written before that, or twice by concurrent flushes, are merged into the
+-- oldest donor with the same normalised e-mail before it is made unique.
+CREATE TEMPORARY TABLE donator_merge AS
+SELECT
+    d.id,
+    first_value(d.id) OVER (
+        PARTITION BY lower(trim(d.email))
+        ORDER BY
+            d.donation_date,
+            d.id
+    ) AS keeper_id
+FROM donator d;
+
+DELETE FROM donator_merge WHERE id = keeper_id;
+
+INSERT INTO
+    donation_donor_total (id, donation_id, donator_id, amount)
+SELECT
+    gen_random_uuid(),
+    t.donation_id,
+    m.keeper_id,
+    SUM(t.amount)
+FROM donation_donor_total t
+    JOIN donator_merge m ON m.id = t.donator_id
+GROUP BY
+    t.donation_id,
+    m.keeper_id ON CONFLICT (donation_id, donator_id) DO
+UPDATE
+SET
+    amount = donation_donor_total.amount + EXCLUDED.amount;
+
+DELETE FROM donation_donor_total t USING donator_merge m WHERE t.donator_id = m.id;
+
+UPDATE donation_contribution c SET donator_id = m.keeper_id FROM donator_merge m WHERE c.donator_id = m.id;
+
+UPDATE donation x SET donator_id = m.keeper_id FROM donator_merge m WHERE x.donator_id = m.id;
+
+UPDATE survey_question q SET donator_id = m.keeper_id FROM donator_merge m WHERE q.donator_id = m.id;
+
+UPDATE donator k
+SET
+    amount_donated = k.amount_donated + merged.amount_donated,
+    donation_date = GREATEST(k.donation_date, merged.donation_date)
+FROM (
+        SELECT
+            m.keeper_id,
+            SUM(d.amount_donated) AS amount_donated,
+            MAX(d.donation_date) AS donation_date
+        FROM donator d
+            JOIN donator_merge m ON m.id = d.id
+        GROUP BY m.keeper_id
+    ) merged
+WHERE k.id = merged.keeper_id;
+
+DELETE FROM donator d USING donator_merge m WHERE d.id = m.id;
+
+DROP TABLE donator_merge;
+
+UPDATE donator SET email = lower(trim(email)) WHERE email <> lower(trim(email));
+
+DROP INDEX idx_donator_email;
+
+CREATE UNIQUE INDEX UK_donator_email ON donator (email);
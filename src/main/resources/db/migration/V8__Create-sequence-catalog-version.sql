@@ -0,0 +1 @@
+CREATE SEQUENCE catalog_version_seq START WITH 1 INCREMENT BY 1;
@@ -0,0 +1,3 @@
+CREATE INDEX idx_purchase_product_id ON purchase (product_id);
+
+CREATE INDEX idx_product_category_id ON product (category_id);
@@ -0,0 +1,62 @@
+package br.com.yawarasolution.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import br.com.yawarasolution.DTO.product.ProductResponseDTO;
+import br.com.yawarasolution.exception.ApiError;
+import br.com.yawarasolution.model.Product;
+
+class NativeRuntimeHintsTest {
+
+  private final RuntimeHints hints = new RuntimeHints();
+
+  @BeforeEach
+  void registerHints() {
+    new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+  }
+
+  @Test
+  void registersTheClasspathResources() {
+    assertThat(RuntimeHintsPredicates.resource().forResource("openapi/response.json")).accepts(hints);
+    assertThat(RuntimeHintsPredicates.resource().forResource("firebase.json")).accepts(hints);
+  }
+
+  @Test
+  void bindsTheDtosAndTheApiError() {
+    assertThat(RuntimeHintsPredicates.reflection().onType(ProductResponseDTO.class)).accepts(hints);
+    assertThat(RuntimeHintsPredicates.reflection().onType(ApiError.class)).accepts(hints);
+  }
+
+  @Test
+  void opensTheEntitiesToHibernate() {
+    assertThat(RuntimeHintsPredicates.reflection().onType(Product.class)
+        .withMemberCategories(MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_METHODS))
+        .accepts(hints);
+  }
+
+  @Test
+  void registersTheTypesLoadedByName() {
+    assertThat(RuntimeHintsPredicates.reflection().onType(TypeReference.of("io.jsonwebtoken.impl.DefaultClaims")))
+        .accepts(hints);
+    assertThat(RuntimeHintsPredicates.reflection()
+        .onType(TypeReference.of("com.google.auth.oauth2.ServiceAccountCredentials"))).accepts(hints);
+    assertThat(RuntimeHintsPredicates.reflection().onType(JSONObject.class)
+        .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)).accepts(hints);
+  }
+
+  @Test
+  void registersTheProfilerProxies() {
+    assertThat(RuntimeHintsPredicates.proxies().forInterfaces(Connection.class)).accepts(hints);
+  }
+
+}
@@ -0,0 +1,136 @@
+package br.com.yawarasolution.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import br.com.yawarasolution.DTO.diagnostics.SqlEndpointStatsResponseDTO;
+import jakarta.servlet.ServletException;
+
+@ExtendWith(MockitoExtension.class)
+class SqlProfilerTest {
+
+  private static final String SQL = "select * from product where id = ?";
+
+  @Mock
+  private DataSource target;
+
+  @Mock
+  private Connection connection;
+
+  @Mock
+  private PreparedStatement statement;
+
+  private SqlProfiler profiler;
+
+  private SqlRequestFilter filter;
+
+  private DataSource dataSource;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    profiler = new SqlProfiler();
+    ReflectionTestUtils.setField(profiler, "slowMs", Long.MAX_VALUE);
+    ReflectionTestUtils.setField(profiler, "statementBudget", 3);
+    filter = new SqlRequestFilter();
+    ReflectionTestUtils.setField(filter, "profiler", profiler);
+    dataSource = (DataSource) profiler.postProcessAfterInitialization(target, "dataSource");
+    when(target.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(anyString())).thenReturn(statement);
+  }
+
+  @Test
+  void countsTheStatementsOfEachEndpoint() throws Exception {
+    request("/product/1", "/product/{id}", 2);
+    request("/product/2", "/product/{id}", 4);
+    request("/missing", null, 1);
+
+    List<SqlEndpointStatsResponseDTO> endpoints = profiler.getStatistics().getEndpoints();
+    assertEquals(2, endpoints.size());
+
+    SqlEndpointStatsResponseDTO product = endpoints.get(0);
+    assertEquals("GET /product/{id}", product.getEndpoint());
+    assertEquals(2, product.getRequests());
+    assertEquals(3, product.getAverageStatements());
+    assertEquals(4, product.getMaxStatements());
+    assertEquals(1, product.getOverBudget());
+
+    SqlEndpointStatsResponseDTO unmapped = endpoints.get(1);
+    assertEquals("GET (unmapped)", unmapped.getEndpoint());
+    assertEquals(1, unmapped.getMaxStatements());
+    assertEquals(0, unmapped.getOverBudget());
+
+    verify(statement, times(7)).executeQuery();
+  }
+
+  @Test
+  void failsTheStatementOverTheBudget() throws Exception {
+    ReflectionTestUtils.setField(profiler, "failOverBudget", true);
+
+    IllegalStateException e = assertThrows(IllegalStateException.class,
+        () -> request("/product/1", "/product/{id}", 5));
+
+    assertTrue(e.getMessage().contains("exceeded its budget of 3"), e.getMessage());
+    verify(statement, times(3)).executeQuery();
+    SqlEndpointStatsResponseDTO product = profiler.getStatistics().getEndpoints().get(0);
+    assertEquals(4, product.getMaxStatements());
+    assertEquals(1, product.getOverBudget());
+  }
+
+  @Test
+  void ignoresStatementsOutsideARequest() throws Exception {
+    query(5);
+
+    assertTrue(profiler.getStatistics().getEndpoints().isEmpty());
+    verify(statement, times(5)).executeQuery();
+  }
+
+  /**
+   * It runs a GET request through the filter, whose handler runs the given
+   * number of statements
+   */
+  private void request(String uri, String pattern, int statements) throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+    filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+      if (pattern != null) {
+        req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+      }
+      try {
+        query(statements);
+      } catch (SQLException e) {
+        throw new ServletException(e);
+      }
+    });
+  }
+
+  private void query(int statements) throws SQLException {
+    try (Connection profiled = dataSource.getConnection();
+        PreparedStatement prepared = profiled.prepareStatement(SQL)) {
+      for (int i = 0; i < statements; i++) {
+        prepared.executeQuery();
+      }
+    }
+  }
+
+}
@@ -0,0 +1,66 @@
+package br.com.yawarasolution.service;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import br.com.yawarasolution.event.CatalogChangedEvent;
+import br.com.yawarasolution.exception.CategoryException;
+import br.com.yawarasolution.repository.CategoryRepository;
+import br.com.yawarasolution.repository.ProductRepository;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryServiceTest {
+
+  private static final UUID CATEGORY_ID = UUID.randomUUID();
+
+  @Mock
+  private CategoryRepository categoryRepository;
+
+  @Mock
+  private ProductRepository productRepository;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @InjectMocks
+  private CategoryService categoryService;
+
+  @Test
+  void deleteRefusesACategoryWithProductsWithoutLoadingThem() {
+    when(categoryRepository.existsById(CATEGORY_ID)).thenReturn(true);
+    when(productRepository.existsByCategory_Id(CATEGORY_ID)).thenReturn(true);
+
+    assertThrows(CategoryException.class, () -> categoryService.deleteCategory(CATEGORY_ID));
+
+    verify(categoryRepository).existsById(CATEGORY_ID);
+    verify(productRepository).existsByCategory_Id(CATEGORY_ID);
+    verifyNoMoreInteractions(categoryRepository, productRepository);
+    verify(eventPublisher, never()).publishEvent(any(CatalogChangedEvent.class));
+  }
+
+  @Test
+  void deleteRemovesACategoryWithoutProducts() {
+    when(categoryRepository.existsById(CATEGORY_ID)).thenReturn(true);
+    when(productRepository.existsByCategory_Id(CATEGORY_ID)).thenReturn(false);
+
+    categoryService.deleteCategory(CATEGORY_ID);
+
+    verify(categoryRepository).deleteById(CATEGORY_ID);
+    verify(categoryRepository, never()).findById(any());
+    verify(eventPublisher).publishEvent(any(CatalogChangedEvent.class));
+  }
+
+}
@@ -0,0 +1,77 @@
+package br.com.yawarasolution.service;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import br.com.yawarasolution.event.CatalogChangedEvent;
+import br.com.yawarasolution.exception.ProductException;
+import br.com.yawarasolution.repository.ProductRepository;
+import br.com.yawarasolution.repository.PurchaseRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ProductServiceTest {
+
+  private static final UUID PRODUCT_ID = UUID.randomUUID();
+
+  @Mock
+  private ProductRepository productRepository;
+
+  @Mock
+  private PurchaseRepository purchaseRepository;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @InjectMocks
+  private ProductService productService;
+
+  @Test
+  void deleteRefusesAProductWithPurchasesWithoutLoadingIt() {
+    when(productRepository.existsById(PRODUCT_ID)).thenReturn(true);
+    when(purchaseRepository.existsByProduct_Id(PRODUCT_ID)).thenReturn(true);
+
+    assertThrows(ProductException.class, () -> productService.deleteProduct(PRODUCT_ID));
+
+    // Two existence checks, whatever the number of purchases: neither the
+    // product nor its purchases are loaded.
+    verify(productRepository).existsById(PRODUCT_ID);
+    verify(purchaseRepository).existsByProduct_Id(PRODUCT_ID);
+    verifyNoMoreInteractions(productRepository, purchaseRepository);
+    verify(eventPublisher, never()).publishEvent(any(CatalogChangedEvent.class));
+  }
+
+  @Test
+  void deleteRemovesAProductWithoutPurchases() {
+    when(productRepository.existsById(PRODUCT_ID)).thenReturn(true);
+    when(purchaseRepository.existsByProduct_Id(PRODUCT_ID)).thenReturn(false);
+
+    productService.deleteProduct(PRODUCT_ID);
+
+    verify(productRepository).deleteById(PRODUCT_ID);
+    verify(productRepository, never()).findById(any());
+    verify(eventPublisher).publishEvent(any(CatalogChangedEvent.class));
+  }
+
+  @Test
+  void deleteRefusesAMissingProduct() {
+    when(productRepository.existsById(PRODUCT_ID)).thenReturn(false);
+
+    assertThrows(ProductException.class, () -> productService.deleteProduct(PRODUCT_ID));
+
+    verifyNoMoreInteractions(purchaseRepository);
+  }
+
+}
@@ -0,0 +1,79 @@
+package br.com.yawarasolution.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+
+class BatchRetryQueueTest {
+
+  private static final RuntimeException POISON = new DataIntegrityViolationException("numeric field overflow");
+
+  private static final RuntimeException DOWN = new QueryTimeoutException("timeout");
+
+  @Test
+  void transientFailureRetriesTheWholeBatch() {
+    BatchRetryQueue<String> queue = new BatchRetryQueue<>(3);
+    List<String> batch = List.of("a", "b", "c", "d");
+
+    assertTrue(queue.failed(batch, DOWN).isEmpty());
+
+    assertEquals(batch, queue.poll());
+    assertNull(queue.poll());
+  }
+
+  @Test
+  void contentFailureSplitsTheBatchInHalves() {
+    BatchRetryQueue<String> queue = new BatchRetryQueue<>(3);
+
+    assertTrue(queue.failed(List.of("a", "b", "c", "d", "e"), POISON).isEmpty());
+
+    assertEquals(List.of("a", "b"), queue.poll());
+    assertEquals(List.of("c", "d", "e"), queue.poll());
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  void poisonItemIsGivenUpAfterMaxAttemptsAndTheRestIsWritten() {
+    BatchRetryQueue<String> queue = new BatchRetryQueue<>(2);
+    String poison = "c";
+    List<String> given = null;
+    List<String> written = new ArrayList<>();
+
+    List<String> batch = List.of("a", "b", poison, "d");
+    while (batch != null) {
+      if (batch.contains(poison)) {
+        List<String> dropped = queue.failed(batch, POISON);
+        if (!dropped.isEmpty()) {
+          given = dropped;
+        }
+      } else {
+        written.addAll(batch);
+        queue.succeeded(batch);
+      }
+      batch = queue.poll();
+    }
+
+    assertEquals(List.of(poison), given);
+    assertEquals(List.of("a", "b", "d"), written);
+  }
+
+  @Test
+  void attemptsAreForgottenOnceWritten() {
+    BatchRetryQueue<String> queue = new BatchRetryQueue<>(2);
+    String item = "a";
+
+    assertTrue(queue.failed(List.of(item), POISON).isEmpty());
+    queue.succeeded(queue.poll());
+
+    assertTrue(queue.failed(List.of(item), POISON).isEmpty());
+    assertEquals(List.of(item), queue.poll());
+  }
+
+}
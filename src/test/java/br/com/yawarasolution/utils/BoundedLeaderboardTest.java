@@ -0,0 +1,137 @@
+package br.com.yawarasolution.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class BoundedLeaderboardTest {
+
+  private static final UUID ANA = new UUID(0, 1);
+
+  private static final UUID BIA = new UUID(0, 2);
+
+  private static final UUID CAIO = new UUID(0, 3);
+
+  private static final UUID DANI = new UUID(0, 4);
+
+  @Test
+  void keepsTheHighestScoresBestFirst() {
+    BoundedLeaderboard board = new BoundedLeaderboard(3);
+    board.offer(ANA, "Ana", 100);
+    board.offer(BIA, "Bia", 300);
+    board.offer(CAIO, "Caio", 200);
+    board.offer(DANI, "Dani", 50);
+
+    assertEquals(3, board.size());
+    assertEquals(List.of("Bia", "Caio", "Ana"), labels(board.slice(0, 10)));
+  }
+
+  @Test
+  void ignoresAScoreThatDidNotGrow() {
+    BoundedLeaderboard board = new BoundedLeaderboard(3);
+    board.offer(ANA, "Ana", 100);
+    board.offer(ANA, "Ana", 40);
+
+    assertEquals(1, board.size());
+    assertEquals(100, board.slice(0, 1).get(0).getScore());
+  }
+
+  @Test
+  void movesAMemberUpWhenItsScoreGrows() {
+    BoundedLeaderboard board = new BoundedLeaderboard(3);
+    board.offer(ANA, "Ana", 100);
+    board.offer(BIA, "Bia", 300);
+    board.offer(ANA, "Ana", 500);
+
+    assertEquals(2, board.size());
+    assertEquals(List.of("Ana", "Bia"), labels(board.slice(0, 10)));
+  }
+
+  @Test
+  void letsACompetitorBackInWithAHigherScore() {
+    BoundedLeaderboard board = new BoundedLeaderboard(2);
+    board.offer(ANA, "Ana", 100);
+    board.offer(BIA, "Bia", 200);
+    board.offer(CAIO, "Caio", 300);
+    board.offer(ANA, "Ana", 250);
+
+    assertEquals(List.of("Caio", "Ana"), labels(board.slice(0, 10)));
+  }
+
+  @Test
+  void breaksTiesById() {
+    BoundedLeaderboard board = new BoundedLeaderboard(1);
+    board.offer(BIA, "Bia", 100);
+    board.offer(ANA, "Ana", 100);
+
+    assertEquals(List.of("Ana"), labels(board.slice(0, 10)));
+  }
+
+  @Test
+  void slicesPages() {
+    BoundedLeaderboard board = new BoundedLeaderboard(10);
+    board.offer(ANA, "Ana", 400);
+    board.offer(BIA, "Bia", 300);
+    board.offer(CAIO, "Caio", 200);
+    board.offer(DANI, "Dani", 100);
+
+    assertEquals(List.of("Caio", "Dani"), labels(board.slice(2, 2)));
+    assertTrue(board.slice(4, 2).isEmpty());
+  }
+
+  /**
+   * Timing loop: the same number of updates against 10^3, 10^5 and 10^6
+   * donors on a board of 100. An update touches only the board, so its cost
+   * must not follow the number of donors; a board that kept or sorted every
+   * donor would be about a thousand times slower at 10^6 than at 10^3. The
+   * bound leaves room for the cache misses of the test's own arrays.
+   */
+  @Test
+  void updateCostDoesNotGrowWithTheNumberOfDonors() {
+    int updates = 2_000_000;
+    run(1_000, updates);
+    run(1_000_000, updates);
+
+    long small = run(1_000, updates);
+    long medium = run(100_000, updates);
+    long large = run(1_000_000, updates);
+    System.out.printf("BoundedLeaderboard update: %d ns at 10^3 donors, %d ns at 10^5, %d ns at 10^6%n", small,
+        medium, large);
+
+    assertTrue(large < Math.max(small, 50) * 20,
+        "update took " + large + " ns at 10^6 donors and " + small + " ns at 10^3");
+  }
+
+  /**
+   * It gives random donors random contributions and returns the mean time of
+   * an update in nanoseconds
+   */
+  private static long run(int donors, int updates) {
+    BoundedLeaderboard board = new BoundedLeaderboard(100);
+    long[] totals = new long[donors];
+    UUID[] ids = new UUID[donors];
+    for (int i = 0; i < donors; i++) {
+      ids[i] = new UUID(0, i);
+    }
+    Random random = new Random(42);
+    long started = System.nanoTime();
+    for (int i = 0; i < updates; i++) {
+      int donor = random.nextInt(donors);
+      totals[donor] += 1 + random.nextInt(10_000);
+      board.offer(ids[donor], "donor", totals[donor]);
+    }
+    long elapsed = System.nanoTime() - started;
+    assertEquals(Math.min(100, donors), board.size());
+    return elapsed / updates;
+  }
+
+  private static List<String> labels(List<BoundedLeaderboard.Entry> entries) {
+    return entries.stream().map(BoundedLeaderboard.Entry::getLabel).toList();
+  }
+
+}
@@ -0,0 +1,52 @@
+package br.com.yawarasolution.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+class MoneyTest {
+
+  @Test
+  void convertsApiAmountsToCentsExactly() {
+    assertEquals(1999, Money.toCents(new BigDecimal("19.99")));
+    assertEquals(500, Money.toCents(new BigDecimal("5")));
+    assertEquals(10, Money.toCents(new BigDecimal("0.1")));
+  }
+
+  @Test
+  void refusesAmountsWithMoreThanTwoDecimalPlaces() {
+    assertThrows(ArithmeticException.class, () -> Money.toCents(new BigDecimal("0.001")));
+  }
+
+  @Test
+  void refusesAmountsThatDoNotFitInALong() {
+    assertThrows(ArithmeticException.class, () -> Money.toCents(new BigDecimal("1e30")));
+  }
+
+  @Test
+  void convertsCentsBackWithTwoDecimalPlaces() {
+    assertEquals(new BigDecimal("19.99"), Money.fromCents(1999L));
+    assertEquals(new BigDecimal("0.10"), Money.fromCents(10L));
+    assertNull(Money.fromCents(null));
+  }
+
+  @Test
+  void addsUpLinesWithoutBinaryRoundingErrors() {
+    // 0.1 + 0.2 is 0.30000000000000004 in double.
+    long total = Money.times(Money.toCents(new BigDecimal("0.10")), 1)
+        + Money.times(Money.toCents(new BigDecimal("0.20")), 1);
+
+    assertEquals(new BigDecimal("0.30"), Money.fromCents(total));
+    assertEquals(new BigDecimal("59.97"), Money.fromCents(Money.times(1999, 3)));
+  }
+
+  @Test
+  void failsInsteadOfOverflowingALineTotal() {
+    assertThrows(ArithmeticException.class, () -> Money.times(Long.MAX_VALUE / 2, 3));
+  }
+
+}